@@ -0,0 +1,29 @@
+package com.vm2124.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Path-prefix auth rules that are not tied to a single gateway route (gateway.auth-policy),
+ * such as actuator paths or individual endpoints inside a route. Route-wide modes are set
+ * with the auth-mode key in each route's metadata; a rule here wins over route metadata
+ * for the same prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.auth-policy")
+public class AuthPolicyProperties {
+
+    /** Mode for paths that match neither a rule nor a route with auth-mode metadata. */
+    private String defaultMode = "full-context";
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String prefix;
+        private String mode;
+    }
+}
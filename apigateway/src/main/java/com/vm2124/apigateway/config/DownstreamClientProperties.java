@@ -0,0 +1,62 @@
+package com.vm2124.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool and timeout settings for the gateway's own calls to downstream services
+ * (gateway.downstream). Each entry under services gets a dedicated pool; any setting left
+ * unset on a service falls back to the matching value under defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.downstream")
+public class DownstreamClientProperties {
+
+    private Pool defaults = new Pool();
+    private Map<String, Service> services = new LinkedHashMap<>();
+
+    @Data
+    public static class Pool {
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration responseTimeout = Duration.ofSeconds(5);
+        private Integer maxConnections = 100;
+        private Integer pendingAcquireMaxCount = 200;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Service {
+        private String baseUrl;
+        private Duration connectTimeout;
+        private Duration responseTimeout;
+        private Integer maxConnections;
+        private Integer pendingAcquireMaxCount;
+        private Duration pendingAcquireTimeout;
+        private Duration maxIdleTime;
+        private Duration maxLifeTime;
+        private Duration evictInBackground;
+
+        /**
+         * This service's settings with unset values taken from the defaults.
+         */
+        public Pool resolve(Pool defaults) {
+            Pool pool = new Pool();
+            pool.setConnectTimeout(connectTimeout != null ? connectTimeout : defaults.getConnectTimeout());
+            pool.setResponseTimeout(responseTimeout != null ? responseTimeout : defaults.getResponseTimeout());
+            pool.setMaxConnections(maxConnections != null ? maxConnections : defaults.getMaxConnections());
+            pool.setPendingAcquireMaxCount(pendingAcquireMaxCount != null ? pendingAcquireMaxCount : defaults.getPendingAcquireMaxCount());
+            pool.setPendingAcquireTimeout(pendingAcquireTimeout != null ? pendingAcquireTimeout : defaults.getPendingAcquireTimeout());
+            pool.setMaxIdleTime(maxIdleTime != null ? maxIdleTime : defaults.getMaxIdleTime());
+            pool.setMaxLifeTime(maxLifeTime != null ? maxLifeTime : defaults.getMaxLifeTime());
+            pool.setEvictInBackground(evictInBackground != null ? evictInBackground : defaults.getEvictInBackground());
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.vm2124.apigateway.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * One WebClient per downstream service id, each on its own Reactor Netty connection pool
+ * sized and timed from gateway.downstream. Pool occupancy is exported as
+ * gateway.downstream.pool.* gauges tagged with the service id and remote address.
+ * Clients are built on first use and reused for the life of the gateway.
+ */
+@Component
+@Slf4j
+public class DownstreamClientRegistry implements DisposableBean {
+
+    private static final String LOAD_BALANCED_SCHEME = "lb://";
+
+    private final DownstreamClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancerFunction;
+
+    private final ConcurrentMap<String, WebClient> clients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<Meter>> poolMeters = new ConcurrentHashMap<>();
+
+    public DownstreamClientRegistry(DownstreamClientProperties properties,
+                                    MeterRegistry meterRegistry,
+                                    ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancerFunction) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.loadBalancerFunction = loadBalancerFunction;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the service has no gateway.downstream.services entry
+     */
+    public WebClient client(String serviceId) {
+        return clients.computeIfAbsent(serviceId, this::createClient);
+    }
+
+    private WebClient createClient(String serviceId) {
+        DownstreamClientProperties.Service service = properties.getServices().get(serviceId);
+        if (service == null || service.getBaseUrl() == null) {
+            throw new IllegalArgumentException("No gateway.downstream.services entry for " + serviceId);
+        }
+        DownstreamClientProperties.Pool pool = service.resolve(properties.getDefaults());
+
+        ConnectionProvider provider = ConnectionProvider.builder("gateway-" + serviceId)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true, () -> new PoolGauges(serviceId))
+                .build();
+        providers.put(serviceId, provider);
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .responseTimeout(pool.getResponseTimeout());
+
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl(service.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+        if (service.getBaseUrl().startsWith(LOAD_BALANCED_SCHEME)) {
+            ReactorLoadBalancerExchangeFilterFunction loadBalancer = loadBalancerFunction.getIfAvailable();
+            if (loadBalancer != null) {
+                builder.filter(loadBalancer);
+            } else {
+                log.warn("No load balancer available for {}; {} will not resolve", serviceId, service.getBaseUrl());
+            }
+        }
+
+        log.info("Created downstream client for {} ({}, max {} connections, {} pending)",
+                serviceId, service.getBaseUrl(), pool.getMaxConnections(), pool.getPendingAcquireMaxCount());
+        return builder.build();
+    }
+
+    @Override
+    public void destroy() {
+        providers.values().forEach(ConnectionProvider::dispose);
+        providers.clear();
+        clients.clear();
+    }
+
+    /**
+     * Registers gauges for each pool Reactor Netty creates (one per remote address).
+     */
+    private class PoolGauges implements ConnectionProvider.MeterRegistrar {
+
+        private final String serviceId;
+
+        PoolGauges(String serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+            String remote = String.valueOf(remoteAddress);
+            poolMeters.put(poolName + id + remote, List.of(
+                    gauge("gateway.downstream.pool.active", "Connections currently acquired", remote, metrics, ConnectionPoolMetrics::acquiredSize),
+                    gauge("gateway.downstream.pool.idle", "Idle connections", remote, metrics, ConnectionPoolMetrics::idleSize),
+                    gauge("gateway.downstream.pool.total", "Allocated connections, active or idle", remote, metrics, ConnectionPoolMetrics::allocatedSize),
+                    gauge("gateway.downstream.pool.pending", "Requests waiting for a connection", remote, metrics, ConnectionPoolMetrics::pendingAcquireSize),
+                    gauge("gateway.downstream.pool.max", "Maximum connections", remote, metrics, ConnectionPoolMetrics::maxAllocatedSize),
+                    gauge("gateway.downstream.pool.max.pending", "Maximum pending acquisitions", remote, metrics, ConnectionPoolMetrics::maxPendingAcquireSize)));
+        }
+
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            List<Meter> meters = poolMeters.remove(poolName + id + remoteAddress);
+            if (meters != null) {
+                meters.forEach(meterRegistry::remove);
+            }
+        }
+
+        private Meter gauge(String name, String description, String remote, ConnectionPoolMetrics metrics,
+                            ToDoubleFunction<ConnectionPoolMetrics> value) {
+            return Gauge.builder(name, metrics, value)
+                    .description(description)
+                    .tags("service", serviceId, "remote", remote)
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+    }
+}
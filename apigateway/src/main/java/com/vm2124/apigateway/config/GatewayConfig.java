@@ -1,5 +1,6 @@
 package com.vm2124.apigateway.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
@@ -16,6 +17,7 @@ import reactor.core.publisher.Mono;
 import java.util.Arrays;
 
 @Configuration
+@EnableConfigurationProperties(AuthPolicyProperties.class)
 public class GatewayConfig {
 
     @Bean
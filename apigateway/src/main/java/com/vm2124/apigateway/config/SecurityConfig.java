@@ -31,6 +31,7 @@ public class SecurityConfig {
                 
                 // Admin-only endpoints
                 .pathMatchers("/api/admin/**").hasRole("ADMIN")
+                .pathMatchers("/actuator/userContextCache").hasRole("ADMIN")
                 
                 // All other requests require authentication
                 .anyExchange().authenticated()
@@ -0,0 +1,42 @@
+package com.vm2124.apigateway.controller;
+
+import com.vm2124.apigateway.service.SharedUserContextCache;
+import com.vm2124.apigateway.service.UserContextCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoint for the gateway user context cache:
+ * GET /actuator/userContextCache shows stats, DELETE flushes every entry from the
+ * local tier and, when enabled, the shared Redis tier.
+ */
+@Component
+@Endpoint(id = "userContextCache")
+@RequiredArgsConstructor
+public class UserContextCacheEndpoint {
+
+    private final UserContextCache userContextCache;
+    private final SharedUserContextCache sharedUserContextCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>(userContextCache.stats());
+        stats.put("sharedTierEnabled", sharedUserContextCache.isEnabled());
+        return stats;
+    }
+
+    @DeleteOperation
+    public Mono<Map<String, Object>> flush() {
+        long flushed = userContextCache.size();
+        userContextCache.invalidateAll();
+        return sharedUserContextCache.invalidateAll()
+                .map(sharedFlushed -> Map.<String, Object>of("flushed", flushed, "sharedFlushed", sharedFlushed));
+    }
+}
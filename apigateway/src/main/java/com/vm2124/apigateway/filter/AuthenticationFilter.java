@@ -1,10 +1,12 @@
 package com.vm2124.apigateway.filter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.apigateway.service.AuthMode;
+import com.vm2124.apigateway.service.AuthPolicyRegistry;
 import com.vm2124.apigateway.service.JwtService;
+import com.vm2124.apigateway.service.PermissionEpochTracker;
+import com.vm2124.apigateway.service.RevocationList;
 import com.vm2124.apigateway.service.UserInfoService;
+import com.vm2124.apigateway.service.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -18,27 +20,34 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AuthenticationFilter implements GlobalFilter, Ordered {
 
+    static final String USER_CONTEXT_HEADER = "X-User-Context";
+    private static final String ACTIVE_TENANT = "ACTIVE";
+
     private final JwtService jwtService;
-    private final ObjectMapper objectMapper;
     private final UserInfoService userInfoService;
+    private final AuthPolicyRegistry authPolicyRegistry;
+    private final PermissionEpochTracker permissionEpochTracker;
+    private final RevocationList revocationList;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getPath().value();
 
+        AuthMode authMode = authPolicyRegistry.modeFor(path);
+
         // Skip authentication for public endpoints
-        if (isPublicEndpoint(path)) {
+        if (authMode == AuthMode.PUBLIC) {
             log.debug("Skipping authentication for public endpoint: {}", path);
-            return chain.filter(exchange);
+            return chain.filter(exchange.mutate().request(withoutUserContext(request)).build());
         }
 
         // Extract token from Authorization header
@@ -48,27 +57,42 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
             return unauthorizedResponse(exchange, "Missing or invalid Authorization header");
         }
 
-        String token = authHeader.substring(7);
-        
         try {
-            // Validate token
-            if (!jwtService.validateToken(token)) {
+            // Verify the token once; the result is shared with JwtAuthenticationFilter via the exchange
+            Optional<VerifiedToken> verified = jwtService.resolveVerifiedToken(exchange);
+            if (verified.isEmpty()) {
                 log.warn("Invalid JWT token for path: {}", path);
                 return unauthorizedResponse(exchange, "Invalid JWT token");
             }
 
-            // Extract user information from token
-            String userId = jwtService.extractUserId(token);
-            String tenantId = jwtService.extractTenantId(token);
-            List<String> roles = jwtService.extractRoles(token);
+            VerifiedToken verifiedToken = verified.get();
+
+            if (revocationList.isRevoked(verifiedToken)) {
+                log.warn("Revoked token used for path: {}", path);
+                return unauthorizedResponse(exchange, "Token has been revoked");
+            }
+
+            // Claims-only routes trust the verified token alone and skip the User Service call
+            if (authMode == AuthMode.JWT_CLAIMS_ONLY) {
+                log.debug("Authenticated from token claims for user: {} on path: {}", verifiedToken.userId(), path);
+                return chain.filter(exchange.mutate().request(withoutUserContext(request)).build());
+            }
 
-            // Call User Service to get comprehensive user information
-            return userInfoService.getUserInfoFromUserService(token)
+            // Context-in-token: forward the context the token carries while its epoch is current
+            VerifiedToken.TokenContext tokenContext = verifiedToken.context();
+            if (isCurrent(tokenContext)) {
+                log.debug("Authenticated from token context for user: {} on path: {}", verifiedToken.userId(), path);
+                ServerHttpRequest modifiedRequest = addUserHeaders(request, Map.<String, Object>of("contextEnvelope", tokenContext.envelope()));
+                return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            }
+
+            // Get comprehensive user information (cached, or from User Service on a miss)
+            return userInfoService.getUserInfo(verifiedToken.token(), verifiedToken.expiresAt())
                     .flatMap(userInfo -> {
                         // Add user information as headers
                         ServerHttpRequest modifiedRequest = addUserHeaders(request, userInfo);
                         
-                        log.debug("Authentication successful for user: {} on path: {}", userId, path);
+                        log.debug("Authentication successful for user: {} on path: {}", verifiedToken.userId(), path);
                         return chain.filter(exchange.mutate().request(modifiedRequest).build());
                     })
                     .onErrorResume(e -> {
@@ -82,65 +106,33 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         }
     }
 
-    private boolean isPublicEndpoint(String path) {
-        return path.startsWith("/api/auth/login") ||
-               path.startsWith("/api/auth/register") ||
-               path.startsWith("/actuator/") ||
-               path.startsWith("/health") ||
-               path.startsWith("/test/") ||
-               path.equals("/favicon.ico");
+    private boolean isCurrent(VerifiedToken.TokenContext tokenContext) {
+        return tokenContext != null
+                && permissionEpochTracker.isEnabled()
+                && ACTIVE_TENANT.equals(tokenContext.tenantStatus())
+                && permissionEpochTracker.isCurrent(tokenContext.permissionEpoch());
     }
 
-
+    private ServerHttpRequest withoutUserContext(ServerHttpRequest request) {
+        return request.mutate()
+                .headers(headers -> headers.remove(USER_CONTEXT_HEADER))
+                .build();
+    }
 
     private ServerHttpRequest addUserHeaders(ServerHttpRequest request, Map<String, Object> userInfo) {
-        ServerHttpRequest.Builder builder = request.mutate();
-
-        // Extract user data from User Service response
-        @SuppressWarnings("unchecked")
-        Map<String, Object> userData = (Map<String, Object>) userInfo.get("user");
-        
-        if (userData != null) {
-            // Add user information as headers from User Service response
-            builder.header("X-User-ID", (String) userData.get("id"));
-            builder.header("X-User-Generated-ID", (String) userData.get("generatedId"));
-            builder.header("X-Username", (String) userData.get("username"));
-            builder.header("X-Email", (String) userData.get("email"));
-            builder.header("X-First-Name", (String) userData.get("firstName"));
-            builder.header("X-Last-Name", (String) userData.get("lastName"));
-            builder.header("X-Is-Active", String.valueOf(userData.get("isActive")));
-            builder.header("X-Tenant-ID", (String) userData.get("tenantId"));
-            builder.header("X-Tenant-Generated-ID", (String) userData.get("tenantGeneratedId"));
-        }
-
-        // Add roles as JSON array
-        try {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> rolesData = (List<Map<String, Object>>) userInfo.get("roles");
-            if (rolesData != null) {
-                List<String> roleCodes = rolesData.stream()
-                    .map(role -> (String) role.get("roleCode"))
-                    .toList();
-                String rolesJson = objectMapper.writeValueAsString(roleCodes);
-                builder.header("X-User-Roles", rolesJson);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to serialize roles to JSON: {}", e.getMessage());
-        }
-
-        // Add permissions as JSON array
-        try {
-            @SuppressWarnings("unchecked")
-            List<String> permissions = (List<String>) userInfo.get("permissions");
-            if (permissions != null) {
-                String permissionsJson = objectMapper.writeValueAsString(permissions);
-                builder.header("X-User-Permissions", permissionsJson);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to serialize permissions to JSON: {}", e.getMessage());
-        }
-
-        return builder.build();
+        // User Service mints one signed, compact envelope carrying the whole user context;
+        // anything a client sent under the same name is dropped before forwarding
+        Object envelope = userInfo.get("contextEnvelope");
+        return request.mutate()
+                .headers(headers -> {
+                    headers.remove(USER_CONTEXT_HEADER);
+                    if (envelope instanceof String value && !value.isEmpty()) {
+                        headers.set(USER_CONTEXT_HEADER, value);
+                    } else {
+                        log.warn("User Service response carried no context envelope");
+                    }
+                })
+                .build();
     }
 
     private Mono<Void> unauthorizedResponse(ServerWebExchange exchange, String message) {
@@ -1,6 +1,7 @@
 package com.vm2124.apigateway.filter;
 
 import com.vm2124.apigateway.service.JwtService;
+import com.vm2124.apigateway.service.VerifiedToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
@@ -13,6 +14,7 @@ import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
@@ -28,36 +30,23 @@ public class JwtAuthenticationFilter implements WebFilter {
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        String authHeader = exchange.getRequest().getHeaders().getFirst("Authorization");
-        
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        // Verified once per exchange and shared with AuthenticationFilter
+        Optional<VerifiedToken> verified = jwtService.resolveVerifiedToken(exchange);
+        if (verified.isEmpty()) {
             return chain.filter(exchange);
         }
 
-        String token = authHeader.substring(7);
+        VerifiedToken verifiedToken = verified.get();
+        List<SimpleGrantedAuthority> authorities = verifiedToken.roles().stream()
+            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+            .collect(Collectors.toList());
         
-        try {
-            if (jwtService.validateToken(token)) {
-                String username = jwtService.extractUsername(token);
-                List<String> roles = jwtService.extractRoles(token);
-                
-                List<SimpleGrantedAuthority> authorities = roles.stream()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                    .collect(Collectors.toList());
-                
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(username, null, authorities);
-                
-                SecurityContext securityContext = new SecurityContextImpl(authentication);
-                
-                return securityContextRepository.save(exchange, securityContext)
-                    .then(chain.filter(exchange));
-            }
-        } catch (Exception e) {
-            // Log the exception but don't block the request
-            System.err.println("JWT validation failed: " + e.getMessage());
-        }
+        UsernamePasswordAuthenticationToken authentication = 
+            new UsernamePasswordAuthenticationToken(verifiedToken.subject(), null, authorities);
+        
+        SecurityContext securityContext = new SecurityContextImpl(authentication);
         
-        return chain.filter(exchange);
+        return securityContextRepository.save(exchange, securityContext)
+            .then(chain.filter(exchange));
     }
 }
@@ -0,0 +1,25 @@
+package com.vm2124.apigateway.service;
+
+import java.util.Locale;
+
+/**
+ * How much of the authentication flow AuthenticationFilter runs for a path.
+ */
+public enum AuthMode {
+
+    /** No token required; any client-supplied X-User-Context is stripped. */
+    PUBLIC,
+
+    /** A valid JWT is required, but User Service is not called and no X-User-Context is attached. */
+    JWT_CLAIMS_ONLY,
+
+    /** A valid JWT is required and the full user context is resolved and forwarded. */
+    FULL_CONTEXT;
+
+    /**
+     * Parse the configuration form: public, jwt-claims-only or full-context.
+     */
+    public static AuthMode fromValue(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
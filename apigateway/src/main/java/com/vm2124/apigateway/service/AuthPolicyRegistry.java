@@ -0,0 +1,110 @@
+package com.vm2124.apigateway.service;
+
+import com.vm2124.apigateway.config.AuthPolicyProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Resolves the {@link AuthMode} for a request path. Route-wide modes come from the
+ * auth-mode metadata of each gateway route (applied to its Path predicate prefixes) and
+ * gateway.auth-policy.rules add or override individual prefixes. Everything is compiled
+ * into a {@link PathPrefixTrie}, rebuilt whenever the gateway refreshes its routes
+ * (POST /actuator/gateway/refresh, or a config refresh), so policies change without a
+ * restart.
+ */
+@Service
+@Slf4j
+public class AuthPolicyRegistry {
+
+    static final String ROUTE_METADATA_KEY = "auth-mode";
+
+    private final AuthPolicyProperties properties;
+    private final RouteDefinitionLocator routeDefinitionLocator;
+
+    private volatile PathPrefixTrie<AuthMode> policies;
+    private volatile AuthMode defaultMode;
+
+    public AuthPolicyRegistry(AuthPolicyProperties properties, RouteDefinitionLocator routeDefinitionLocator) {
+        this.properties = properties;
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        // Rules alone until the routes have been loaded
+        compile(List.of());
+    }
+
+    public AuthMode modeFor(String path) {
+        AuthMode mode = policies.longestMatch(path);
+        return mode != null ? mode : defaultMode;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, RefreshRoutesResultEvent.class})
+    public void reload() {
+        routeDefinitionLocator.getRouteDefinitions()
+                .collectList()
+                .subscribe(this::compile,
+                        error -> log.error("Failed to reload auth policies, keeping the previous ones: {}", error.getMessage()));
+    }
+
+    void compile(List<RouteDefinition> routes) {
+        PathPrefixTrie<AuthMode> trie = new PathPrefixTrie<>();
+        int entries = 0;
+        for (RouteDefinition route : routes) {
+            Object mode = route.getMetadata().get(ROUTE_METADATA_KEY);
+            if (mode == null) {
+                continue;
+            }
+            AuthMode authMode = AuthMode.fromValue(mode.toString());
+            for (String prefix : pathPrefixes(route)) {
+                trie.put(prefix, authMode);
+                entries++;
+            }
+        }
+        // Explicit rules go in last so they win over route metadata on the same prefix
+        for (AuthPolicyProperties.Rule rule : properties.getRules()) {
+            trie.put(rule.getPrefix(), AuthMode.fromValue(rule.getMode()));
+            entries++;
+        }
+
+        defaultMode = AuthMode.fromValue(properties.getDefaultMode());
+        policies = trie;
+        log.info("Compiled {} auth policy entries (default {})", entries, defaultMode);
+    }
+
+    /**
+     * The literal leading segments of each Path predicate pattern, e.g. /api/users for
+     * /api/users/** and /api/users for /api/users/{id}.
+     */
+    private static List<String> pathPrefixes(RouteDefinition route) {
+        return route.getPredicates().stream()
+                .filter(predicate -> "Path".equals(predicate.getName()))
+                .map(PredicateDefinition::getArgs)
+                .flatMap(args -> args.values().stream())
+                .flatMap(value -> List.of(value.split(",")).stream())
+                .map(String::trim)
+                .map(AuthPolicyRegistry::literalPrefix)
+                .toList();
+    }
+
+    private static String literalPrefix(String pattern) {
+        int wildcard = -1;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '{' || c == '?') {
+                wildcard = i;
+                break;
+            }
+        }
+        if (wildcard < 0) {
+            return pattern;
+        }
+        int segmentStart = pattern.lastIndexOf('/', wildcard);
+        return segmentStart <= 0 ? "/" : pattern.substring(0, segmentStart);
+    }
+}
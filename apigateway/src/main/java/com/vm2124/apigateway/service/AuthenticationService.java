@@ -1,5 +1,6 @@
 package com.vm2124.apigateway.service;
 
+import com.vm2124.apigateway.config.DownstreamClientRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -14,11 +15,9 @@ public class AuthenticationService {
     private final JwtService jwtService;
 
     @Autowired
-    public AuthenticationService(JwtService jwtService) {
+    public AuthenticationService(JwtService jwtService, DownstreamClientRegistry downstreamClients) {
         this.jwtService = jwtService;
-        this.webClient = WebClient.builder()
-                .baseUrl("http://user-service:8081")
-                .build();
+        this.webClient = downstreamClients.client("user-service");
     }
 
     public Mono<Map<String, Object>> authenticate(String username, String password) {
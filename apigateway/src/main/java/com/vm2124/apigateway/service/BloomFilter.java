@@ -0,0 +1,56 @@
+package com.vm2124.apigateway.service;
+
+/**
+ * Fixed-size Bloom filter over strings, used as the allocation-free first check in
+ * {@link RevocationList}. Bit positions come from double hashing the string's cached
+ * hashCode mixed with a caller-chosen seed, so one filter can hold several key spaces
+ * (e.g. token ids and user ids) and lookups never allocate. Collisions only cause false
+ * positives, which callers resolve against an exact set. Not thread-safe while being
+ * filled; publish it once fully built.
+ */
+public final class BloomFilter {
+
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int MIN_BITS = 1 << 10;
+
+    private final long[] words;
+    private final int mask;
+
+    public BloomFilter(int expectedEntries) {
+        int bits = Integer.highestOneBit(Math.max(MIN_BITS, expectedEntries * BITS_PER_ENTRY - 1)) << 1;
+        this.words = new long[bits >>> 6];
+        this.mask = bits - 1;
+    }
+
+    public void add(String key, int seed) {
+        int h1 = mix(key.hashCode() ^ seed);
+        int h2 = mix(h1 ^ 0x5bd1e995) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String key, int seed) {
+        int h1 = mix(key.hashCode() ^ seed);
+        int h2 = mix(h1 ^ 0x5bd1e995) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Murmur3 finalizer: spreads hashCode's weak low bits over the whole word
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
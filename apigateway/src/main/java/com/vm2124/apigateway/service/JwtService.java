@@ -1,28 +1,98 @@
 package com.vm2124.apigateway.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ServerWebExchange;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class JwtService {
 
+    // Context-in-token claims, set by User Service when jwt.context-in-token.enabled is on
+    static final String CONTEXT_ENVELOPE_CLAIM = "uctx";
+    static final String TENANT_STATUS_CLAIM = "tst";
+    static final String PERMISSION_EPOCH_CLAIM = "pep";
+
     @Value("${jwt.secret:defaultSecretKeyForDevelopmentOnly}")
     private String secret;
 
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Built once: the key and parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Verify the token's signature and expiry once and return the claims the gateway uses.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                token,
+                claims.getId(),
+                claims.getSubject(),
+                tenantIdOf(claims),
+                rolesOf(claims),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                contextOf(claims));
+    }
+
+    private VerifiedToken.TokenContext contextOf(Claims claims) {
+        String envelope = claims.get(CONTEXT_ENVELOPE_CLAIM, String.class);
+        Long permissionEpoch = claims.get(PERMISSION_EPOCH_CLAIM, Long.class);
+        if (envelope == null || permissionEpoch == null) {
+            return null;
+        }
+        return new VerifiedToken.TokenContext(envelope, claims.get(TENANT_STATUS_CLAIM, String.class), permissionEpoch);
+    }
+
+    /**
+     * Return the verified bearer token for this exchange, verifying it on first use and
+     * caching the outcome (including failure) as an exchange attribute.
+     */
+    public Optional<VerifiedToken> resolveVerifiedToken(ServerWebExchange exchange) {
+        Optional<VerifiedToken> resolved = exchange.getAttribute(VerifiedToken.EXCHANGE_ATTRIBUTE);
+        if (resolved != null) {
+            return resolved;
+        }
+
+        resolved = Optional.empty();
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                resolved = Optional.of(verify(authHeader.substring(7)));
+            } catch (JwtException | IllegalArgumentException e) {
+                resolved = Optional.empty();
+            }
+        }
+        exchange.getAttributes().put(VerifiedToken.EXCHANGE_ATTRIBUTE, resolved);
+        return resolved;
     }
 
     public String extractUsername(String token) {
@@ -34,16 +104,11 @@ public class JwtService {
     }
 
     public String extractTenantId(String token) {
-        Claims claims = extractAllClaims(token);
-        String tenantId = claims.get("tenantId", String.class);
-        return tenantId != null ? tenantId : "default-tenant";
+        return tenantIdOf(extractAllClaims(token));
     }
 
     public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
-        @SuppressWarnings("unchecked")
-        List<String> roles = claims.get("roles", List.class);
-        return roles != null ? roles : List.of("USER");
+        return rolesOf(extractAllClaims(token));
     }
 
     public Date extractExpiration(String token) {
@@ -51,11 +116,7 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     public Boolean validateToken(String token) {
@@ -70,6 +131,21 @@ public class JwtService {
         return extractExpiration(token).before(new Date());
     }
 
+    private String tenantIdOf(Claims claims) {
+        String tenantId = claims.get("tenantId", String.class);
+        return tenantId != null ? tenantId : "default-tenant";
+    }
+
+    private List<String> rolesOf(Claims claims) {
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+        return roles != null ? List.copyOf(roles) : List.of("USER");
+    }
+
+    private Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
     public String generateToken(String username, List<String> roles) {
         return createToken(Map.of("roles", roles), username);
     }
@@ -80,7 +156,7 @@ public class JwtService {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 }
@@ -0,0 +1,64 @@
+package com.vm2124.apigateway.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Longest-prefix lookup over '/'-separated path segments. A prefix matches a path when
+ * every prefix segment equals the corresponding path segment, so /api/auth/login matches
+ * /api/auth/login and /api/auth/login/otp but not /api/auth/login-legacy. Lookups walk the
+ * path once, so their cost depends on the path length and not on the number of prefixes.
+ * Not thread-safe while being built; publish a fully built trie and treat it as read-only.
+ */
+public final class PathPrefixTrie<V> {
+
+    private final Node<V> root = new Node<>();
+
+    public void put(String prefix, V value) {
+        Node<V> node = root;
+        int start = 0;
+        int length = prefix.length();
+        while (start < length) {
+            int end = segmentEnd(prefix, start);
+            if (end > start) {
+                node = node.children.computeIfAbsent(prefix.substring(start, end), segment -> new Node<>());
+            }
+            start = end + 1;
+        }
+        node.value = value;
+    }
+
+    /**
+     * @return the value of the longest matching prefix, or null if none matches
+     */
+    public V longestMatch(String path) {
+        Node<V> node = root;
+        V match = root.value;
+        int start = 0;
+        int length = path.length();
+        while (start < length) {
+            int end = segmentEnd(path, start);
+            if (end > start) {
+                node = node.children.get(path.substring(start, end));
+                if (node == null) {
+                    break;
+                }
+                if (node.value != null) {
+                    match = node.value;
+                }
+            }
+            start = end + 1;
+        }
+        return match;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.length() : end;
+    }
+
+    private static final class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>();
+        private V value;
+    }
+}
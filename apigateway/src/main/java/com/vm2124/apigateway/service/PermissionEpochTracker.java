@@ -0,0 +1,98 @@
+package com.vm2124.apigateway.service;
+
+import com.vm2124.apigateway.config.DownstreamClientRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Tracks User Service's permission epoch for context-in-token mode. Tokens carry the
+ * epoch their embedded context was built at; while it is not older than the current
+ * epoch the gateway forwards that context without calling User Service. The epoch is
+ * polled in the background, and until the first poll succeeds every token counts as stale.
+ */
+@Service
+@Slf4j
+public class PermissionEpochTracker implements DisposableBean {
+
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final DownstreamClientRegistry downstreamClients;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+
+    private volatile long currentEpoch = UNKNOWN;
+    private volatile Disposable polling;
+
+    public PermissionEpochTracker(DownstreamClientRegistry downstreamClients,
+                                  @Value("${gateway.context-in-token.enabled:false}") boolean enabled,
+                                  @Value("${gateway.context-in-token.epoch-refresh:10s}") Duration refreshInterval) {
+        this.downstreamClients = downstreamClients;
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return whether context built at the given epoch still reflects current permissions
+     */
+    public boolean isCurrent(long tokenEpoch) {
+        long current = currentEpoch;
+        return current != UNKNOWN && tokenEpoch >= current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        polling = Flux.interval(Duration.ZERO, refreshInterval)
+                .concatMap(tick -> refresh())
+                .subscribe();
+        log.info("Context-in-token enabled; polling the permission epoch every {}", refreshInterval);
+    }
+
+    Mono<Long> refresh() {
+        return fetchEpoch()
+                .doOnNext(epoch -> {
+                    if (epoch != currentEpoch) {
+                        log.debug("Permission epoch is now {}", epoch);
+                    }
+                    currentEpoch = epoch;
+                })
+                .onErrorResume(error -> {
+                    // Keep the last known epoch; tokens minted after it still count as current
+                    log.warn("Failed to refresh the permission epoch: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    Mono<Long> fetchEpoch() {
+        return downstreamClients.client("user-service")
+                .get()
+                .uri("/api/v1/auth/permission-epoch")
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(body -> ((Number) body.get("epoch")).longValue());
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = polling;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+}
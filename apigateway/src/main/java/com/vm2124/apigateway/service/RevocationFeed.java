@@ -0,0 +1,13 @@
+package com.vm2124.apigateway.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response of User Service's GET /api/v1/auth/revocations?since=revision.
+ */
+public record RevocationFeed(long revision, List<Entry> revocations) {
+
+    public record Entry(long revision, String type, String subject, Instant issuedBefore, Instant expiresAt) {
+    }
+}
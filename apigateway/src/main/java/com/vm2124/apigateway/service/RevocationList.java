@@ -0,0 +1,179 @@
+package com.vm2124.apigateway.service;
+
+import com.vm2124.apigateway.config.DownstreamClientRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The gateway's copy of User Service's token revocation list, checked on every
+ * authenticated request. Lookups go through a Bloom filter first and an exact set only
+ * on a hit, against an immutable snapshot, so a check takes a few hash probes and never
+ * allocates. Changes are applied by rebuilding the snapshot, which is cheap because
+ * revocations are rare and are dropped once the tokens they cover have expired.
+ *
+ * <p>Deltas come from User Service's revision-ordered revocation feed, polled every
+ * gateway.revocation.refresh.
+ */
+@Service
+@Slf4j
+public class RevocationList implements DisposableBean {
+
+    static final int TOKEN_SEED = 0x7f4a7c15;
+    static final int USER_SEED = 0x2545f491;
+
+    // Re-read a few revisions on every poll: identity values can become visible out of order
+    private static final long REPLAY_REVISIONS = 64;
+
+    private final DownstreamClientRegistry downstreamClients;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+
+    // Owned by the writer (apply); readers only see the published snapshot
+    private final Map<String, Instant> revokedTokens = new HashMap<>();
+    private final Map<String, RevocationFeed.Entry> revokedUsers = new HashMap<>();
+    private long revision;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile Disposable polling;
+
+    public RevocationList(DownstreamClientRegistry downstreamClients,
+                          MeterRegistry meterRegistry,
+                          @Value("${gateway.revocation.enabled:true}") boolean enabled,
+                          @Value("${gateway.revocation.refresh:2s}") Duration refreshInterval) {
+        this.downstreamClients = downstreamClients;
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+        Gauge.builder("gateway.revocations.entries", this, list -> list.snapshot.size())
+                .description("Revoked tokens and users the gateway currently rejects")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return whether the token was revoked by id, or its user was revoked after it was issued
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        Snapshot current = snapshot;
+        if (current.isEmpty()) {
+            return false;
+        }
+        String tokenId = token.tokenId();
+        if (tokenId != null && current.bloom.mightContain(tokenId, TOKEN_SEED) && current.tokens.contains(tokenId)) {
+            return true;
+        }
+        String userId = token.subject();
+        if (userId != null && token.issuedAt() != null && current.bloom.mightContain(userId, USER_SEED)) {
+            Long issuedBefore = current.userCutoffs.get(userId);
+            return issuedBefore != null && token.issuedAt().toEpochMilli() < issuedBefore;
+        }
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        polling = Flux.interval(Duration.ZERO, refreshInterval)
+                .concatMap(tick -> refresh())
+                .subscribe();
+        log.info("Following the token revocation feed every {}", refreshInterval);
+    }
+
+    Mono<RevocationFeed> refresh() {
+        long since;
+        synchronized (this) {
+            since = Math.max(0, revision - REPLAY_REVISIONS);
+        }
+        return fetchFeed(since)
+                .doOnNext(this::apply)
+                .onErrorResume(error -> {
+                    log.warn("Failed to refresh the token revocation list: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    Mono<RevocationFeed> fetchFeed(long since) {
+        return downstreamClients.client("user-service")
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/auth/revocations").queryParam("since", since).build())
+                .retrieve()
+                .bodyToMono(RevocationFeed.class);
+    }
+
+    synchronized void apply(RevocationFeed feed) {
+        Instant now = Instant.now();
+        boolean changed = revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now))
+                | revokedUsers.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+
+        List<RevocationFeed.Entry> entries = feed.revocations() != null ? feed.revocations() : List.of();
+        for (RevocationFeed.Entry entry : entries) {
+            if (entry.expiresAt() == null || entry.expiresAt().isBefore(now)) {
+                continue;
+            }
+            if ("TOKEN".equals(entry.type())) {
+                changed |= revokedTokens.put(entry.subject(), entry.expiresAt()) == null;
+            } else if ("USER".equals(entry.type()) && entry.issuedBefore() != null) {
+                RevocationFeed.Entry previous = revokedUsers.get(entry.subject());
+                if (previous == null || previous.issuedBefore().isBefore(entry.issuedBefore())) {
+                    revokedUsers.put(entry.subject(), entry);
+                    changed = true;
+                }
+            }
+        }
+        revision = Math.max(revision, feed.revision());
+
+        if (changed) {
+            snapshot = Snapshot.of(revokedTokens, revokedUsers);
+            log.debug("Revocation list now holds {} tokens and {} users (revision {})",
+                    revokedTokens.size(), revokedUsers.size(), revision);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = polling;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private record Snapshot(BloomFilter bloom, Set<String> tokens, Map<String, Long> userCutoffs) {
+
+        static final Snapshot EMPTY = new Snapshot(new BloomFilter(0), Set.of(), Map.of());
+
+        static Snapshot of(Map<String, Instant> revokedTokens, Map<String, RevocationFeed.Entry> revokedUsers) {
+            BloomFilter bloom = new BloomFilter(revokedTokens.size() + revokedUsers.size());
+            revokedTokens.keySet().forEach(tokenId -> bloom.add(tokenId, TOKEN_SEED));
+            Map<String, Long> userCutoffs = new HashMap<>();
+            revokedUsers.forEach((userId, entry) -> {
+                bloom.add(userId, USER_SEED);
+                userCutoffs.put(userId, entry.issuedBefore().toEpochMilli());
+            });
+            return new Snapshot(bloom, Set.copyOf(revokedTokens.keySet()), Map.copyOf(userCutoffs));
+        }
+
+        boolean isEmpty() {
+            return tokens.isEmpty() && userCutoffs.isEmpty();
+        }
+
+        int size() {
+            return tokens.size() + userCutoffs.size();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.vm2124.apigateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Optional Redis tier behind {@link UserContextCache}, shared by all gateway replicas so
+ * a token validated on one replica is not validated again on the others. Uses the
+ * reactive Redis client only; Redis errors and timeouts are treated as cache misses.
+ */
+@Service
+@Slf4j
+public class SharedUserContextCache {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration timeout;
+    private final String keyPrefix;
+
+    public SharedUserContextCache(ReactiveStringRedisTemplate redisTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${gateway.user-context-cache.redis.enabled:false}") boolean enabled,
+                                  @Value("${gateway.user-context-cache.redis.ttl:15m}") Duration ttl,
+                                  @Value("${gateway.user-context-cache.redis.timeout:200ms}") Duration timeout,
+                                  @Value("${gateway.user-context-cache.redis.key-prefix:gateway:user-context:}") String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.timeout = timeout;
+        this.keyPrefix = keyPrefix;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Mono<Map> get(String key) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return redisTemplate.opsForValue().get(keyPrefix + key)
+                .timeout(timeout)
+                .flatMap(json -> Mono.fromCallable(() -> (Map) objectMapper.readValue(json, Map.class)))
+                .onErrorResume(error -> {
+                    log.warn("Shared user context cache read failed, treating as miss: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> put(String key, Map userInfo, Instant tokenExpiresAt) {
+        if (!enabled || userInfo == null) {
+            return Mono.empty();
+        }
+        Duration entryTtl = ttl;
+        if (tokenExpiresAt != null) {
+            Duration untilExpiry = Duration.between(Instant.now(), tokenExpiresAt);
+            if (untilExpiry.compareTo(entryTtl) < 0) {
+                entryTtl = untilExpiry;
+            }
+        }
+        if (entryTtl.isNegative() || entryTtl.isZero()) {
+            return Mono.empty();
+        }
+
+        Duration finalTtl = entryTtl;
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(userInfo))
+                .flatMap(json -> redisTemplate.opsForValue().set(keyPrefix + key, json, finalTtl))
+                .timeout(timeout)
+                .onErrorResume(error -> {
+                    log.warn("Shared user context cache write failed: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public Mono<Long> invalidateAll() {
+        if (!enabled) {
+            return Mono.just(0L);
+        }
+        ScanOptions scanOptions = ScanOptions.scanOptions().match(keyPrefix + "*").count(500).build();
+        return redisTemplate.delete(redisTemplate.scan(scanOptions))
+                .onErrorResume(error -> {
+                    log.warn("Shared user context cache flush failed: {}", error.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+}
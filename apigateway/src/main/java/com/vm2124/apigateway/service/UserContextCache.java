@@ -0,0 +1,126 @@
+package com.vm2124.apigateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory cache of the user context returned by User Service's
+ * /api/v1/auth/validate, keyed by a SHA-256 hash of the bearer token so raw
+ * tokens are never held as map keys. Each entry lives for the configured TTL
+ * or until the token's own expiry, whichever comes first.
+ */
+@Service
+@Slf4j
+public class UserContextCache {
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Cache<String, CachedUserContext> cache;
+
+    public UserContextCache(@Value("${gateway.user-context-cache.enabled:true}") boolean enabled,
+                            @Value("${gateway.user-context-cache.max-size:10000}") long maxSize,
+                            @Value("${gateway.user-context-cache.ttl:5m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.user-context");
+    }
+
+    public static String keyFor(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<Map> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedUserContext cached = cache.getIfPresent(key);
+        return cached != null ? Optional.of(cached.userInfo()) : Optional.empty();
+    }
+
+    public void put(String key, Map userInfo, Instant tokenExpiresAt) {
+        if (!enabled || userInfo == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        if (tokenExpiresAt != null && tokenExpiresAt.isBefore(expiresAt)) {
+            expiresAt = tokenExpiresAt;
+        }
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+        cache.put(key, new CachedUserContext(userInfo, expiresAt));
+    }
+
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        log.info("Flushing user context cache ({} entries)", cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public Map<String, Object> stats() {
+        var stats = cache.stats();
+        return Map.of(
+            "enabled", enabled,
+            "size", cache.estimatedSize(),
+            "hits", stats.hitCount(),
+            "misses", stats.missCount(),
+            "hitRate", stats.hitRate(),
+            "evictions", stats.evictionCount()
+        );
+    }
+
+    record CachedUserContext(Map userInfo, Instant expiresAt) {
+    }
+
+    private static final class EntryExpiry implements Expiry<String, CachedUserContext> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedUserContext value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedUserContext value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedUserContext value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,32 +1,81 @@
 package com.vm2124.apigateway.service;
 
+import com.vm2124.apigateway.config.DownstreamClientRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserInfoService {
 
-    private final WebClient.Builder webClientBuilder;
+    private static final String USER_SERVICE = "user-service";
 
+    private final DownstreamClientRegistry downstreamClients;
+    private final UserContextCache userContextCache;
+    private final SharedUserContextCache sharedUserContextCache;
+
+    // One shared lookup per token hash while it is in flight; concurrent callers join it
+    private final ConcurrentMap<String, Mono<Map>> inFlightLookups = new ConcurrentHashMap<>();
+
+    /**
+     * Resolve the user context for a token: local cache first, then the shared Redis
+     * tier (when enabled), and User Service only when both miss. Concurrent misses for
+     * the same token share a single lookup, and its result or error reaches every caller.
+     */
+    public Mono<Map> getUserInfo(String token, Instant tokenExpiresAt) {
+        String cacheKey = UserContextCache.keyFor(token);
+        Optional<Map> cached = userContextCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return Mono.just(cached.get());
+        }
+
+        return inFlightLookups.computeIfAbsent(cacheKey, key -> lookup(token, key, tokenExpiresAt)
+                .doOnTerminate(() -> inFlightLookups.remove(key))
+                .cache());
+    }
+
+    int inFlightLookupCount() {
+        return inFlightLookups.size();
+    }
+
+    private Mono<Map> lookup(String token, String cacheKey, Instant tokenExpiresAt) {
+        return sharedUserContextCache.get(cacheKey)
+                .doOnNext(userInfo -> userContextCache.put(cacheKey, userInfo, tokenExpiresAt))
+                .switchIfEmpty(Mono.defer(() -> getUserInfoFromUserService(token)
+                        .flatMap(userInfo -> cacheValidated(cacheKey, userInfo, tokenExpiresAt))));
+    }
+
+    private Mono<Map> cacheValidated(String cacheKey, Map userInfo, Instant tokenExpiresAt) {
+        if (!Boolean.TRUE.equals(userInfo.get("success"))) {
+            return Mono.just(userInfo);
+        }
+        userContextCache.put(cacheKey, userInfo, tokenExpiresAt);
+        return sharedUserContextCache.put(cacheKey, userInfo, tokenExpiresAt)
+                .thenReturn(userInfo);
+    }
+
+    /**
+     * Fails, rather than completing empty, on an error status, a timeout or an empty body,
+     * so every caller sharing the lookup sees the failure and the request is rejected.
+     */
     public Mono<Map> getUserInfoFromUserService(String token) {
-        return webClientBuilder.build()
+        return downstreamClients.client(USER_SERVICE)
                 .get()
-                .uri("lb://user-service/api/v1/auth/validate")
+                .uri("/api/v1/auth/validate")
                 .header("Authorization", "Bearer " + token)
                 .retrieve()
                 .bodyToMono(Map.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty response from User Service")))
                 .doOnSuccess(response -> log.debug("Successfully retrieved user info from User Service"))
-                .doOnError(error -> log.error("Error retrieving user info from User Service: {}", error.getMessage()))
-                .onErrorResume(error -> {
-                    log.warn("Failed to get user info from User Service, using token data: {}", error.getMessage());
-                    return Mono.empty();
-                });
+                .doOnError(error -> log.error("Error retrieving user info from User Service: {}", error.getMessage()));
     }
 }
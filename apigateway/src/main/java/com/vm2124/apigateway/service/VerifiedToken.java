@@ -0,0 +1,33 @@
+package com.vm2124.apigateway.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A bearer token whose signature and expiry have been checked once, together with
+ * the claims the gateway reads from it. Stored on the exchange under
+ * {@link #EXCHANGE_ATTRIBUTE} so every filter reuses the same verification.
+ */
+public record VerifiedToken(
+        String token,
+        String tokenId,
+        String subject,
+        String tenantId,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt,
+        TokenContext context) {
+
+    public static final String EXCHANGE_ATTRIBUTE = VerifiedToken.class.getName();
+
+    public String userId() {
+        return subject;
+    }
+
+    /**
+     * Context-in-token claims minted by User Service at login: the signed X-User-Context
+     * envelope, the tenant status and the permission epoch the envelope was built at.
+     */
+    public record TokenContext(String envelope, String tenantStatus, long permissionEpoch) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.vm2124.apigateway.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DownstreamClientRegistryTest {
+
+    private DisposableServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private DownstreamClientRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/ping", (request, response) -> response.sendString(Mono.just("pong"))))
+                .bindNow();
+
+        DownstreamClientProperties.Service service = new DownstreamClientProperties.Service();
+        service.setBaseUrl("http://localhost:" + server.port());
+        service.setMaxConnections(7);
+        DownstreamClientProperties properties = new DownstreamClientProperties();
+        properties.getServices().put("test-service", service);
+
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new DownstreamClientRegistry(properties, meterRegistry,
+                mock(ObjectProvider.class, invocation -> null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+        server.disposeNow();
+    }
+
+    @Test
+    void reusesOneClientPerService() {
+        assertSame(registry.client("test-service"), registry.client("test-service"));
+    }
+
+    @Test
+    void rejectsUnknownService() {
+        assertThrows(IllegalArgumentException.class, () -> registry.client("missing-service"));
+    }
+
+    @Test
+    void exportsPoolGaugesTaggedWithTheService() {
+        StepVerifier.create(registry.client("test-service").get().uri("/ping").retrieve().bodyToMono(String.class))
+                .expectNext("pong")
+                .verifyComplete();
+
+        Gauge max = meterRegistry.find("gateway.downstream.pool.max").tag("service", "test-service").gauge();
+        assertNotNull(max);
+        assertEquals(7.0, max.value());
+        assertNotNull(meterRegistry.find("gateway.downstream.pool.pending").tag("service", "test-service").gauge());
+        assertEquals(1.0, meterRegistry.find("gateway.downstream.pool.total").tag("service", "test-service").gauge().value());
+    }
+
+    @Test
+    void unsetServiceSettingsFallBackToDefaults() {
+        DownstreamClientProperties.Pool defaults = new DownstreamClientProperties.Pool();
+        DownstreamClientProperties.Service service = new DownstreamClientProperties.Service();
+        service.setMaxConnections(7);
+
+        DownstreamClientProperties.Pool resolved = service.resolve(defaults);
+
+        assertEquals(7, resolved.getMaxConnections());
+        assertEquals(defaults.getPendingAcquireMaxCount(), resolved.getPendingAcquireMaxCount());
+        assertEquals(defaults.getResponseTimeout(), resolved.getResponseTimeout());
+    }
+}
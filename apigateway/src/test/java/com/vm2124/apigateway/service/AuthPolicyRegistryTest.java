@@ -0,0 +1,90 @@
+package com.vm2124.apigateway.service;
+
+import com.vm2124.apigateway.config.AuthPolicyProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthPolicyRegistryTest {
+
+    private AuthPolicyProperties properties;
+    private RouteDefinitionLocator routeDefinitionLocator;
+    private AuthPolicyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuthPolicyProperties();
+        properties.setRules(List.of(rule("/api/auth/login", "public"), rule("/actuator", "public")));
+        routeDefinitionLocator = mock(RouteDefinitionLocator.class);
+        when(routeDefinitionLocator.getRouteDefinitions()).thenReturn(Flux.just(
+                route("auth-service", "Path=/api/auth/**", "full-context"),
+                route("catalog-service", "Path=/api/catalog/{id}/items,/api/tags/**", "jwt-claims-only"),
+                route("legacy-service", "Path=/api/legacy/**", null)));
+        registry = new AuthPolicyRegistry(properties, routeDefinitionLocator);
+    }
+
+    @Test
+    void usesRulesAndDefaultBeforeRoutesAreLoaded() {
+        assertEquals(AuthMode.PUBLIC, registry.modeFor("/actuator/health"));
+        assertEquals(AuthMode.FULL_CONTEXT, registry.modeFor("/api/catalog/1/items"));
+    }
+
+    @Test
+    void longestPrefixWinsAcrossRoutesAndRules() {
+        registry.reload();
+
+        assertEquals(AuthMode.PUBLIC, registry.modeFor("/api/auth/login"));
+        assertEquals(AuthMode.FULL_CONTEXT, registry.modeFor("/api/auth/me"));
+        assertEquals(AuthMode.JWT_CLAIMS_ONLY, registry.modeFor("/api/catalog/1/items"));
+        assertEquals(AuthMode.JWT_CLAIMS_ONLY, registry.modeFor("/api/tags"));
+        assertEquals(AuthMode.FULL_CONTEXT, registry.modeFor("/api/legacy/orders"));
+    }
+
+    @Test
+    void matchesWholeSegmentsOnly() {
+        registry.reload();
+
+        assertEquals(AuthMode.PUBLIC, registry.modeFor("/api/auth/login/otp"));
+        assertEquals(AuthMode.FULL_CONTEXT, registry.modeFor("/api/auth/login-legacy"));
+        assertEquals(AuthMode.FULL_CONTEXT, registry.modeFor("/actuatorx"));
+    }
+
+    @Test
+    void reloadPicksUpChangedRules() {
+        registry.reload();
+        properties.setRules(List.of(rule("/api/auth", "jwt-claims-only")));
+        properties.setDefaultMode("public");
+
+        registry.reload();
+
+        assertEquals(AuthMode.JWT_CLAIMS_ONLY, registry.modeFor("/api/auth/login"));
+        assertEquals(AuthMode.PUBLIC, registry.modeFor("/anything/else"));
+    }
+
+    private static AuthPolicyProperties.Rule rule(String prefix, String mode) {
+        AuthPolicyProperties.Rule rule = new AuthPolicyProperties.Rule();
+        rule.setPrefix(prefix);
+        rule.setMode(mode);
+        return rule;
+    }
+
+    private static RouteDefinition route(String id, String predicate, String authMode) {
+        RouteDefinition route = new RouteDefinition();
+        route.setId(id);
+        route.setPredicates(List.of(new PredicateDefinition(predicate)));
+        if (authMode != null) {
+            route.setMetadata(Map.of(AuthPolicyRegistry.ROUTE_METADATA_KEY, authMode));
+        }
+        return route;
+    }
+}
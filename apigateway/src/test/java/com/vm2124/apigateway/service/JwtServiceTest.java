@@ -0,0 +1,83 @@
+package com.vm2124.apigateway.service;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "test-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtService, "expiration", 60_000L);
+        jwtService.init();
+    }
+
+    @Test
+    void verifyReturnsAllClaimsFromOneParse() {
+        String token = jwtService.generateToken("user-1", List.of("ADMIN"));
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertEquals("user-1", verified.subject());
+        assertEquals("default-tenant", verified.tenantId());
+        assertEquals(List.of("ADMIN"), verified.roles());
+        assertNotNull(verified.issuedAt());
+        assertTrue(verified.expiresAt().isAfter(verified.issuedAt()));
+    }
+
+    @Test
+    void resolveVerifiedTokenStoresResultOnExchange() {
+        String token = jwtService.generateToken("user-1", List.of("USER"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+
+        Optional<VerifiedToken> first = jwtService.resolveVerifiedToken(exchange);
+        Optional<VerifiedToken> second = jwtService.resolveVerifiedToken(exchange);
+
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals(first, exchange.getAttribute(VerifiedToken.EXCHANGE_ATTRIBUTE));
+    }
+
+    @Test
+    void resolveVerifiedTokenRejectsTamperedToken() {
+        String token = jwtService.generateToken("user-1", List.of("USER"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token + "x"));
+
+        assertTrue(jwtService.resolveVerifiedToken(exchange).isEmpty());
+    }
+
+    @Test
+    void verifyReadsContextInTokenClaims() {
+        String token = Jwts.builder()
+                .subject("user-1")
+                .claims(Map.of(JwtService.CONTEXT_ENVELOPE_CLAIM, "envelope",
+                        JwtService.TENANT_STATUS_CLAIM, "ACTIVE",
+                        JwtService.PERMISSION_EPOCH_CLAIM, 1_700_000_000_000L))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("test-secret-key-that-is-long-enough-for-hs256".getBytes()))
+                .compact();
+
+        VerifiedToken.TokenContext context = jwtService.verify(token).context();
+
+        assertEquals(new VerifiedToken.TokenContext("envelope", "ACTIVE", 1_700_000_000_000L), context);
+        assertNull(jwtService.verify(jwtService.generateToken("user-1", List.of("USER"))).context());
+    }
+}
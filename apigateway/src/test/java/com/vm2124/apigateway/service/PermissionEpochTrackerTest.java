@@ -0,0 +1,50 @@
+package com.vm2124.apigateway.service;
+
+import com.vm2124.apigateway.config.DownstreamClientRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class PermissionEpochTrackerTest {
+
+    private PermissionEpochTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = spy(new PermissionEpochTracker(mock(DownstreamClientRegistry.class), true, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void everyTokenIsStaleUntilTheFirstRefresh() {
+        assertFalse(tracker.isCurrent(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    void tokensOlderThanTheCurrentEpochAreStale() {
+        doReturn(Mono.just(100L)).when(tracker).fetchEpoch();
+
+        StepVerifier.create(tracker.refresh()).expectNext(100L).verifyComplete();
+
+        assertTrue(tracker.isCurrent(100L));
+        assertTrue(tracker.isCurrent(101L));
+        assertFalse(tracker.isCurrent(99L));
+    }
+
+    @Test
+    void failedRefreshKeepsTheLastKnownEpoch() {
+        doReturn(Mono.just(100L)).when(tracker).fetchEpoch();
+        tracker.refresh().block();
+        doReturn(Mono.error(new IllegalStateException("down"))).when(tracker).fetchEpoch();
+
+        StepVerifier.create(tracker.refresh()).verifyComplete();
+
+        assertTrue(tracker.isCurrent(100L));
+    }
+}
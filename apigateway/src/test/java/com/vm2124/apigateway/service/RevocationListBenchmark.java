@@ -0,0 +1,70 @@
+package com.vm2124.apigateway.service;
+
+import com.vm2124.apigateway.config.DownstreamClientRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the per-request cost of {@link RevocationList#isRevoked} with 10,000 revoked
+ * tokens and 1,000 revoked users loaded, for a token that is not revoked (the common case)
+ * and one that is, including bytes allocated per check.
+ * Run with: ./mvnw test -Dtest=RevocationListBenchmark -Dbenchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RevocationListBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5_000_000;
+    private static final int MEASURED_ITERATIONS = 10_000_000;
+
+    @Test
+    void measureRevocationCheck() {
+        RevocationList revocationList = new RevocationList(mock(DownstreamClientRegistry.class),
+                new SimpleMeterRegistry(), false, Duration.ofSeconds(2));
+        Instant now = Instant.now();
+        List<RevocationFeed.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(new RevocationFeed.Entry(i, "TOKEN", "revoked-jti-" + i, null, now.plusSeconds(3600)));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            entries.add(new RevocationFeed.Entry(10_000 + i, "USER", "revoked-user-" + i, now, now.plusSeconds(3600)));
+        }
+        revocationList.apply(new RevocationFeed(11_000, entries));
+
+        VerifiedToken valid = new VerifiedToken("token", "live-jti", "live-user", "TNT0000001", List.of(),
+                now, now.plusSeconds(3600), null);
+        VerifiedToken revoked = new VerifiedToken("token", "revoked-jti-42", "live-user", "TNT0000001", List.of(),
+                now, now.plusSeconds(3600), null);
+
+        report("not revoked", revocationList, valid);
+        report("revoked    ", revocationList, revoked);
+    }
+
+    private static void report(String label, RevocationList revocationList, VerifiedToken token) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int hits = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            hits += revocationList.isRevoked(token) ? 1 : 0;
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            hits += revocationList.isRevoked(token) ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%s: %,.1f ns/op, %.3f bytes/op (hits %d)%n", label,
+                (double) elapsed / MEASURED_ITERATIONS, (double) allocated / MEASURED_ITERATIONS, hits);
+    }
+}
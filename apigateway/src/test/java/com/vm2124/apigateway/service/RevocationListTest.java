@@ -0,0 +1,110 @@
+package com.vm2124.apigateway.service;
+
+import com.vm2124.apigateway.config.DownstreamClientRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RevocationListTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        revocationList = spy(new RevocationList(mock(DownstreamClientRegistry.class), new SimpleMeterRegistry(), true, Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void revokedTokenIdIsRejectedAndOthersPass() {
+        RevocationList list = new RevocationList(mock(DownstreamClientRegistry.class), meterRegistry, true, Duration.ofSeconds(2));
+
+        list.apply(feed(1, tokenEntry(1, "jti-1")));
+
+        assertTrue(list.isRevoked(token("jti-1", "user-1", Instant.now())));
+        assertFalse(list.isRevoked(token("jti-2", "user-1", Instant.now())));
+        assertEquals(1.0, meterRegistry.get("gateway.revocations.entries").gauge().value());
+    }
+
+    @Test
+    void userRevocationOnlyCoversTokensIssuedBeforeIt() {
+        Instant cutoff = Instant.now();
+        revocationList.apply(feed(2, new RevocationFeed.Entry(2, "USER", "user-1", cutoff, cutoff.plusSeconds(3600))));
+
+        assertTrue(revocationList.isRevoked(token("jti-1", "user-1", cutoff.minusSeconds(1))));
+        assertFalse(revocationList.isRevoked(token("jti-2", "user-1", cutoff.plusSeconds(1))));
+        assertFalse(revocationList.isRevoked(token("jti-3", "user-2", cutoff.minusSeconds(1))));
+    }
+
+    @Test
+    void userRevocationCoversTokensIssuedEarlierInItsSecond() {
+        // Revoked at 08:00:00.800; User Service rounds the cutoff up to the next second
+        Instant cutoff = Instant.parse("2026-10-17T08:00:01Z");
+        revocationList.apply(feed(2, new RevocationFeed.Entry(2, "USER", "user-1", cutoff, cutoff.plusSeconds(3600))));
+
+        // Issued at 08:00:00.700, with iat truncated to the second
+        assertTrue(revocationList.isRevoked(token("jti-1", "user-1", Instant.parse("2026-10-17T08:00:00Z"))));
+        assertFalse(revocationList.isRevoked(token("jti-2", "user-1", cutoff)));
+    }
+
+    @Test
+    void expiredEntriesAreDropped() {
+        revocationList.apply(feed(1, new RevocationFeed.Entry(1, "TOKEN", "jti-1", null, Instant.now().minusSeconds(1))));
+
+        assertFalse(revocationList.isRevoked(token("jti-1", "user-1", Instant.now())));
+    }
+
+    @Test
+    void refreshReplaysRecentRevisionsAndAppliesTheFeed() {
+        revocationList.apply(feed(100, tokenEntry(100, "jti-100")));
+        doReturn(Mono.just(feed(101, tokenEntry(101, "jti-101")))).when(revocationList).fetchFeed(anyLong());
+
+        StepVerifier.create(revocationList.refresh()).expectNextCount(1).verifyComplete();
+
+        verify(revocationList).fetchFeed(36L);
+        assertTrue(revocationList.isRevoked(token("jti-100", "user-1", Instant.now())));
+        assertTrue(revocationList.isRevoked(token("jti-101", "user-1", Instant.now())));
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegatives() {
+        BloomFilter bloom = new BloomFilter(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            bloom.add("jti-" + i, RevocationList.TOKEN_SEED);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(bloom.mightContain("jti-" + i, RevocationList.TOKEN_SEED));
+        }
+        long falsePositives = 0;
+        for (int i = 1_000; i < 11_000; i++) {
+            if (bloom.mightContain("jti-" + i, RevocationList.TOKEN_SEED)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positive rate too high: " + falsePositives);
+    }
+
+    private static RevocationFeed feed(long revision, RevocationFeed.Entry... entries) {
+        return new RevocationFeed(revision, List.of(entries));
+    }
+
+    private static RevocationFeed.Entry tokenEntry(long revision, String tokenId) {
+        return new RevocationFeed.Entry(revision, "TOKEN", tokenId, null, Instant.now().plusSeconds(3600));
+    }
+
+    private static VerifiedToken token(String tokenId, String userId, Instant issuedAt) {
+        return new VerifiedToken("token", tokenId, userId, "TNT0000001", List.of(), issuedAt, issuedAt.plusSeconds(3600), null);
+    }
+}
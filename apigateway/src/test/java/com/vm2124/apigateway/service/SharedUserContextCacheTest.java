@@ -0,0 +1,79 @@
+package com.vm2124.apigateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SharedUserContextCacheTest {
+
+    // In-memory stand-in for Redis: key -> value, plus the TTL of the last write
+    private final Map<String, String> store = new HashMap<>();
+    private final AtomicReference<Duration> lastTtl = new AtomicReference<>();
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        ReactiveValueOperations<String, String> valueOperations = mock(ReactiveValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation ->
+                Mono.justOrEmpty(store.get(invocation.<String>getArgument(0))));
+        when(valueOperations.set(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+            store.put(invocation.getArgument(0), invocation.getArgument(1));
+            lastTtl.set(invocation.getArgument(2));
+            return Mono.just(true);
+        });
+    }
+
+    private SharedUserContextCache cache(boolean enabled) {
+        return new SharedUserContextCache(redisTemplate, new ObjectMapper(), enabled,
+                Duration.ofMinutes(15), Duration.ofSeconds(1), "gateway:user-context:");
+    }
+
+    @Test
+    void roundTripsUserInfoWithTtlCappedAtTokenExpiry() {
+        SharedUserContextCache cache = cache(true);
+        Map<String, Object> userInfo = Map.of("success", true, "user", Map.of("id", "u-1"));
+
+        StepVerifier.create(cache.put("abc", userInfo, Instant.now().plusSeconds(60))).verifyComplete();
+
+        assertTrue(store.containsKey("gateway:user-context:abc"));
+        assertTrue(lastTtl.get().compareTo(Duration.ofSeconds(60)) <= 0);
+        StepVerifier.create(cache.get("abc"))
+                .assertNext(cached -> assertEquals(userInfo, cached))
+                .verifyComplete();
+    }
+
+    @Test
+    void redisErrorsAreTreatedAsMisses() {
+        when(redisTemplate.opsForValue().get(anyString())).thenReturn(Mono.error(new IllegalStateException("down")));
+
+        StepVerifier.create(cache(true).get("abc")).verifyComplete();
+    }
+
+    @Test
+    void disabledTierNeverTouchesRedis() {
+        SharedUserContextCache cache = cache(false);
+
+        StepVerifier.create(cache.put("abc", Map.of("success", true), null)).verifyComplete();
+        StepVerifier.create(cache.get("abc")).verifyComplete();
+
+        verifyNoInteractions(redisTemplate);
+    }
+}
@@ -0,0 +1,63 @@
+package com.vm2124.apigateway.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserContextCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void returnsCachedUserInfoAndRecordsHitsAndMisses() {
+        UserContextCache cache = new UserContextCache(true, 100, Duration.ofMinutes(5), meterRegistry);
+        String key = UserContextCache.keyFor("token-a");
+        Map<String, Object> userInfo = Map.of("success", true);
+
+        assertTrue(cache.get(key).isEmpty());
+        cache.put(key, userInfo, Instant.now().plusSeconds(60));
+
+        assertEquals(userInfo, cache.get(key).orElseThrow());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void doesNotCacheTokensThatAlreadyExpired() {
+        UserContextCache cache = new UserContextCache(true, 100, Duration.ofMinutes(5), meterRegistry);
+        String key = UserContextCache.keyFor("token-b");
+
+        cache.put(key, Map.of("success", true), Instant.now().minusSeconds(1));
+
+        assertTrue(cache.get(key).isEmpty());
+    }
+
+    @Test
+    void keysAreTokenHashesAndFlushClearsEntries() {
+        UserContextCache cache = new UserContextCache(true, 100, Duration.ofMinutes(5), meterRegistry);
+        String key = UserContextCache.keyFor("token-c");
+        assertEquals(64, key.length());
+        assertFalse(key.contains("token-c"));
+
+        cache.put(key, Map.of("success", true), null);
+        cache.invalidateAll();
+
+        assertTrue(cache.get(key).isEmpty());
+    }
+
+    @Test
+    void disabledCacheNeverReturnsEntries() {
+        UserContextCache cache = new UserContextCache(false, 100, Duration.ofMinutes(5), meterRegistry);
+        String key = UserContextCache.keyFor("token-d");
+
+        cache.put(key, Map.of("success", true), Instant.now().plusSeconds(60));
+
+        assertTrue(cache.get(key).isEmpty());
+    }
+}
@@ -0,0 +1,170 @@
+package com.vm2124.apigateway.service;
+
+import com.vm2124.apigateway.config.DownstreamClientProperties;
+import com.vm2124.apigateway.config.DownstreamClientRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserInfoServiceTest {
+
+    private static final Map<String, Object> USER_INFO = Map.of("success", true);
+
+    private UserContextCache localCache;
+    private SharedUserContextCache sharedCache;
+    private UserInfoService userInfoService;
+
+    @BeforeEach
+    void setUp() {
+        localCache = new UserContextCache(true, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        sharedCache = mock(SharedUserContextCache.class);
+        when(sharedCache.get(anyString())).thenReturn(Mono.empty());
+        when(sharedCache.put(anyString(), any(), any())).thenReturn(Mono.empty());
+        userInfoService = spy(new UserInfoService(mock(DownstreamClientRegistry.class), localCache, sharedCache));
+        doReturn(Mono.just(USER_INFO)).when(userInfoService).getUserInfoFromUserService(anyString());
+    }
+
+    @Test
+    void missOnBothTiersCallsUserServiceAndFillsBothTiers() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+
+        StepVerifier.create(userInfoService.getUserInfo("token", expiresAt)).expectNext(USER_INFO).verifyComplete();
+        StepVerifier.create(userInfoService.getUserInfo("token", expiresAt)).expectNext(USER_INFO).verifyComplete();
+
+        verify(userInfoService, times(1)).getUserInfoFromUserService("token");
+        verify(sharedCache).put(UserContextCache.keyFor("token"), USER_INFO, expiresAt);
+    }
+
+    @Test
+    void sharedTierHitSkipsUserServiceAndWarmsLocalTier() {
+        String key = UserContextCache.keyFor("token");
+        when(sharedCache.get(key)).thenReturn(Mono.just(USER_INFO));
+
+        StepVerifier.create(userInfoService.getUserInfo("token", Instant.now().plusSeconds(60)))
+                .expectNext(USER_INFO)
+                .verifyComplete();
+
+        verify(userInfoService, never()).getUserInfoFromUserService(anyString());
+        assertTrue(localCache.get(key).isPresent());
+    }
+
+    @Test
+    void concurrentMissesForTheSameTokenShareOneLookup() {
+        AtomicInteger calls = new AtomicInteger();
+        doReturn(Mono.delay(Duration.ofMillis(100)).thenReturn(USER_INFO).doOnSubscribe(s -> calls.incrementAndGet()))
+                .when(userInfoService).getUserInfoFromUserService(anyString());
+        Instant expiresAt = Instant.now().plusSeconds(60);
+
+        List<Map> results = Flux.range(0, 20)
+                .flatMap(i -> userInfoService.getUserInfo("token", expiresAt))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(20, results.size());
+        assertEquals(1, calls.get());
+        assertEquals(0, userInfoService.inFlightLookupCount());
+    }
+
+    @Test
+    void lookupErrorReachesEveryWaiterAndIsNotRemembered() {
+        doReturn(Mono.delay(Duration.ofMillis(50)).then(Mono.error(new IllegalStateException("user-service down"))))
+                .when(userInfoService).getUserInfoFromUserService(anyString());
+        Instant expiresAt = Instant.now().plusSeconds(60);
+
+        Mono<Map> first = userInfoService.getUserInfo("token", expiresAt);
+        Mono<Map> second = userInfoService.getUserInfo("token", expiresAt);
+
+        StepVerifier.create(Mono.zipDelayError(first.materialize(), second.materialize()))
+                .assertNext(signals -> {
+                    assertTrue(signals.getT1().isOnError());
+                    assertTrue(signals.getT2().isOnError());
+                })
+                .verifyComplete();
+        assertEquals(0, userInfoService.inFlightLookupCount());
+
+        doReturn(Mono.just(USER_INFO)).when(userInfoService).getUserInfoFromUserService(anyString());
+        StepVerifier.create(userInfoService.getUserInfo("token", expiresAt)).expectNext(USER_INFO).verifyComplete();
+    }
+
+    @Test
+    void userServiceFailureReachesEveryCoalescedWaiter() {
+        AtomicInteger requests = new AtomicInteger();
+        DisposableServer server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/api/v1/auth/validate", (request, response) -> {
+                    requests.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(100))
+                            .then(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send());
+                }))
+                .bindNow();
+        DownstreamClientRegistry registry = registryFor(server, Duration.ofSeconds(5));
+        try {
+            UserInfoService service = new UserInfoService(registry, localCache, sharedCache);
+            Instant expiresAt = Instant.now().plusSeconds(60);
+
+            List<Signal<Map>> signals = Flux.range(0, 5)
+                    .flatMap(i -> service.getUserInfo("token", expiresAt).materialize())
+                    .collectList()
+                    .block(Duration.ofSeconds(5));
+
+            assertEquals(5, signals.size());
+            signals.forEach(signal -> assertTrue(signal.isOnError(), signal.toString()));
+            assertEquals(1, requests.get());
+            assertTrue(localCache.get(UserContextCache.keyFor("token")).isEmpty());
+        } finally {
+            registry.destroy();
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void userServiceTimeoutIsAnError() {
+        DisposableServer server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/api/v1/auth/validate", (request, response) ->
+                        Mono.delay(Duration.ofSeconds(2)).then(response.sendString(Mono.just("{\"success\":true}")).then())))
+                .bindNow();
+        DownstreamClientRegistry registry = registryFor(server, Duration.ofMillis(200));
+        try {
+            UserInfoService service = new UserInfoService(registry, localCache, sharedCache);
+
+            StepVerifier.create(service.getUserInfo("token", Instant.now().plusSeconds(60)))
+                    .expectError()
+                    .verify(Duration.ofSeconds(5));
+        } finally {
+            registry.destroy();
+            server.disposeNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DownstreamClientRegistry registryFor(DisposableServer server, Duration responseTimeout) {
+        DownstreamClientProperties.Service userService = new DownstreamClientProperties.Service();
+        userService.setBaseUrl("http://localhost:" + server.port());
+        userService.setResponseTimeout(responseTimeout);
+        DownstreamClientProperties properties = new DownstreamClientProperties();
+        properties.getServices().put("user-service", userService);
+        return new DownstreamClientRegistry(properties, new SimpleMeterRegistry(),
+                mock(ObjectProvider.class, invocation -> null));
+    }
+}
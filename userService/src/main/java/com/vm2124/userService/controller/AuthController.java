@@ -2,15 +2,24 @@ package com.vm2124.userService.controller;
 
 import com.vm2124.userService.dto.LoginRequest;
 import com.vm2124.userService.dto.LoginResponse;
+import com.vm2124.userService.dto.RevocationFeed;
+import com.vm2124.userService.dto.TokenClaims;
 import com.vm2124.userService.dto.UserInfoDto;
 import com.vm2124.userService.service.AuthenticationService;
+import com.vm2124.userService.service.JwtService;
+import com.vm2124.userService.service.PasswordHashingService;
+import com.vm2124.userService.service.PermissionEpochService;
+import com.vm2124.userService.service.TokenRevocationService;
 import com.vm2124.userService.service.TokenValidationService;
 import com.vm2124.userService.service.UserContextService;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
@@ -21,6 +30,9 @@ public class AuthController {
     private final TokenValidationService tokenValidationService;
     private final AuthenticationService authenticationService;
     private final UserContextService userContextService;
+    private final PermissionEpochService permissionEpochService;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtService jwtService;
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest loginRequest) {
@@ -35,6 +47,11 @@ public class AuthController {
                 return ResponseEntity.status(401).body(loginResponse);
             }
             
+        } catch (PasswordHashingService.SaturatedException e) {
+            log.warn("Rejecting login for user {}: {}", loginRequest.getEmail(), e.getMessage());
+            return ResponseEntity.status(503)
+                    .header("Retry-After", "1")
+                    .body(new LoginResponse(false, e.getMessage(), null, null, null, null));
         } catch (Exception e) {
             log.error("Error during login: {}", e.getMessage(), e);
             return ResponseEntity.status(500)
@@ -69,6 +86,62 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(@RequestHeader("Authorization") String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "Invalid token format"));
+        }
+
+        try {
+            TokenClaims claims = jwtService.verify(authHeader.substring(7));
+            tokenRevocationService.revokeToken(claims, "logout");
+            return ResponseEntity.ok(Map.of("success", true, "message", "Logged out"));
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "Invalid or expired token"));
+        }
+    }
+
+    /**
+     * Revoke every token issued to a user so far, e.g. after suspension or a role change.
+     * Requires the USER_DEACTIVATE permission.
+     */
+    @PostMapping("/revocations/users/{userId}")
+    public ResponseEntity<Map<String, Object>> revokeUserTokens(@PathVariable String userId,
+                                                                @RequestParam(defaultValue = "manual") String reason) {
+        try {
+            userContextService.requireAuthentication();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", e.getMessage()));
+        }
+        try {
+            userContextService.requirePermission("USER_DEACTIVATE");
+        } catch (SecurityException e) {
+            log.warn("User {} denied revoking tokens of user {}: {}",
+                    userContextService.getCurrentUserId(), userId, e.getMessage());
+            return ResponseEntity.status(403).body(Map.of("success", false, "message", e.getMessage()));
+        }
+        tokenRevocationService.revokeUser(userId, reason);
+        log.info("User {} revoked all tokens of user {}", userContextService.getCurrentUserId(), userId);
+        return ResponseEntity.ok(Map.of("success", true, "message", "Tokens revoked"));
+    }
+
+    /**
+     * Revocations recorded after the given revision; the API Gateway follows this feed.
+     */
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationFeed> getRevocations(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(tokenRevocationService.changesSince(since));
+    }
+
+    /**
+     * Current permission epoch; the API Gateway polls it to decide whether the context
+     * embedded in a token is still current.
+     */
+    @GetMapping("/permission-epoch")
+    public ResponseEntity<Map<String, Long>> getPermissionEpoch() {
+        return ResponseEntity.ok(Map.of("epoch", permissionEpochService.currentEpoch()));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<UserInfoDto> getCurrentUserInfo() {
         log.info("Getting current user information from context");
@@ -1,14 +1,27 @@
 package com.vm2124.userService.controller;
 
+import com.vm2124.userService.dto.TenantOnboardingJobStatus;
 import com.vm2124.userService.dto.TenantOnboardingRequest;
 import com.vm2124.userService.dto.TenantOnboardingResponse;
+import com.vm2124.userService.service.PasswordHashingService;
+import com.vm2124.userService.service.TenantBulkOnboardingService;
+import com.vm2124.userService.service.TenantOnboardingJobService;
 import com.vm2124.userService.service.TenantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
 
 
 @RestController
@@ -17,7 +30,11 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class TenantController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
     private final TenantService tenantService;
+    private final TenantBulkOnboardingService tenantBulkOnboardingService;
+    private final TenantOnboardingJobService tenantOnboardingJobService;
     
     @PostMapping("/onboard")
     public ResponseEntity<TenantOnboardingResponse> onboardTenant(
@@ -33,4 +50,57 @@ public class TenantController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
     }
+    
+    /**
+     * Queue the onboarding as a job and return straight away with 202 and the job's status;
+     * poll the Location header for progress.
+     */
+    @PostMapping(value = "/onboard", params = "async=true")
+    public ResponseEntity<TenantOnboardingJobStatus> onboardTenantAsync(
+            @RequestBody TenantOnboardingRequest request) {
+        
+        log.info("Received async tenant onboarding request for tenant code: {}", request.getTenantCode());
+        
+        try {
+            TenantOnboardingJobStatus job = tenantOnboardingJobService.enqueue(request);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/tenants/onboard/jobs/" + job.getJobId()))
+                .body(job);
+        } catch (IllegalArgumentException e) {
+            TenantOnboardingJobStatus rejected = new TenantOnboardingJobStatus();
+            rejected.setTenantCode(request.getTenantCode());
+            rejected.setMessage(e.getMessage());
+            return ResponseEntity.badRequest().body(rejected);
+        } catch (PasswordHashingService.SaturatedException e) {
+            log.warn("Rejecting async onboarding for tenant code {}: {}", request.getTenantCode(), e.getMessage());
+            TenantOnboardingJobStatus rejected = new TenantOnboardingJobStatus();
+            rejected.setTenantCode(request.getTenantCode());
+            rejected.setMessage(e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(rejected);
+        }
+    }
+    
+    @GetMapping("/onboard/jobs/{jobId}")
+    public ResponseEntity<TenantOnboardingJobStatus> getOnboardingJob(@PathVariable UUID jobId) {
+        return tenantOnboardingJobService.find(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Onboard many tenants from an NDJSON body, one {@link TenantOnboardingRequest} per line.
+     * The response is NDJSON too, one result per request line, streamed as chunks complete;
+     * per-tenant failures are reported in their line and do not change the 200 status.
+     */
+    @PostMapping(value = "/onboard:bulk", consumes = NDJSON, produces = NDJSON)
+    public void onboardTenantsBulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Received bulk tenant onboarding request");
+        
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        tenantBulkOnboardingService.onboard(
+            new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)),
+            response.getWriter());
+    }
 }
@@ -1,12 +1,17 @@
 package com.vm2124.userService.controller;
 
+import com.vm2124.userService.dto.BatchUserInfoRequest;
+import com.vm2124.userService.dto.BatchUserInfoResponse;
 import com.vm2124.userService.dto.UserInfoDto;
 import com.vm2124.userService.service.UserInfoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -29,4 +34,27 @@ public class UserController {
             return ResponseEntity.ok(new UserInfoDto(false, "Error fetching user information: " + e.getMessage(), null, null, null, null));
         }
     }
+
+    @PostMapping("/info:batch")
+    public ResponseEntity<BatchUserInfoResponse> getUserInfoBatch(@RequestBody BatchUserInfoRequest request) {
+        List<String> userIds = request != null ? request.getUserIds() : null;
+        if (userIds == null || userIds.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new BatchUserInfoResponse(false, "userIds must not be empty", null));
+        }
+        if (userIds.size() > userInfoService.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new BatchUserInfoResponse(false,
+                    "At most " + userInfoService.getMaxBatchSize() + " user IDs per request", null));
+        }
+        
+        try {
+            List<UserInfoDto> users = userInfoService.getUserInfos(userIds);
+            return ResponseEntity.ok(new BatchUserInfoResponse(true, "User information retrieved successfully", users));
+            
+        } catch (Exception e) {
+            log.error("Error fetching user info for a batch of {} IDs: {}", userIds.size(), e.getMessage(), e);
+            return ResponseEntity.ok(new BatchUserInfoResponse(false, "Error fetching user information: " + e.getMessage(), null));
+        }
+    }
 }
@@ -0,0 +1,15 @@
+package com.vm2124.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUserInfoRequest {
+    
+    private List<String> userIds;
+}
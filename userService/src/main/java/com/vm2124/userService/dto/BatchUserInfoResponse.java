@@ -0,0 +1,18 @@
+package com.vm2124.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUserInfoResponse {
+    
+    private boolean success;
+    private String message;
+    // One entry per requested ID, in request order
+    private List<UserInfoDto> users;
+}
@@ -0,0 +1,22 @@
+package com.vm2124.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogDiff {
+
+    // Codes written by a catalog sync, in seed data order
+    private Set<String> inserted = new LinkedHashSet<>();
+    private Set<String> updated = new LinkedHashSet<>();
+    private Set<String> deactivated = new LinkedHashSet<>();
+
+    // Rows that already matched the seed data and were not written
+    private int unchanged;
+}
@@ -1,5 +1,6 @@
 package com.vm2124.userService.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -12,5 +13,6 @@ public class FeatureData {
     private String name;
     private String description;
     private String type;
+    @JsonProperty("isSystemFeature")
     private boolean isSystemFeature;
 }
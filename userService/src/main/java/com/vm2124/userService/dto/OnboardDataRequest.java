@@ -29,6 +29,9 @@ public class OnboardDataRequest {
     // Specific features to onboard (if empty, onboard all predefined features)
     private Set<String> specificFeatures;
     
+    // Also update system rows that differ from the seed data and deactivate those no longer in it
+    private boolean sync = false;
+    
     // Force recreation of existing data
     private boolean forceRecreate = false;
     
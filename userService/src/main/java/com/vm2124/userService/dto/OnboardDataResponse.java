@@ -29,6 +29,9 @@ public class OnboardDataResponse {
     private Set<String> createdRoles;
     private Set<String> createdFeatures;
     
+    // What each catalog sync wrote, keyed by "modules", "roles" or "features"
+    private Map<String, CatalogDiff> syncDiff;
+    
     // Status information
     private Map<String, Object> status;
     
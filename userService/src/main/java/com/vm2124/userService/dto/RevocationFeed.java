@@ -0,0 +1,14 @@
+package com.vm2124.userService.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revocations recorded after a given revision, oldest first. Consumers pass
+ * {@link #revision()} back as the next since value.
+ */
+public record RevocationFeed(long revision, List<Entry> revocations) {
+
+    public record Entry(long revision, String type, String subject, Instant issuedBefore, Instant expiresAt) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.vm2124.userService.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -14,7 +15,9 @@ public class RoleData {
     private String name;
     private String description;
     private int priority;
+    @JsonProperty("isSystemRole")
     private boolean isSystemRole;
+    @JsonProperty("isDefault")
     private boolean isDefault;
     private String roleType;
     private List<String> permissions;
@@ -0,0 +1,19 @@
+package com.vm2124.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantBulkOnboardingResult {
+
+    // 1-based line number of the request in the NDJSON payload
+    private long line;
+    private boolean success;
+    private String message;
+    private String tenantCode;
+    private String tenantGeneratedId;
+    private String adminGeneratedId;
+}
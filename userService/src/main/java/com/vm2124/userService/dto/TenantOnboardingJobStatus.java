@@ -0,0 +1,31 @@
+package com.vm2124.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantOnboardingJobStatus {
+
+    private UUID jobId;
+    // QUEUED, RUNNING, SUCCEEDED or FAILED
+    private String status;
+    private String tenantCode;
+    private int attempts;
+    private String message;
+
+    // Set once the job has succeeded
+    private String tenantGeneratedId;
+    private String adminGeneratedId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // When a queued job is due to (re)try
+    private LocalDateTime nextAttemptAt;
+}
@@ -1,5 +1,6 @@
 package com.vm2124.userService.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.vm2124.userService.model.Tenant;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -32,6 +33,9 @@ public class TenantOnboardingRequest {
     private String adminFirstName;
     private String adminLastName;
     private String adminPassword;
+    // Set by asynchronous onboarding jobs, which hash the password when the job is queued; never bound from JSON
+    @JsonIgnore
+    private String adminPasswordHash;
     private String adminPhoneNumber;
     private String adminDepartment;
     private String adminJobTitle;
@@ -0,0 +1,21 @@
+package com.vm2124.userService.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature and expiry have already been verified by
+ * {@link com.vm2124.userService.service.JwtService#verify(String)}.
+ */
+public record TokenClaims(
+        String tokenId,
+        String subject,
+        String tenantId,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt) {
+
+    public String userId() {
+        return subject;
+    }
+}
@@ -1,15 +1,35 @@
 package com.vm2124.userService.dto;
 
-import lombok.Data;
+import com.vm2124.userService.service.PermissionCatalog;
+import com.vm2124.userService.service.PermissionSet;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
-@Data
+/**
+ * Per-request view of the caller's identity. UserContextFilter only hands over the
+ * still-encoded X-User-Context envelope; it is verified and decoded the first time any
+ * accessor is used, so requests that never look at the user do not pay for it.
+ *
+ * <p>Role and permission checks run against structures built once per request: a hash set
+ * of role codes, and a {@link PermissionSet} bitset of catalog permissions (plus the rare
+ * permission missing from the catalog, kept as a string).
+ */
+@Setter
 @Component
 @RequestScope
+@RequiredArgsConstructor
 public class UserContext {
+    private final PermissionCatalog permissionCatalog;
+
     private String userId;
     private String userGeneratedId;
     private String username;
@@ -21,24 +41,191 @@ public class UserContext {
     private String tenantGeneratedId;
     private List<String> roles;
     private List<String> permissions;
-    
+
+    @Setter(AccessLevel.NONE)
+    private Set<String> roleSet;
+    @Setter(AccessLevel.NONE)
+    private PermissionSet permissionSet;
+    @Setter(AccessLevel.NONE)
+    private List<String> uncatalogedPermissions;
+
+    private Supplier<UserContextEnvelope> envelopeSource;
+
+    /**
+     * Defer population to the first accessor call. A supplier that returns null leaves
+     * the context unauthenticated.
+     */
+    public void setEnvelopeSource(Supplier<UserContextEnvelope> envelopeSource) {
+        this.envelopeSource = envelopeSource;
+    }
+
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+        this.roleSet = null;
+    }
+
+    public void setPermissions(List<String> permissions) {
+        this.permissions = permissions;
+        this.permissionSet = null;
+        this.uncatalogedPermissions = null;
+    }
+
+    private void resolve() {
+        Supplier<UserContextEnvelope> source = envelopeSource;
+        if (source == null) {
+            return;
+        }
+        envelopeSource = null;
+        UserContextEnvelope envelope = source.get();
+        if (envelope == null) {
+            return;
+        }
+        userId = envelope.userId();
+        userGeneratedId = envelope.userGeneratedId();
+        username = envelope.username();
+        email = envelope.email();
+        firstName = envelope.firstName();
+        lastName = envelope.lastName();
+        isActive = envelope.active();
+        tenantId = envelope.tenantId();
+        tenantGeneratedId = envelope.tenantGeneratedId();
+        setRoles(envelope.roles());
+        setPermissions(envelope.permissions());
+    }
+
+    private Set<String> roleSet() {
+        resolve();
+        if (roleSet == null) {
+            roleSet = roles != null ? new HashSet<>(roles) : Set.of();
+        }
+        return roleSet;
+    }
+
+    /**
+     * The caller's catalog permissions as a bitset.
+     */
+    public PermissionSet getPermissionSet() {
+        resolve();
+        if (permissionSet == null) {
+            permissionSet = permissionCatalog.setOf(permissions);
+            List<String> uncataloged = new ArrayList<>();
+            if (permissions != null) {
+                for (String permission : permissions) {
+                    if (permissionCatalog.ordinalOf(permission) < 0) {
+                        uncataloged.add(permission);
+                    }
+                }
+            }
+            uncatalogedPermissions = uncataloged;
+        }
+        return permissionSet;
+    }
+
+    public String getUserId() {
+        resolve();
+        return userId;
+    }
+
+    public String getUserGeneratedId() {
+        resolve();
+        return userGeneratedId;
+    }
+
+    public String getUsername() {
+        resolve();
+        return username;
+    }
+
+    public String getEmail() {
+        resolve();
+        return email;
+    }
+
+    public String getFirstName() {
+        resolve();
+        return firstName;
+    }
+
+    public String getLastName() {
+        resolve();
+        return lastName;
+    }
+
+    public boolean isActive() {
+        resolve();
+        return isActive;
+    }
+
+    public String getTenantId() {
+        resolve();
+        return tenantId;
+    }
+
+    public String getTenantGeneratedId() {
+        resolve();
+        return tenantGeneratedId;
+    }
+
+    public List<String> getRoles() {
+        resolve();
+        return roles;
+    }
+
+    public List<String> getPermissions() {
+        resolve();
+        return permissions;
+    }
+
     public boolean isAuthenticated() {
-        return userId != null && !userId.isEmpty();
+        String id = getUserId();
+        return id != null && !id.isEmpty();
     }
     
     public boolean hasRole(String roleCode) {
-        return roles != null && roles.contains(roleCode);
+        return roleSet().contains(roleCode);
     }
     
     public boolean hasPermission(String permission) {
-        return permissions != null && permissions.contains(permission);
+        int ordinal = permissionCatalog.ordinalOf(permission);
+        return ordinal >= 0 ? getPermissionSet().contains(ordinal) : hasUncatalogedPermission(permission);
     }
     
     public boolean hasAnyRole(List<String> roleCodes) {
-        return roles != null && roles.stream().anyMatch(roleCodes::contains);
+        Set<String> granted = roleSet();
+        for (String roleCode : roleCodes) {
+            if (granted.contains(roleCode)) {
+                return true;
+            }
+        }
+        return false;
     }
     
     public boolean hasAnyPermission(List<String> permissions) {
-        return this.permissions != null && this.permissions.stream().anyMatch(permissions::contains);
+        if (getPermissionSet().containsAny(permissionCatalog.setOf(permissions))) {
+            return true;
+        }
+        for (String permission : permissions) {
+            if (permissionCatalog.ordinalOf(permission) < 0 && hasUncatalogedPermission(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * For callers that check the same permissions repeatedly: build {@code required} once with
+     * {@link PermissionCatalog#setOf} and the check is a single AND per 64 permissions.
+     */
+    public boolean hasAnyPermission(PermissionSet required) {
+        return getPermissionSet().containsAny(required);
+    }
+    
+    public boolean hasAllPermissions(PermissionSet required) {
+        return getPermissionSet().containsAll(required);
+    }
+    
+    private boolean hasUncatalogedPermission(String permission) {
+        getPermissionSet();
+        return uncatalogedPermissions.contains(permission);
     }
 }
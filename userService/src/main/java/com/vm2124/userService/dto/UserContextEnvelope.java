@@ -0,0 +1,24 @@
+package com.vm2124.userService.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Identity carried from the API Gateway to downstream services in the signed
+ * X-User-Context header. See {@link com.vm2124.userService.service.UserContextEnvelopeCodec}
+ * for the wire format.
+ */
+public record UserContextEnvelope(
+        String userId,
+        String userGeneratedId,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        boolean active,
+        String tenantId,
+        String tenantGeneratedId,
+        List<String> roles,
+        List<String> permissions,
+        Instant expiresAt) {
+}
@@ -19,6 +19,13 @@ public class UserInfoDto {
     private TenantData tenant;
     private List<RoleData> roles;
     private List<String> permissions;
+    // Signed compact form of the above, forwarded by the API Gateway as X-User-Context
+    private String contextEnvelope;
+
+    public UserInfoDto(boolean success, String message, UserData user, TenantData tenant,
+                       List<RoleData> roles, List<String> permissions) {
+        this(success, message, user, tenant, roles, permissions, null);
+    }
     
     @Data
     @NoArgsConstructor
@@ -16,7 +16,7 @@ import java.util.UUID;
 public class Permissions {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @Column(nullable = false, unique = true)
@@ -0,0 +1,8 @@
+package com.vm2124.userService.model;
+
+/**
+ * Published by Spring Data whenever a {@link Roles} entity is saved or deleted through
+ * its repository.
+ */
+public record RoleChangedEvent(String roleGeneratedId) {
+}
@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.DomainEvents;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -18,7 +21,7 @@ import java.util.UUID;
 public class Roles {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @Column(name = "generated_id", nullable = false, unique = true, length = 10)
@@ -67,7 +70,7 @@ public class Roles {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        updatedAt = createdAt;
     }
     
     @PreUpdate
@@ -75,6 +78,12 @@ public class Roles {
         updatedAt = LocalDateTime.now();
     }
     
+    // Lets the role catalog rebuild after any save or delete through RolesRepository
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new RoleChangedEvent(generatedId));
+    }
+    
     public enum RoleType {
         SYSTEM, // System-wide predefined roles
         TENANT_ADMIN, // Tenant administrator role
@@ -4,8 +4,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.DomainEvents;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -16,7 +19,7 @@ import java.util.UUID;
 public class Tenant {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @Column(name = "generated_id", nullable = false, unique = true, length = 10)
@@ -71,7 +74,7 @@ public class Tenant {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        updatedAt = createdAt;
     }
     
     @PreUpdate
@@ -79,6 +82,12 @@ public class Tenant {
         updatedAt = LocalDateTime.now();
     }
     
+    // Lets the tenant metadata cache drop this tenant once the saving transaction commits
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new TenantChangedEvent(generatedId));
+    }
+    
     public enum TenantStatus {
         ACTIVE, INACTIVE, SUSPENDED, PENDING_ACTIVATION
     }
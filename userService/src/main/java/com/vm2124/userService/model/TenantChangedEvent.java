@@ -0,0 +1,8 @@
+package com.vm2124.userService.model;
+
+/**
+ * Published by Spring Data whenever a {@link Tenant} or one of its {@link TenantFeature}s
+ * is saved or deleted through its repository.
+ */
+public record TenantChangedEvent(String tenantGeneratedId) {
+}
@@ -4,8 +4,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.DomainEvents;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -16,14 +19,14 @@ import java.util.UUID;
 public class TenantFeature {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @Column(name = "generated_id", nullable = false, unique = true, length = 10)
     private String generatedId;
     
-    @Column(name = "tenant_id", nullable = false)
-    private String tenantId; // Reference to tenant generated ID
+    @Column(name = "tenant_id")
+    private String tenantId; // Reference to tenant generated ID, null for system-wide features
     
     @Column(nullable = false)
     private String featureCode;
@@ -64,6 +67,12 @@ public class TenantFeature {
         updatedAt = LocalDateTime.now();
     }
     
+    // Lets the tenant metadata cache drop this tenant once the saving transaction commits
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new TenantChangedEvent(tenantId));
+    }
+    
     public enum FeatureType {
         BOOLEAN, STRING, INTEGER, JSON, ENCRYPTED
     }
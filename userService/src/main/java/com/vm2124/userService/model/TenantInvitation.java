@@ -16,7 +16,7 @@ import java.util.UUID;
 public class TenantInvitation {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @Column(name = "tenant_id", nullable = false)
@@ -0,0 +1,78 @@
+package com.vm2124.userService.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tenant_onboarding_jobs", indexes = {
+    @Index(name = "idx_tenant_onboarding_jobs_due", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantOnboardingJob {
+    
+    @Id
+    @UuidV7
+    private UUID id;
+    
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    
+    @Column(name = "tenant_code")
+    private String tenantCode;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String request; // TenantOnboardingRequest JSON, without the admin password
+    
+    @Column(name = "admin_password_hash")
+    private String adminPasswordHash; // Hashed when queued; cleared once the job finishes
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt; // QUEUED: when it is due; RUNNING: when the claim expires
+    
+    @Column(columnDefinition = "TEXT")
+    private String message;
+    
+    @Column(name = "tenant_generated_id")
+    private String tenantGeneratedId;
+    
+    @Column(name = "admin_generated_id")
+    private String adminGeneratedId;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+}
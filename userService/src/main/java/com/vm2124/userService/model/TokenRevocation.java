@@ -0,0 +1,54 @@
+package com.vm2124.userService.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "token_revocations", indexes = {
+    @Index(name = "idx_token_revocations_subject", columnList = "revocation_type, subject"),
+    @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    
+    // Sequential so consumers can follow the list as a feed of changes
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long revision;
+    
+    @Column(name = "revocation_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private RevocationType revocationType;
+    
+    @Column(nullable = false)
+    private String subject; // Token id (jti) for TOKEN, user id for USER
+    
+    @Column(name = "issued_before")
+    private Instant issuedBefore; // USER only: tokens issued before this instant are revoked
+    
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt; // After this no affected token can still be valid
+    
+    @Column(name = "reason")
+    private String reason;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public enum RevocationType {
+        TOKEN, // A single token, by jti
+        USER // Every token of a user issued before issuedBefore
+    }
+}
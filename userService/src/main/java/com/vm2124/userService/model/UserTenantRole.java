@@ -18,7 +18,7 @@ import java.util.UUID;
 public class UserTenantRole {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @Column(name = "generated_id", nullable = false, unique = true, length = 10)
@@ -60,7 +60,7 @@ public class UserTenantRole {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        updatedAt = createdAt;
         if (assignedAt == null) {
             assignedAt = LocalDateTime.now();
         }
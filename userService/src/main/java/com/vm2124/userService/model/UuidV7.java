@@ -0,0 +1,19 @@
+package com.vm2124.userService.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link java.util.UUID} id that is assigned a time-ordered version 7 UUID by
+ * {@link UuidV7Generator} on insert, in place of
+ * {@code @GeneratedValue(strategy = GenerationType.UUID)}.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
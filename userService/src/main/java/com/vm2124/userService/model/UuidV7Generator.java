@@ -0,0 +1,73 @@
+package com.vm2124.userService.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp, then a 12-bit counter,
+ * then 62 random bits. Keys made one after another land next to each other in the primary
+ * key B-tree instead of on a random page, as version 4 keys do.
+ *
+ * <p>IDs from one JVM are strictly increasing. The timestamp and counter are one
+ * {@link AtomicLong}, advanced by compare-and-set. The counter restarts at zero each
+ * millisecond, and when a millisecond's 4096 values run out the next millisecond is borrowed.
+ * The random bits keep IDs from separate instances apart. They come from
+ * {@link ThreadLocalRandom}, so unlike {@link UUID#randomUUID()} they are not meant to be
+ * unguessable.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    // One sequence for every entity, so IDs stay increasing across tables as well
+    private static final Source SHARED = new Source(System::currentTimeMillis);
+
+    /**
+     * A new version 7 UUID, for rows written outside Hibernate.
+     */
+    public static UUID randomUuid() {
+        return SHARED.next();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return randomUuid();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    static final class Source {
+
+        private final LongSupplier clock;
+        // Unix millis << 12 | counter of the last UUID issued
+        private final AtomicLong last = new AtomicLong();
+
+        Source(LongSupplier clock) {
+            this.clock = clock;
+        }
+
+        UUID next() {
+            long now = clock.getAsLong() << 12;
+            long current;
+            long next;
+            do {
+                current = last.get();
+                next = Math.max(current + 1, now);
+            } while (!last.compareAndSet(current, next));
+
+            long mostSigBits = (next >>> 12) << 16 | 0x7000L | (next & 0xFFFL);
+            long leastSigBits = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000_0000_0000_0000L;
+            return new UUID(mostSigBits, leastSigBits);
+        }
+    }
+}
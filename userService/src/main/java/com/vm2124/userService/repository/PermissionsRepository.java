@@ -0,0 +1,16 @@
+package com.vm2124.userService.repository;
+
+import com.vm2124.userService.model.Permissions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PermissionsRepository extends JpaRepository<Permissions, UUID> {
+    
+    @Query("select p.permissionCode from Permissions p order by p.permissionCode")
+    List<String> findAllPermissionCodes();
+}
@@ -2,8 +2,10 @@ package com.vm2124.userService.repository;
 
 import com.vm2124.userService.model.Roles;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,4 +30,13 @@ public interface RolesRepository extends JpaRepository<Roles, UUID> {
     boolean existsByGeneratedId(String generatedId);
     
     boolean existsByRoleCodeAndIsSystemRoleTrue(String roleCode);
+    
+    /**
+     * All active roles together with their permission codes, in a single round trip.
+     */
+    @Query("select distinct r from Roles r left join fetch r.permissionCodes where r.isActive = true")
+    List<Roles> findActiveWithPermissions();
+    
+    @Query("select max(r.updatedAt) from Roles r where r.updatedAt > r.createdAt")
+    LocalDateTime findLatestUpdatedAt();
 }
@@ -4,6 +4,7 @@ import com.vm2124.userService.model.TenantFeature;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +16,8 @@ public interface TenantFeatureRepository extends JpaRepository<TenantFeature, UU
     
     List<TenantFeature> findByTenantId(String tenantId);
     
+    List<TenantFeature> findByTenantIdIn(Collection<String> tenantIds);
+    
     List<TenantFeature> findByTenantIdAndIsEnabledTrue(String tenantId);
     
     Optional<TenantFeature> findByTenantIdAndFeatureCode(String tenantId, String featureCode);
@@ -0,0 +1,71 @@
+package com.vm2124.userService.repository;
+
+import com.vm2124.userService.model.TenantOnboardingJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TenantOnboardingJobRepository extends JpaRepository<TenantOnboardingJob, UUID> {
+    
+    List<TenantOnboardingJob> findByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+            Collection<TenantOnboardingJob.Status> statuses, LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Claim a due job for one attempt, only if nobody else has claimed it since it was read.
+     * Returns 1 if this caller now holds the job until {@code claimUntil}, 0 otherwise.
+     */
+    @Modifying
+    @Transactional
+    @Query("update TenantOnboardingJob j set j.status = com.vm2124.userService.model.TenantOnboardingJob.Status.RUNNING, " +
+           "j.attempts = j.attempts + 1, j.nextAttemptAt = :claimUntil, j.startedAt = :now, j.updatedAt = :now " +
+           "where j.id = :id and j.status = :status and j.nextAttemptAt = :nextAttemptAt")
+    int claim(@Param("id") UUID id,
+              @Param("status") TenantOnboardingJob.Status status,
+              @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+              @Param("claimUntil") LocalDateTime claimUntil,
+              @Param("now") LocalDateTime now);
+    
+    /**
+     * Record the outcome of the given attempt, only if it still holds the claim. Joins the
+     * caller's transaction, so a lost claim can roll back the attempt's work with it.
+     */
+    @Modifying
+    @Transactional
+    @Query("update TenantOnboardingJob j set j.status = :status, j.message = :message, " +
+           "j.tenantGeneratedId = :tenantGeneratedId, j.adminGeneratedId = :adminGeneratedId, " +
+           "j.adminPasswordHash = null, j.finishedAt = :now, j.updatedAt = :now " +
+           "where j.id = :id and j.attempts = :attempt " +
+           "and j.status = com.vm2124.userService.model.TenantOnboardingJob.Status.RUNNING")
+    int finish(@Param("id") UUID id,
+               @Param("attempt") int attempt,
+               @Param("status") TenantOnboardingJob.Status status,
+               @Param("message") String message,
+               @Param("tenantGeneratedId") String tenantGeneratedId,
+               @Param("adminGeneratedId") String adminGeneratedId,
+               @Param("now") LocalDateTime now);
+    
+    /**
+     * Put a failed attempt back in the queue, due at {@code retryAt}.
+     */
+    @Modifying
+    @Transactional
+    @Query("update TenantOnboardingJob j set j.status = com.vm2124.userService.model.TenantOnboardingJob.Status.QUEUED, " +
+           "j.message = :message, j.nextAttemptAt = :retryAt, j.updatedAt = :now " +
+           "where j.id = :id and j.attempts = :attempt " +
+           "and j.status = com.vm2124.userService.model.TenantOnboardingJob.Status.RUNNING")
+    int requeue(@Param("id") UUID id,
+                @Param("attempt") int attempt,
+                @Param("message") String message,
+                @Param("retryAt") LocalDateTime retryAt,
+                @Param("now") LocalDateTime now);
+}
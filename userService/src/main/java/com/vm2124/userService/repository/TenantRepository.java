@@ -2,9 +2,15 @@ package com.vm2124.userService.repository;
 
 import com.vm2124.userService.model.Tenant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -12,6 +18,8 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     
     Optional<Tenant> findByGeneratedId(String generatedId);
     
+    List<Tenant> findByGeneratedIdIn(Collection<String> generatedIds);
+    
     Optional<Tenant> findByTenantCode(String tenantCode);
     
     Optional<Tenant> findByDomain(String domain);
@@ -22,5 +30,14 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     
     boolean existsByDomain(String domain);
     
+    @Query("select t.tenantCode from Tenant t where t.tenantCode in :tenantCodes")
+    Set<String> findTenantCodesIn(@Param("tenantCodes") Collection<String> tenantCodes);
+    
+    @Query("select t.domain from Tenant t where t.domain in :domains")
+    Set<String> findDomainsIn(@Param("domains") Collection<String> domains);
+    
     Optional<Tenant> findByCustomDomain(String customDomain);
+    
+    @Query("select max(t.updatedAt) from Tenant t where t.updatedAt > t.createdAt")
+    LocalDateTime findLatestUpdatedAt();
 }
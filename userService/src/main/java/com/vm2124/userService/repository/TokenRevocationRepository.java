@@ -0,0 +1,21 @@
+package com.vm2124.userService.repository;
+
+import com.vm2124.userService.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    
+    List<TokenRevocation> findByRevisionGreaterThanAndExpiresAtAfterOrderByRevision(Long revision, Instant now);
+    
+    boolean existsByRevocationTypeAndSubject(TokenRevocation.RevocationType revocationType, String subject);
+    
+    boolean existsByRevocationTypeAndSubjectAndIssuedBeforeAfter(TokenRevocation.RevocationType revocationType,
+                                                                 String subject, Instant issuedAt);
+    
+    long deleteByExpiresAtBefore(Instant now);
+}
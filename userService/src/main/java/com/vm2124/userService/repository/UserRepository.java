@@ -2,8 +2,13 @@ package com.vm2124.userService.repository;
 
 import com.vm2124.userService.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,4 +37,16 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByUsernameAndTenantId(String username, String tenantId);
     
     boolean existsByEmailAndTenantId(String email, String tenantId);
+
+    @Query("select u from User u where u.failedLoginAttempts > 0 or u.accountLockedUntil > :now")
+    List<User> findWithFailedLoginsOrLockedAfter(@Param("now") LocalDateTime now);
+
+    /**
+     * Replace a password hash with an equivalent one, only if it has not changed since it
+     * was read; a password change in between wins.
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int replacePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -2,8 +2,11 @@ package com.vm2124.userService.repository;
 
 import com.vm2124.userService.model.UserTenantRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +18,8 @@ public interface UserTenantRoleRepository extends JpaRepository<UserTenantRole,
     
     List<UserTenantRole> findByUserId(String userId);
     
+    List<UserTenantRole> findByUserIdIn(Collection<String> userIds);
+    
     List<UserTenantRole> findByTenantId(String tenantId);
     
     List<UserTenantRole> findByUserIdAndTenantId(String userId, String tenantId);
@@ -27,5 +32,6 @@ public interface UserTenantRoleRepository extends JpaRepository<UserTenantRole,
     
     boolean existsByGeneratedId(String generatedId);
     
-    List<UserTenantRole> findByUserId(UUID userId);
+    @Query("select max(u.updatedAt) from UserTenantRole u where u.updatedAt > u.createdAt")
+    LocalDateTime findLatestUpdatedAt();
 }
@@ -1,27 +1,64 @@
 package com.vm2124.userService.service;
 
+import com.vm2124.userService.dto.TokenClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
+    // Context-in-token claims, present only when jwt.context-in-token.enabled is set
+    public static final String CONTEXT_ENVELOPE_CLAIM = "uctx";
+    public static final String TENANT_STATUS_CLAIM = "tst";
+    public static final String PERMISSION_EPOCH_CLAIM = "pep";
+
     @Value("${jwt.secret:defaultSecretKeyForDevelopmentOnly}")
     private String secret;
 
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Built once: the key and parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Verify the token's signature and expiry once and return its typed claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public TokenClaims verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new TokenClaims(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get("tenantId", String.class),
+                rolesOf(claims),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()));
     }
 
     public String extractUserId(String token) {
@@ -33,10 +70,7 @@ public class JwtService {
     }
 
     public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
-        @SuppressWarnings("unchecked")
-        List<String> roles = claims.get("roles", List.class);
-        return roles != null ? roles : List.of("USER");
+        return rolesOf(extractAllClaims(token));
     }
 
     public Date extractExpiration(String token) {
@@ -44,11 +78,7 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     public Boolean validateToken(String token) {
@@ -63,17 +93,44 @@ public class JwtService {
         return extractExpiration(token).before(new Date());
     }
 
+    private List<String> rolesOf(Claims claims) {
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+        return roles != null ? List.copyOf(roles) : List.of("USER");
+    }
+
+    private Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
     public String generateToken(String userId, String tenantId, List<String> roles) {
-        return createToken(java.util.Map.of("roles", roles, "tenantId", tenantId), userId);
+        return generateToken(userId, tenantId, roles, Map.of(), Instant.now());
+    }
+
+    /**
+     * Generate a token issued at the given instant with additional claims, such as the
+     * context-in-token claims. Its expiry is {@link #expiryFor(Instant)}.
+     */
+    public String generateToken(String userId, String tenantId, List<String> roles,
+                                Map<String, Object> extraClaims, Instant issuedAt) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put("roles", roles);
+        claims.put("tenantId", tenantId);
+        return createToken(claims, userId, issuedAt);
+    }
+
+    public Instant expiryFor(Instant issuedAt) {
+        return issuedAt.plusMillis(expiration);
     }
 
-    private String createToken(java.util.Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, Instant issuedAt) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(expiryFor(issuedAt)))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 }
@@ -0,0 +1,137 @@
+package com.vm2124.userService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for login-time bookkeeping, so a successful login does not have to
+ * write the user row before it can answer. The buffer keeps the latest login per user
+ * and a scheduled flush writes them with one {@code UPDATE ... FROM (VALUES ...)} statement
+ * per 1000 users; whatever is still pending is flushed when the application shuts down.
+ *
+ * <p>The buffer is bounded: once it holds {@code max-size} users, logins by users not
+ * already in it are counted as overflow and not recorded. A statement that fails keeps its
+ * entries for the next run; the others are written and dropped from the buffer. Last-login times read back through the repositories can therefore lag
+ * by up to one flush interval.
+ */
+@Service
+@Slf4j
+public class LoginActivityBuffer implements DisposableBean {
+
+    // Two bind parameters per row keeps a statement well under PostgreSQL's limit of 65535
+    private static final int ROWS_PER_STATEMENT = 1000;
+    // Only moves last_login_at forward, so a late or repeated flush never rewinds it
+    private static final String UPDATE_PREFIX =
+            "UPDATE users AS u SET last_login_at = v.last_login_at FROM (VALUES ";
+    private static final String UPDATE_ROW = "(CAST(? AS uuid), CAST(? AS timestamp))";
+    private static final String UPDATE_SUFFIX =
+            ") AS v(id, last_login_at) WHERE u.id = v.id"
+            + " AND (u.last_login_at IS NULL OR u.last_login_at < v.last_login_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxSize;
+    private final ConcurrentHashMap<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final Counter overflow;
+    private final Counter flushed;
+    private final Counter flushFailures;
+
+    public LoginActivityBuffer(JdbcTemplate jdbcTemplate,
+                               @Value("${login-activity.buffer.max-size:10000}") int maxSize,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxSize = maxSize;
+        Gauge.builder("login.activity.buffer.pending", pending, Map::size)
+                .description("Users whose last login is waiting to be written")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("login.activity.buffer.overflow")
+                .description("Logins not recorded because the buffer was full")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("login.activity.buffer.flushed")
+                .description("Last-login updates written to the database")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("login.activity.buffer.flush.failures")
+                .description("Flush statements that failed and were left for the next run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a successful login. Repeated logins by the same user before the next flush
+     * collapse into one update with the latest time.
+     */
+    public void recordLogin(UUID userId, LocalDateTime loggedInAt) {
+        // The size check is approximate under concurrency, which is fine for a soft bound
+        if (!pending.containsKey(userId) && pending.size() >= maxSize) {
+            overflow.increment();
+            log.debug("Login activity buffer full, dropping last login for user {}", userId);
+            return;
+        }
+        pending.merge(userId, loggedInAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${login-activity.buffer.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, LocalDateTime>> batch = new ArrayList<>(pending.size());
+        pending.forEach((userId, loggedInAt) -> batch.add(Map.entry(userId, loggedInAt)));
+
+        int written = 0;
+        for (int from = 0; from < batch.size(); from += ROWS_PER_STATEMENT) {
+            List<Map.Entry<UUID, LocalDateTime>> chunk =
+                    batch.subList(from, Math.min(batch.size(), from + ROWS_PER_STATEMENT));
+            try {
+                write(chunk);
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                log.warn("Failed to flush {} buffered last-login updates, will retry: {}", chunk.size(), e.getMessage());
+                continue;
+            }
+            // Keep entries that a newer login replaced while the statement was running
+            chunk.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+            flushed.increment(chunk.size());
+            written += chunk.size();
+        }
+        log.debug("Flushed {} of {} buffered last-login updates", written, batch.size());
+    }
+
+    private void write(List<Map.Entry<UUID, LocalDateTime>> chunk) {
+        Object[] args = new Object[chunk.size() * 2];
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(UPDATE_ROW);
+            args[2 * i] = chunk.get(i).getKey();
+            args[2 * i + 1] = chunk.get(i).getValue();
+        }
+        jdbcTemplate.update(sql.append(UPDATE_SUFFIX).toString(), args);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Shutting down with {} last-login updates not written", pending.size());
+        }
+    }
+}
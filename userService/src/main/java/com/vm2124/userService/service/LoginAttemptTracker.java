@@ -0,0 +1,244 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.model.User;
+import com.vm2124.userService.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory failed-login counts and lockouts per email, checked before the user lookup and
+ * the BCrypt comparison so a locked account costs a map read per attempt. Each email's state
+ * is an immutable {@link Attempts} updated by compare-and-set, so concurrent attempts on one
+ * account never block each other or attempts on other accounts.
+ *
+ * <p>Changed state is written to {@code users.failed_login_attempts} and
+ * {@code users.account_locked_until} in batches on a fixed delay and at shutdown, and read
+ * back on startup. Each instance counts its own attempts; the persisted lock is also
+ * honoured through the user row, so a lock set by another instance still applies.
+ */
+@Service
+@Slf4j
+public class LoginAttemptTracker implements DisposableBean {
+
+    private static final int ROWS_PER_STATEMENT = 1000;
+    private static final String UPDATE_PREFIX =
+            "UPDATE users AS u SET failed_login_attempts = v.failures, account_locked_until = v.locked_until FROM (VALUES ";
+    private static final String UPDATE_ROW = "(CAST(? AS uuid), CAST(? AS integer), CAST(? AS timestamp))";
+    private static final String UPDATE_SUFFIX = ") AS v(id, failures, locked_until) WHERE u.id = v.id";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxFailures;
+    private final Duration lockDuration;
+    private final Map<String, AtomicReference<Attempts>> byEmail = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Counter rejectedLocked;
+    private final Counter lockouts;
+
+    public LoginAttemptTracker(UserRepository userRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${login-attempts.max-failures:5}") int maxFailures,
+                               @Value("${login-attempts.lock-duration:15m}") Duration lockDuration,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxFailures = maxFailures;
+        this.lockDuration = lockDuration;
+        Gauge.builder("login.attempts.tracked", byEmail, Map::size)
+                .description("Accounts with failed logins or a lockout held in memory")
+                .register(meterRegistry);
+        this.rejectedLocked = Counter.builder("login.attempts.rejected.locked")
+                .description("Logins rejected without hashing because the account was locked")
+                .register(meterRegistry);
+        this.lockouts = Counter.builder("login.attempts.lockouts")
+                .description("Accounts locked after too many failed logins")
+                .register(meterRegistry);
+    }
+
+    public boolean isLocked(String email) {
+        return isLocked(email, LocalDateTime.now());
+    }
+
+    boolean isLocked(String email, LocalDateTime now) {
+        AtomicReference<Attempts> state = email != null ? byEmail.get(email) : null;
+        boolean locked = state != null && state.get().lockedAt(now);
+        if (locked) {
+            rejectedLocked.increment();
+        }
+        return locked;
+    }
+
+    /**
+     * Whether the persisted lock on a just-loaded user is still in force; covers locks set by
+     * other instances since this one started.
+     */
+    public boolean isLocked(User user) {
+        LocalDateTime lockedUntil = user.getAccountLockedUntil();
+        boolean locked = lockedUntil != null && LocalDateTime.now().isBefore(lockedUntil);
+        if (locked) {
+            rejectedLocked.increment();
+        }
+        return locked;
+    }
+
+    /**
+     * Count a wrong password. Failures left over from an expired lock start again from zero.
+     *
+     * @return true if this failure locked the account
+     */
+    public boolean recordFailure(String email, UUID userId) {
+        return recordFailure(email, userId, LocalDateTime.now());
+    }
+
+    boolean recordFailure(String email, UUID userId, LocalDateTime now) {
+        AtomicReference<Attempts> state = byEmail.computeIfAbsent(email,
+                e -> new AtomicReference<>(new Attempts(userId, 0, null)));
+        Attempts previous;
+        Attempts next;
+        do {
+            previous = state.get();
+            int failures = previous.expiredAt(now) ? 1 : previous.failures() + 1;
+            LocalDateTime lockedUntil = failures >= maxFailures ? now.plus(lockDuration) : null;
+            next = new Attempts(userId, lockedUntil != null ? 0 : failures, lockedUntil);
+        } while (!state.compareAndSet(previous, next));
+        dirty.add(email);
+
+        boolean locked = next.lockedUntil() != null;
+        if (locked) {
+            lockouts.increment();
+            log.warn("Locking account {} until {} after {} failed logins", email, next.lockedUntil(), maxFailures);
+        }
+        return locked;
+    }
+
+    /**
+     * Clear failures after a successful login. Accounts with no recorded failures are not
+     * touched, so the common case is a single map lookup.
+     */
+    public void recordSuccess(String email) {
+        AtomicReference<Attempts> state = byEmail.get(email);
+        if (state == null) {
+            return;
+        }
+        Attempts previous = state.get();
+        if (previous.failures() == 0 && previous.lockedUntil() == null) {
+            return;
+        }
+        if (state.compareAndSet(previous, new Attempts(previous.userId(), 0, null))) {
+            dirty.add(email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = userRepository.findWithFailedLoginsOrLockedAfter(now);
+        for (User user : users) {
+            Attempts attempts = new Attempts(user.getId(),
+                    user.getFailedLoginAttempts() != null ? user.getFailedLoginAttempts() : 0,
+                    user.getAccountLockedUntil() != null && user.getAccountLockedUntil().isAfter(now)
+                            ? user.getAccountLockedUntil() : null);
+            byEmail.putIfAbsent(user.getEmail(), new AtomicReference<>(attempts));
+        }
+        log.info("Restored failed-login state for {} accounts", users.size());
+    }
+
+    @Scheduled(fixedDelayString = "${login-attempts.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> emails = new ArrayList<>(dirty);
+        // Clear the marks before reading state: a change made after this point marks again
+        emails.forEach(dirty::remove);
+        for (int from = 0; from < emails.size(); from += ROWS_PER_STATEMENT) {
+            List<String> chunk = emails.subList(from, Math.min(emails.size(), from + ROWS_PER_STATEMENT));
+            try {
+                write(chunk);
+            } catch (RuntimeException e) {
+                dirty.addAll(chunk);
+                log.warn("Failed to persist failed-login state for {} accounts, will retry: {}", chunk.size(), e.getMessage());
+            }
+        }
+        prune(LocalDateTime.now());
+    }
+
+    private void write(List<String> emails) {
+        List<Object> args = new ArrayList<>(emails.size() * 3);
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        for (String email : emails) {
+            AtomicReference<Attempts> state = byEmail.get(email);
+            if (state == null) {
+                continue;
+            }
+            Attempts attempts = state.get();
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(UPDATE_ROW);
+            args.add(attempts.userId());
+            args.add(attempts.failures());
+            args.add(attempts.lockedUntil());
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.update(sql.append(UPDATE_SUFFIX).toString(), args.toArray());
+        }
+    }
+
+    /**
+     * Forget accounts that are back to a clean state and already persisted. A failure racing
+     * the removal can be lost, which at worst gives that account one extra attempt.
+     */
+    private void prune(LocalDateTime now) {
+        byEmail.forEach((email, state) -> {
+            Attempts attempts = state.get();
+            boolean clean = attempts.failures() == 0 && !attempts.lockedAt(now);
+            if (clean && !dirty.contains(email)) {
+                byEmail.remove(email, state);
+            }
+        });
+    }
+
+    int trackedCount() {
+        return byEmail.size();
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * @param lockedUntil null when the account is not locked; failures restart at zero once
+     *                    a lock is set
+     */
+    record Attempts(UUID userId, int failures, LocalDateTime lockedUntil) {
+
+        boolean lockedAt(LocalDateTime now) {
+            return lockedUntil != null && now.isBefore(lockedUntil);
+        }
+
+        boolean expiredAt(LocalDateTime now) {
+            return lockedUntil != null && !now.isBefore(lockedUntil);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.vm2124.userService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated, bounded pool instead of the request
+ * thread that asked for it. At most {@code threads} hashes run at once and at most
+ * {@code queue-capacity} wait; anything beyond that is rejected straight away with
+ * {@link SaturatedException} rather than tying up more request threads behind the pool.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService implements DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${password.bcrypt.strength:10}") int strength,
+                                  @Value("${password.hashing.threads:0}") int threads,
+                                  @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Hash and verify requests rejected because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws SaturatedException if the pool and its queue are full
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * @throws SaturatedException if the pool and its queue are full
+     */
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Whether {@code encodedPassword} is a BCrypt hash made with a cost other than the
+     * configured {@code password.bcrypt.strength}. Hashes in any other format are left alone.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * Re-hash a just-verified password at the configured cost in the background and hand the
+     * new hash to {@code store}. Skipped, not queued, when the pool is saturated: the next
+     * login tries again.
+     */
+    public void rehashInBackground(CharSequence rawPassword, Consumer<String> store) {
+        try {
+            submit(() -> passwordEncoder.encode(rawPassword))
+                    .thenAccept(store)
+                    .exceptionally(e -> {
+                        log.warn("Failed to upgrade password hash: {}", e.getMessage());
+                        return null;
+                    });
+        } catch (SaturatedException e) {
+            log.debug("Password hashing pool saturated, skipping hash upgrade");
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new SaturatedException();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // Let queued work finish: request threads may be waiting on it
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Password hashing pool did not drain within 10s of shutdown");
+        }
+    }
+
+    /**
+     * Thrown when the hashing pool cannot take more work; callers should answer with
+     * 503 Service Unavailable.
+     */
+    public static class SaturatedException extends RuntimeException {
+        public SaturatedException() {
+            super("Password hashing is at capacity, try again shortly");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.repository.PermissionsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Ordered catalog of known permission codes, loaded once at startup: the codes in
+ * data/permissions.json in file order, then any other codes in the permissions table in
+ * alphabetical order. A code's position is its dense ordinal, which {@link PermissionSet}
+ * bitsets use instead of the code itself.
+ *
+ * <p>Only the seed codes are versioned with the release; the permissions table can gain rows
+ * while replicas are running, so replicas started at different times can hold different
+ * table codes. Compact encodings shared between instances (such as the user context
+ * envelope) therefore use ordinals below {@link #versionedSize()} only, and carry other codes
+ * by name. The fingerprint covers the versioned codes, so encoder and decoder can detect a
+ * different release's catalog.
+ */
+@Service
+@Slf4j
+public class PermissionCatalog {
+
+    private final List<String> codes;
+    private final Map<String, Integer> ordinals;
+    private final int versionedSize;
+    private final int fingerprint;
+
+    @Autowired
+    public PermissionCatalog(SeedDataCatalog seedDataCatalog, PermissionsRepository permissionsRepository) {
+        this(List.copyOf(seedDataCatalog.permissions().keySet()), permissionsRepository.findAllPermissionCodes());
+    }
+
+    public PermissionCatalog(List<String> codes) {
+        this(codes, List.of());
+    }
+
+    /**
+     * @param versioned  codes every instance of this release has, in a fixed order
+     * @param additional codes this instance also knows, e.g. from the database; appended in
+     *                   alphabetical order, skipping versioned codes
+     */
+    public PermissionCatalog(List<String> versioned, Collection<String> additional) {
+        List<String> all = new ArrayList<>(versioned);
+        Set<String> seen = new HashSet<>(versioned);
+        additional.stream().filter(seen::add).sorted().forEach(all::add);
+        this.codes = List.copyOf(all);
+        this.versionedSize = versioned.size();
+        Map<String, Integer> ordinalsByCode = new HashMap<>();
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < this.codes.size(); i++) {
+            ordinalsByCode.put(this.codes.get(i), i);
+            if (i < versionedSize) {
+                crc.update(this.codes.get(i).getBytes(StandardCharsets.UTF_8));
+                crc.update('\n');
+            }
+        }
+        this.ordinals = Map.copyOf(ordinalsByCode);
+        this.fingerprint = (int) crc.getValue();
+        log.info("Loaded permission catalog with {} codes, {} versioned (fingerprint {})",
+                this.codes.size(), versionedSize, Integer.toHexString(fingerprint));
+    }
+
+    /**
+     * @return the ordinal of the code, or -1 if it is not in the catalog
+     */
+    public int ordinalOf(String code) {
+        Integer ordinal = ordinals.get(code);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public String codeAt(int ordinal) {
+        return codes.get(ordinal);
+    }
+
+    /**
+     * Bitset of the given codes. Codes missing from the catalog are left out; callers that
+     * must keep them hold them separately.
+     */
+    public PermissionSet setOf(Collection<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return PermissionSet.EMPTY;
+        }
+        int[] known = new int[codes.size()];
+        int count = 0;
+        for (String code : codes) {
+            int ordinal = ordinalOf(code);
+            if (ordinal >= 0) {
+                known[count++] = ordinal;
+            }
+        }
+        return PermissionSet.of(Arrays.copyOf(known, count));
+    }
+
+    public List<String> codesOf(PermissionSet permissions) {
+        List<String> result = new ArrayList<>(permissions.size());
+        for (int ordinal = permissions.nextOrdinal(0); ordinal >= 0; ordinal = permissions.nextOrdinal(ordinal + 1)) {
+            result.add(codeAt(ordinal));
+        }
+        return result;
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    /**
+     * Number of leading ordinals that are the same on every instance of this release.
+     */
+    public int versionedSize() {
+        return versionedSize;
+    }
+
+    public int fingerprint() {
+        return fingerprint;
+    }
+}
@@ -0,0 +1,42 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.repository.RolesRepository;
+import com.vm2124.userService.repository.TenantRepository;
+import com.vm2124.userService.repository.UserTenantRoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * The permission epoch is the latest update time, in epoch milliseconds, across roles,
+ * role assignments and tenants. Tokens minted in context-in-token mode carry the epoch
+ * seen at login; once any of those rows changes the current epoch moves past it and the
+ * API Gateway stops trusting the context embedded in older tokens.
+ *
+ * <p>Rows that were only ever inserted, whose update time still equals their creation time,
+ * are left out: a new tenant or a new role assignment cannot change what an existing token
+ * grants, so onboarding does not make every tenant's tokens stale.
+ */
+@Service
+@RequiredArgsConstructor
+public class PermissionEpochService {
+
+    private final RolesRepository rolesRepository;
+    private final UserTenantRoleRepository userTenantRoleRepository;
+    private final TenantRepository tenantRepository;
+
+    public long currentEpoch() {
+        return Stream.of(
+                        rolesRepository.findLatestUpdatedAt(),
+                        userTenantRoleRepository.findLatestUpdatedAt(),
+                        tenantRepository.findLatestUpdatedAt())
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .map(latest -> latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(0L);
+    }
+}
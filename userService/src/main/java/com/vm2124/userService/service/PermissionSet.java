@@ -0,0 +1,154 @@
+package com.vm2124.userService.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of permission ordinals from {@link PermissionCatalog}, stored as a
+ * {@code long[]} bitset (bit n of word n / 64 is ordinal n). Membership and overlap checks
+ * are a shift and an AND per word, and the whole catalog currently fits in one word.
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    public static PermissionSet of(int... ordinals) {
+        long[] words = new long[0];
+        for (int ordinal : ordinals) {
+            if (ordinal < 0) {
+                throw new IllegalArgumentException("Negative permission ordinal: " + ordinal);
+            }
+            int word = ordinal >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, word + 1);
+            }
+            words[word] |= 1L << ordinal;
+        }
+        return words.length == 0 ? EMPTY : new PermissionSet(words);
+    }
+
+    /**
+     * Read a little-endian bitmap: bit n of byte n / 8 is ordinal n. This is the layout the
+     * user context envelope uses on the wire.
+     */
+    public static PermissionSet fromBytes(byte[] bytes) {
+        long[] words = new long[(bytes.length + 7) / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) * 8);
+        }
+        return new PermissionSet(words);
+    }
+
+    /**
+     * Write the set as a little-endian bitmap of exactly {@code length} bytes.
+     *
+     * @throws IllegalArgumentException if an ordinal does not fit in {@code length} bytes
+     */
+    public byte[] toBytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int ordinal = nextOrdinal(0); ordinal >= 0; ordinal = nextOrdinal(ordinal + 1)) {
+            if (ordinal >= length * 8) {
+                throw new IllegalArgumentException("Permission ordinal " + ordinal + " does not fit in " + length + " bytes");
+            }
+            bytes[ordinal >>> 3] |= (byte) (1 << (ordinal & 7));
+        }
+        return bytes;
+    }
+
+    public boolean contains(int ordinal) {
+        int word = ordinal >>> 6;
+        return ordinal >= 0 && word < words.length && (words[word] & (1L << ordinal)) != 0;
+    }
+
+    public boolean containsAny(PermissionSet other) {
+        int shared = Math.min(words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean containsAll(PermissionSet other) {
+        for (int i = 0; i < other.words.length; i++) {
+            long granted = i < words.length ? words[i] : 0;
+            if ((granted & other.words[i]) != other.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public PermissionSet union(PermissionSet other) {
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] union = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            union[i] |= shorter[i];
+        }
+        return new PermissionSet(union);
+    }
+
+    /**
+     * @return the smallest ordinal in the set that is {@code >= from}, or -1 if there is none
+     */
+    public int nextOrdinal(int from) {
+        int word = from >>> 6;
+        if (from < 0 || word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermissionSet other)) {
+            return false;
+        }
+        return containsAll(other) && other.containsAll(this);
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+}
@@ -0,0 +1,200 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.model.RoleChangedEvent;
+import com.vm2124.userService.model.Roles;
+import com.vm2124.userService.repository.RolesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, versioned snapshot of all active roles and their permission codes, indexed by
+ * generated ID and by (roleCode, tenantId). Readers take the current snapshot with a single
+ * volatile read and never block; writers rebuild a complete new snapshot and swap it in.
+ *
+ * <p>A rebuild runs at startup, after any transaction that saved or deleted a role through
+ * {@link RolesRepository} commits, and whenever the periodic check sees a newer
+ * {@code roles.updated_at} (which covers changes made by other instances).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoleCatalog {
+
+    private final RolesRepository rolesRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The current snapshot, rebuilt first if roles have changed since it was built. For
+     * callers that must not see roles older than state they have already read, such as the
+     * permission epoch stamped into context-in-token logins.
+     */
+    public Snapshot freshSnapshot() {
+        refreshIfStale();
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${roles.catalog.refresh-interval-ms:30000}",
+               initialDelayString = "${roles.catalog.refresh-interval-ms:30000}")
+    public void refreshIfStale() {
+        LocalDateTime latest = rolesRepository.findLatestUpdatedAt();
+        Snapshot current = snapshot;
+        boolean stale = current == Snapshot.EMPTY
+                || (latest != null && (current.rolesUpdatedAt() == null || latest.isAfter(current.rolesUpdatedAt())));
+        if (stale) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuild once when the surrounding transaction commits, however many roles it touched,
+     * or straight away outside a transaction.
+     */
+    @EventListener
+    public void onRoleChanged(RoleChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RoleCatalog.this);
+                if (status == STATUS_COMMITTED) {
+                    rebuild();
+                }
+            }
+        });
+    }
+
+    public synchronized Snapshot rebuild() {
+        // Read the watermark before the rows: a change landing in between triggers another rebuild
+        LocalDateTime rolesUpdatedAt = rolesRepository.findLatestUpdatedAt();
+        List<Roles> roles = rolesRepository.findActiveWithPermissions();
+
+        Map<String, String> codes = new HashMap<>();
+        Map<Set<String>, Set<String>> permissionSets = new HashMap<>();
+        Map<String, CatalogRole> byGeneratedId = new HashMap<>(roles.size() * 2);
+        Map<RoleKey, CatalogRole> byCodeAndTenant = new HashMap<>(roles.size() * 2);
+        for (Roles role : roles) {
+            Set<String> permissions = intern(role.getPermissionCodes(), codes, permissionSets);
+            CatalogRole entry = CatalogRole.of(role, permissions);
+            byGeneratedId.put(entry.generatedId(), entry);
+            byCodeAndTenant.put(new RoleKey(entry.roleCode(), entry.tenantId()), entry);
+        }
+
+        Snapshot next = new Snapshot(snapshot.version() + 1, rolesUpdatedAt,
+                Map.copyOf(byGeneratedId), Map.copyOf(byCodeAndTenant));
+        snapshot = next;
+        log.info("Role catalog version {} built with {} active roles and {} distinct permission sets",
+                next.version(), byGeneratedId.size(), permissionSets.size());
+        return next;
+    }
+
+    private static Set<String> intern(Set<String> permissionCodes, Map<String, String> codes,
+                                      Map<Set<String>, Set<String>> permissionSets) {
+        if (permissionCodes == null || permissionCodes.isEmpty()) {
+            return Set.of();
+        }
+        List<String> interned = new ArrayList<>(permissionCodes.size());
+        for (String code : permissionCodes) {
+            interned.add(codes.computeIfAbsent(code, c -> c));
+        }
+        return permissionSets.computeIfAbsent(Set.copyOf(interned), set -> set);
+    }
+
+    public record Snapshot(long version,
+                           LocalDateTime rolesUpdatedAt,
+                           Map<String, CatalogRole> byGeneratedId,
+                           Map<RoleKey, CatalogRole> byCodeAndTenant) {
+
+        static final Snapshot EMPTY = new Snapshot(0, null, Map.of(), Map.of());
+
+        public CatalogRole byGeneratedId(String generatedId) {
+            return generatedId != null ? byGeneratedId.get(generatedId) : null;
+        }
+
+        /**
+         * @param tenantId the owning tenant's generated ID, or null for system-wide roles
+         */
+        public CatalogRole byCode(String roleCode, String tenantId) {
+            return byCodeAndTenant.get(new RoleKey(roleCode, tenantId));
+        }
+
+        /**
+         * Active roles for the given generated IDs, in order; unknown or inactive IDs are skipped.
+         */
+        public List<CatalogRole> resolve(Collection<String> generatedIds) {
+            List<CatalogRole> roles = new ArrayList<>(generatedIds.size());
+            for (String generatedId : generatedIds) {
+                CatalogRole role = byGeneratedId(generatedId);
+                if (role != null) {
+                    roles.add(role);
+                }
+            }
+            return roles;
+        }
+    }
+
+    public record RoleKey(String roleCode, String tenantId) {
+    }
+
+    /**
+     * Read-only copy of a {@link Roles} row. {@code permissionCodes} is immutable and shared
+     * between roles granting the same permissions.
+     */
+    public record CatalogRole(String id,
+                              String generatedId,
+                              String tenantId,
+                              String roleCode,
+                              String roleName,
+                              String description,
+                              boolean systemRole,
+                              boolean defaultRole,
+                              Roles.RoleType roleType,
+                              int priority,
+                              Set<String> permissionCodes) {
+
+        static CatalogRole of(Roles role, Set<String> permissionCodes) {
+            return new CatalogRole(
+                    role.getId().toString(),
+                    role.getGeneratedId(),
+                    role.getTenantId(),
+                    role.getRoleCode(),
+                    role.getRoleName(),
+                    role.getDescription(),
+                    Boolean.TRUE.equals(role.getIsSystemRole()),
+                    Boolean.TRUE.equals(role.getIsDefault()),
+                    role.getRoleType(),
+                    role.getPriority() != null ? role.getPriority() : 0,
+                    permissionCodes);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.vm2124.userService.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.userService.dto.FeatureData;
+import com.vm2124.userService.dto.ModuleData;
+import com.vm2124.userService.dto.PermissionData;
+import com.vm2124.userService.dto.RoleData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The seed modules, permissions, roles and features from the classpath {@code data/*.json}
+ * files, parsed once at startup into unmodifiable maps keyed by code, in file order. The
+ * checksum is a SHA-256 over the raw bytes of all four files, so two instances report the
+ * same value exactly when they ship the same seed data.
+ *
+ * <p>The entries are shared between callers and must not be modified.
+ */
+@Service
+@Slf4j
+public class SeedDataCatalog {
+
+    private final Map<String, ModuleData> modules;
+    private final Map<String, PermissionData> permissions;
+    private final Map<String, RoleData> roles;
+    private final Map<String, FeatureData> features;
+    private final String checksum;
+
+    public SeedDataCatalog(ObjectMapper objectMapper) {
+        MessageDigest digest = sha256();
+        this.modules = load(objectMapper, digest, "data/modules.json",
+                new TypeReference<List<ModuleData>>() {}, ModuleData::getCode);
+        this.permissions = load(objectMapper, digest, "data/permissions.json",
+                new TypeReference<List<PermissionData>>() {}, PermissionData::getCode);
+        this.roles = load(objectMapper, digest, "data/roles.json",
+                new TypeReference<List<RoleData>>() {}, RoleData::getCode);
+        this.features = load(objectMapper, digest, "data/features.json",
+                new TypeReference<List<FeatureData>>() {}, FeatureData::getCode);
+        this.checksum = HexFormat.of().formatHex(digest.digest());
+        log.info("Loaded seed data: {} modules, {} permissions, {} roles, {} features (checksum {})",
+                modules.size(), permissions.size(), roles.size(), features.size(), checksum);
+    }
+
+    public Map<String, ModuleData> modules() {
+        return modules;
+    }
+
+    public Map<String, PermissionData> permissions() {
+        return permissions;
+    }
+
+    public Map<String, RoleData> roles() {
+        return roles;
+    }
+
+    public Map<String, FeatureData> features() {
+        return features;
+    }
+
+    public String checksum() {
+        return checksum;
+    }
+
+    private static <T> Map<String, T> load(ObjectMapper objectMapper, MessageDigest digest, String resourcePath,
+                                           TypeReference<List<T>> typeReference, Function<T, String> code) {
+        byte[] content;
+        try (InputStream inputStream = new ClassPathResource(resourcePath).getInputStream()) {
+            content = inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read seed data from " + resourcePath, e);
+        }
+        digest.update(content);
+
+        List<T> entries;
+        try {
+            // Strict: a misspelt or unmapped field in seed data fails startup instead of being dropped
+            entries = objectMapper.readerFor(typeReference)
+                    .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(content);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse seed data from " + resourcePath, e);
+        }
+        Map<String, T> byCode = new LinkedHashMap<>();
+        for (T entry : entries) {
+            if (byCode.putIfAbsent(code.apply(entry), entry) != null) {
+                throw new IllegalStateException("Duplicate code " + code.apply(entry) + " in " + resourcePath);
+            }
+        }
+        return Collections.unmodifiableMap(byCode);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
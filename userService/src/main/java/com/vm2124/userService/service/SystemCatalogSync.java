@@ -0,0 +1,276 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.CatalogDiff;
+import com.vm2124.userService.dto.FeatureData;
+import com.vm2124.userService.dto.ModuleData;
+import com.vm2124.userService.dto.RoleData;
+import com.vm2124.userService.model.RoleChangedEvent;
+import com.vm2124.userService.model.TenantFeature;
+import com.vm2124.userService.model.UuidV7Generator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Brings the system-wide roles and features (the rows with {@code tenant_id} null) in line
+ * with the {@link SeedDataCatalog}. Each table is read once and diffed in memory; only rows
+ * that differ are written, all through one batched {@code INSERT ... ON CONFLICT} per table,
+ * so running it against an up-to-date database writes nothing.
+ *
+ * <p>Without {@code sync} only missing rows are inserted. With it, rows that differ from the
+ * seed data are updated, and rows whose code is no longer in the seed data at all are
+ * deactivated rather than deleted, so anything still referring to them resolves.
+ *
+ * <p>Modules and features seed the same {@code tenant_features} rows. Where a code is in
+ * both, the feature entry wins, so syncing one after the other never flips a row back.
+ */
+@Service
+@Slf4j
+public class SystemCatalogSync {
+
+    static final String SELECT_FEATURES =
+            "SELECT id, generated_id, feature_code, feature_name, description, is_enabled, feature_type, is_system_feature "
+                    + "FROM tenant_features WHERE tenant_id IS NULL";
+    static final String UPSERT_FEATURE =
+            "INSERT INTO tenant_features (id, generated_id, tenant_id, feature_code, feature_name, description, "
+                    + "is_enabled, feature_type, is_system_feature, created_at, updated_at) "
+                    + "VALUES (?, ?, NULL, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (tenant_id, feature_code) DO UPDATE SET feature_name = EXCLUDED.feature_name, "
+                    + "description = EXCLUDED.description, is_enabled = EXCLUDED.is_enabled, "
+                    + "feature_type = EXCLUDED.feature_type, is_system_feature = EXCLUDED.is_system_feature, "
+                    + "updated_at = EXCLUDED.updated_at";
+
+    // One row per role and permission; roles without permissions come back once with a null code
+    static final String SELECT_ROLES =
+            "SELECT r.id, r.generated_id, r.role_code, r.role_name, r.description, r.is_system_role, r.is_default, "
+                    + "r.is_active, r.role_type, r.priority, rp.permission_code "
+                    + "FROM roles r LEFT JOIN role_permissions rp ON rp.role_id = r.id WHERE r.tenant_id IS NULL";
+    static final String UPSERT_ROLE =
+            "INSERT INTO roles (id, generated_id, tenant_id, role_code, role_name, description, is_system_role, "
+                    + "is_default, is_active, role_type, priority, created_at, updated_at) "
+                    + "VALUES (?, ?, NULL, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (role_code, tenant_id) DO UPDATE SET role_name = EXCLUDED.role_name, "
+                    + "description = EXCLUDED.description, is_system_role = EXCLUDED.is_system_role, "
+                    + "is_default = EXCLUDED.is_default, is_active = EXCLUDED.is_active, "
+                    + "role_type = EXCLUDED.role_type, priority = EXCLUDED.priority, updated_at = EXCLUDED.updated_at";
+    // Keyed by role code, so they hit whichever row won if another instance inserted the role first
+    static final String INSERT_ROLE_PERMISSION =
+            "INSERT INTO role_permissions (role_id, permission_code) "
+                    + "SELECT id, ? FROM roles WHERE tenant_id IS NULL AND role_code = ? "
+                    + "ON CONFLICT (role_id, permission_code) DO NOTHING";
+    static final String DELETE_ROLE_PERMISSION =
+            "DELETE FROM role_permissions WHERE permission_code = ? "
+                    + "AND role_id = (SELECT id FROM roles WHERE tenant_id IS NULL AND role_code = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeedDataCatalog seedDataCatalog;
+    private final IdsGeneraterService idsGeneraterService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SystemCatalogSync(JdbcTemplate jdbcTemplate,
+                             SeedDataCatalog seedDataCatalog,
+                             IdsGeneraterService idsGeneraterService,
+                             ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seedDataCatalog = seedDataCatalog;
+        this.idsGeneraterService = idsGeneraterService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Sync the system features for the given module or feature codes. Codes in neither seed
+     * file are ignored.
+     */
+    public CatalogDiff syncFeatures(Collection<String> codes, boolean sync) {
+        Map<String, FeatureValues> wanted = new LinkedHashMap<>();
+        for (String code : codes) {
+            FeatureValues values = wantedFeature(code);
+            if (values != null) {
+                wanted.put(code, values);
+            }
+        }
+        Map<String, Row<FeatureValues>> existing = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_FEATURES, rs -> {
+            existing.put(rs.getString("feature_code"), new Row<>(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("generated_id"),
+                    rs.getString("feature_code"),
+                    new FeatureValues(rs.getString("feature_name"), rs.getString("description"),
+                            rs.getBoolean("is_enabled"), rs.getString("feature_type"),
+                            rs.getBoolean("is_system_feature"))));
+        });
+
+        Set<String> seedCodes = new HashSet<>(seedDataCatalog.modules().keySet());
+        seedCodes.addAll(seedDataCatalog.features().keySet());
+        CatalogDiff diff = new CatalogDiff();
+        List<Row<FeatureValues>> writes = plan(existing, wanted, seedCodes, sync,
+                FeatureValues::deactivated, idsGeneraterService::generateFeatureId, diff);
+
+        if (!writes.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> args = new ArrayList<>(writes.size());
+            for (Row<FeatureValues> row : writes) {
+                FeatureValues v = row.values();
+                args.add(new Object[]{row.id(), row.generatedId(), row.code(), v.name(), v.description(),
+                        v.enabled(), v.type(), v.systemFeature(), now, now});
+            }
+            jdbcTemplate.batchUpdate(UPSERT_FEATURE, args);
+        }
+        log.info("System features synced: {} inserted, {} updated, {} deactivated, {} unchanged",
+                diff.getInserted().size(), diff.getUpdated().size(), diff.getDeactivated().size(), diff.getUnchanged());
+        return diff;
+    }
+
+    /**
+     * Sync the system roles, and their permissions, for the given role codes. Codes not in the
+     * seed roles are ignored.
+     */
+    public CatalogDiff syncRoles(Collection<String> codes, boolean sync) {
+        Map<String, RoleValues> wanted = new LinkedHashMap<>();
+        for (String code : codes) {
+            RoleData role = seedDataCatalog.roles().get(code);
+            if (role != null) {
+                wanted.put(code, new RoleValues(role.getName(), role.getDescription(), role.isSystemRole(),
+                        role.isDefault(), true, role.getRoleType(), role.getPriority(),
+                        Set.copyOf(role.getPermissions())));
+            }
+        }
+        Map<String, Row<RoleValues>> existing = new LinkedHashMap<>();
+        Map<String, Set<String>> existingPermissions = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_ROLES, rs -> {
+            String code = rs.getString("role_code");
+            Set<String> permissions = existingPermissions.computeIfAbsent(code, c -> new HashSet<>());
+            if (rs.getString("permission_code") != null) {
+                permissions.add(rs.getString("permission_code"));
+            }
+            if (!existing.containsKey(code)) {
+                existing.put(code, new Row<>(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("generated_id"),
+                        code,
+                        new RoleValues(rs.getString("role_name"), rs.getString("description"),
+                                rs.getBoolean("is_system_role"), rs.getBoolean("is_default"),
+                                rs.getBoolean("is_active"), rs.getString("role_type"), rs.getInt("priority"),
+                                permissions)));
+            }
+        });
+
+        CatalogDiff diff = new CatalogDiff();
+        List<Row<RoleValues>> writes = plan(existing, wanted, seedDataCatalog.roles().keySet(), sync,
+                RoleValues::deactivated, idsGeneraterService::generateRoleId, diff);
+
+        if (!writes.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> roleArgs = new ArrayList<>(writes.size());
+            List<Object[]> grants = new ArrayList<>();
+            List<Object[]> revokes = new ArrayList<>();
+            for (Row<RoleValues> row : writes) {
+                RoleValues v = row.values();
+                roleArgs.add(new Object[]{row.id(), row.generatedId(), row.code(), v.name(), v.description(),
+                        v.systemRole(), v.isDefault(), v.active(), v.roleType(), v.priority(), now, now});
+                Set<String> current = existingPermissions.getOrDefault(row.code(), Set.of());
+                for (String permission : v.permissions()) {
+                    if (!current.contains(permission)) {
+                        grants.add(new Object[]{permission, row.code()});
+                    }
+                }
+                for (String permission : current) {
+                    if (!v.permissions().contains(permission)) {
+                        revokes.add(new Object[]{permission, row.code()});
+                    }
+                }
+            }
+            jdbcTemplate.batchUpdate(UPSERT_ROLE, roleArgs);
+            if (!grants.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ROLE_PERMISSION, grants);
+            }
+            if (!revokes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_ROLE_PERMISSION, revokes);
+            }
+            // The upserts bypass the repository, so tell the role catalog directly
+            writes.forEach(row -> eventPublisher.publishEvent(new RoleChangedEvent(row.generatedId())));
+        }
+        log.info("System roles synced: {} inserted, {} updated, {} deactivated, {} unchanged",
+                diff.getInserted().size(), diff.getUpdated().size(), diff.getDeactivated().size(), diff.getUnchanged());
+        return diff;
+    }
+
+    /**
+     * The rows to write to bring {@code existing} in line with {@code wanted}, recording each
+     * one in {@code diff}. New rows get a fresh ID; the database keeps the existing IDs of
+     * rows it updates.
+     */
+    static <V> List<Row<V>> plan(Map<String, Row<V>> existing, Map<String, V> wanted, Set<String> seedCodes,
+                                 boolean sync, UnaryOperator<V> deactivate, Supplier<String> newGeneratedId,
+                                 CatalogDiff diff) {
+        List<Row<V>> writes = new ArrayList<>();
+        wanted.forEach((code, values) -> {
+            Row<V> current = existing.get(code);
+            if (current == null) {
+                writes.add(new Row<>(UuidV7Generator.randomUuid(), newGeneratedId.get(), code, values));
+                diff.getInserted().add(code);
+            } else if (current.values().equals(values)) {
+                diff.setUnchanged(diff.getUnchanged() + 1);
+            } else if (sync) {
+                writes.add(new Row<>(current.id(), current.generatedId(), code, values));
+                diff.getUpdated().add(code);
+            }
+        });
+        if (sync) {
+            existing.forEach((code, current) -> {
+                V deactivated = deactivate.apply(current.values());
+                if (!seedCodes.contains(code) && !deactivated.equals(current.values())) {
+                    writes.add(new Row<>(current.id(), current.generatedId(), code, deactivated));
+                    diff.getDeactivated().add(code);
+                }
+            });
+        }
+        return writes;
+    }
+
+    private FeatureValues wantedFeature(String code) {
+        FeatureData feature = seedDataCatalog.features().get(code);
+        if (feature != null) {
+            return new FeatureValues(feature.getName(), feature.getDescription(), true, feature.getType(),
+                    feature.isSystemFeature());
+        }
+        ModuleData module = seedDataCatalog.modules().get(code);
+        if (module != null) {
+            return new FeatureValues(module.getName(), "System module: " + module.getDescription(), true,
+                    TenantFeature.FeatureType.BOOLEAN.name(), true);
+        }
+        return null;
+    }
+
+    record Row<V>(UUID id, String generatedId, String code, V values) {
+    }
+
+    record FeatureValues(String name, String description, boolean enabled, String type, boolean systemFeature) {
+
+        FeatureValues deactivated() {
+            return new FeatureValues(name, description, false, type, systemFeature);
+        }
+    }
+
+    record RoleValues(String name, String description, boolean systemRole, boolean isDefault, boolean active,
+                      String roleType, int priority, Set<String> permissions) {
+
+        RoleValues deactivated() {
+            return new RoleValues(name, description, systemRole, isDefault, false, roleType, priority, permissions);
+        }
+    }
+}
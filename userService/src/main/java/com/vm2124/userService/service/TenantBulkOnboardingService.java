@@ -0,0 +1,117 @@
+package com.vm2124.userService.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.userService.dto.TenantBulkOnboardingResult;
+import com.vm2124.userService.dto.TenantOnboardingRequest;
+import com.vm2124.userService.dto.TenantOnboardingResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams NDJSON tenant onboarding requests through {@link TenantService#onboardTenants} in
+ * chunks, writing one NDJSON result line per input line as each chunk completes. Only the
+ * current chunk is held in memory, whatever the size of the payload.
+ *
+ * <p>Each chunk commits on its own. If a chunk fails in the database, its tenants are
+ * retried one at a time so a single bad row only fails its own line.
+ */
+@Service
+@Slf4j
+public class TenantBulkOnboardingService {
+
+    private final TenantService tenantService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public TenantBulkOnboardingService(TenantService tenantService,
+                                       ObjectMapper objectMapper,
+                                       @Value("${tenant-onboarding.bulk.chunk-size:100}") int chunkSize) {
+        this.tenantService = tenantService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public void onboard(BufferedReader in, Writer out) throws IOException {
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        Summary summary = new Summary();
+        long lineNumber = 0;
+        String text;
+        while ((text = in.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(new Line(lineNumber, objectMapper.readValue(text, TenantOnboardingRequest.class)));
+            } catch (JsonProcessingException e) {
+                write(out, new TenantBulkOnboardingResult(lineNumber, false,
+                        "Malformed request: " + e.getOriginalMessage(), null, null, null), summary);
+            }
+            if (chunk.size() == chunkSize) {
+                process(chunk, out, summary);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            process(chunk, out, summary);
+        }
+        out.flush();
+        log.info("Bulk onboarding finished: {} tenants onboarded, {} failed", summary.onboarded, summary.failed);
+    }
+
+    private void process(List<Line> chunk, Writer out, Summary summary) throws IOException {
+        List<TenantOnboardingRequest> requests = chunk.stream().map(Line::request).toList();
+        List<TenantOnboardingResponse> responses;
+        try {
+            responses = tenantService.onboardTenants(requests);
+        } catch (RuntimeException e) {
+            log.warn("Bulk onboarding chunk of {} failed, retrying tenants one at a time: {}", chunk.size(), e.getMessage());
+            responses = requests.stream().map(this::onboardOne).toList();
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            TenantOnboardingResponse response = responses.get(i);
+            write(out, new TenantBulkOnboardingResult(chunk.get(i).number(), response.isSuccess(), response.getMessage(),
+                    chunk.get(i).request().getTenantCode(), response.getTenantGeneratedId(),
+                    response.getAdminGeneratedId()), summary);
+        }
+        // Push this chunk's results to the client before reading the next one
+        out.flush();
+    }
+
+    private TenantOnboardingResponse onboardOne(TenantOnboardingRequest request) {
+        try {
+            return tenantService.onboardTenant(request);
+        } catch (RuntimeException e) {
+            TenantOnboardingResponse response = new TenantOnboardingResponse();
+            response.setSuccess(false);
+            response.setMessage("Failed to onboard tenant: " + e.getMessage());
+            return response;
+        }
+    }
+
+    private void write(Writer out, TenantBulkOnboardingResult result, Summary summary) throws IOException {
+        out.write(objectMapper.writeValueAsString(result));
+        out.write('\n');
+        if (result.isSuccess()) {
+            summary.onboarded++;
+        } else {
+            summary.failed++;
+        }
+    }
+
+    private record Line(long number, TenantOnboardingRequest request) {
+    }
+
+    private static class Summary {
+        private long onboarded;
+        private long failed;
+    }
+}
@@ -0,0 +1,140 @@
+package com.vm2124.userService.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vm2124.userService.dto.UserInfoDto;
+import com.vm2124.userService.model.Tenant;
+import com.vm2124.userService.model.TenantChangedEvent;
+import com.vm2124.userService.model.TenantFeature;
+import com.vm2124.userService.repository.TenantFeatureRepository;
+import com.vm2124.userService.repository.TenantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of the assembled {@link UserInfoDto.TenantData} per tenant generated ID,
+ * so the validate path does not re-read the tenant and its features for every user.
+ * Entries expire after the configured TTL and are dropped as soon as a transaction that
+ * saved or deleted the tenant or one of its features commits.
+ *
+ * <p>Cached instances are shared between callers and their collections are unmodifiable.
+ */
+@Service
+@Slf4j
+public class TenantDataCache {
+
+    private final TenantRepository tenantRepository;
+    private final TenantFeatureRepository tenantFeatureRepository;
+    private final Cache<String, UserInfoDto.TenantData> cache;
+
+    public TenantDataCache(TenantRepository tenantRepository,
+                           TenantFeatureRepository tenantFeatureRepository,
+                           @Value("${tenant-cache.max-size:1000}") long maxSize,
+                           @Value("${tenant-cache.ttl:10m}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.tenantRepository = tenantRepository;
+        this.tenantFeatureRepository = tenantFeatureRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tenant.metadata");
+        Gauge.builder("tenant.metadata.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of tenant metadata lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the tenant's data, or null if there is no tenant with that generated ID
+     */
+    public UserInfoDto.TenantData get(String tenantId) {
+        if (tenantId == null) {
+            return null;
+        }
+        // Unknown tenants are not cached: the loader returns null and the next call retries
+        return cache.get(tenantId, this::load);
+    }
+
+    /**
+     * Bulk form of {@link #get}: tenants missing from the cache are loaded together with one
+     * query for the tenants and one for their features. Unknown tenants are absent from the map.
+     */
+    public Map<String, UserInfoDto.TenantData> getAll(Collection<String> tenantIds) {
+        List<String> known = tenantIds.stream().filter(Objects::nonNull).distinct().toList();
+        return known.isEmpty() ? Map.of() : cache.getAll(known, this::loadAll);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        if (event.tenantGeneratedId() != null) {
+            cache.invalidate(event.tenantGeneratedId());
+            log.debug("Evicted cached tenant data for {}", event.tenantGeneratedId());
+        }
+    }
+
+    private UserInfoDto.TenantData load(String tenantId) {
+        return tenantRepository.findByGeneratedId(tenantId)
+            .map(tenant -> assemble(tenant, tenantFeatureRepository.findByTenantId(tenant.getGeneratedId())))
+            .orElse(null);
+    }
+
+    private Map<String, UserInfoDto.TenantData> loadAll(Set<? extends String> tenantIds) {
+        List<Tenant> tenants = tenantRepository.findByGeneratedIdIn(List.copyOf(tenantIds));
+        if (tenants.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, List<TenantFeature>> featuresByTenant = tenantFeatureRepository
+            .findByTenantIdIn(tenants.stream().map(Tenant::getGeneratedId).toList()).stream()
+            .collect(Collectors.groupingBy(TenantFeature::getTenantId));
+
+        Map<String, UserInfoDto.TenantData> loaded = new HashMap<>();
+        for (Tenant tenant : tenants) {
+            loaded.put(tenant.getGeneratedId(),
+                assemble(tenant, featuresByTenant.getOrDefault(tenant.getGeneratedId(), List.of())));
+        }
+        return loaded;
+    }
+
+    private static UserInfoDto.TenantData assemble(Tenant tenant, List<TenantFeature> features) {
+        UserInfoDto.TenantData tenantData = new UserInfoDto.TenantData();
+        tenantData.setId(tenant.getId().toString());
+        tenantData.setGeneratedId(tenant.getGeneratedId());
+        tenantData.setName(tenant.getName());
+        tenantData.setDomain(tenant.getDomain());
+        tenantData.setStatus(tenant.getStatus().toString());
+        tenantData.setPlan(tenant.getSubscriptionPlan().toString());
+        tenantData.setCreatedAt(tenant.getCreatedAt());
+
+        // Get enabled modules/features for this tenant
+        List<String> enabledModules = features.stream()
+            .filter(feature -> Boolean.TRUE.equals(feature.getIsEnabled()))
+            .map(TenantFeature::getFeatureCode)
+            .toList();
+        tenantData.setEnabledModules(enabledModules);
+
+        // Set configuration
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put("maxUsers", tenant.getMaxUsers());
+        configuration.put("subscriptionPlan", tenant.getSubscriptionPlan().toString());
+        configuration.put("isActive", tenant.getStatus() == Tenant.TenantStatus.ACTIVE);
+        tenantData.setConfiguration(Collections.unmodifiableMap(configuration));
+
+        return tenantData;
+    }
+}
@@ -0,0 +1,244 @@
+package com.vm2124.userService.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.userService.dto.TenantOnboardingJobStatus;
+import com.vm2124.userService.dto.TenantOnboardingRequest;
+import com.vm2124.userService.dto.TenantOnboardingResponse;
+import com.vm2124.userService.model.TenantOnboardingJob;
+import com.vm2124.userService.repository.TenantOnboardingJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous tenant onboarding. A job is a row in {@code tenant_onboarding_jobs}, so queued
+ * jobs survive a restart and any instance can run them. The admin password is hashed when
+ * the job is queued and only the hash is stored.
+ *
+ * <p>On a fixed delay, each instance claims as many due jobs as it has idle workers and runs
+ * them on a bounded pool. A claim is a compare-and-set on the job row that lasts for
+ * {@code lease}; a job still RUNNING after that, because its instance stopped, is claimed
+ * again. A successful onboarding commits together with the job's SUCCEEDED update, and only
+ * while the attempt still holds the claim, so a job is never onboarded twice. A failed attempt
+ * is rolled back entirely.
+ *
+ * <p>A rejected request, such as a duplicate tenant code, fails the job straight away. Any other
+ * failure, such as a lost connection or a statement timeout, is retried after
+ * {@code retry-backoff}, doubling each time, until {@code max-attempts}.
+ */
+@Service
+@Slf4j
+public class TenantOnboardingJobService implements DisposableBean {
+
+    private static final EnumSet<TenantOnboardingJob.Status> DUE_STATUSES =
+            EnumSet.of(TenantOnboardingJob.Status.QUEUED, TenantOnboardingJob.Status.RUNNING);
+
+    private final TenantOnboardingJobRepository jobRepository;
+    private final TenantService tenantService;
+    private final PasswordHashingService passwordHashingService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration lease;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger running = new AtomicInteger();
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter retried;
+
+    public TenantOnboardingJobService(TenantOnboardingJobRepository jobRepository,
+                                      TenantService tenantService,
+                                      PasswordHashingService passwordHashingService,
+                                      ObjectMapper objectMapper,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${tenant-onboarding.jobs.workers:2}") int workers,
+                                      @Value("${tenant-onboarding.jobs.max-attempts:3}") int maxAttempts,
+                                      @Value("${tenant-onboarding.jobs.retry-backoff:5s}") Duration retryBackoff,
+                                      @Value("${tenant-onboarding.jobs.lease:5m}") Duration lease,
+                                      MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.tenantService = tenantService;
+        this.passwordHashingService = passwordHashingService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Math.max(1, workers);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.lease = lease;
+        // Never offered more jobs than it has idle threads, so the queue stays empty
+        this.executor = new ThreadPoolExecutor(this.workers, this.workers, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory());
+        Gauge.builder("tenant.onboarding.jobs.running", running, AtomicInteger::get)
+                .description("Onboarding jobs running on this instance")
+                .register(meterRegistry);
+        this.succeeded = Counter.builder("tenant.onboarding.jobs.succeeded").register(meterRegistry);
+        this.failed = Counter.builder("tenant.onboarding.jobs.failed").register(meterRegistry);
+        this.retried = Counter.builder("tenant.onboarding.jobs.retried").register(meterRegistry);
+    }
+
+    /**
+     * Queue a job for the request; it starts on the next poll of any instance.
+     *
+     * @throws IllegalArgumentException if the request has no admin password
+     * @throws PasswordHashingService.SaturatedException if the password cannot be hashed now
+     */
+    public TenantOnboardingJobStatus enqueue(TenantOnboardingRequest request) {
+        if (request.getAdminPassword() == null || request.getAdminPassword().isEmpty()) {
+            throw new IllegalArgumentException("adminPassword is required");
+        }
+        TenantOnboardingJob job = new TenantOnboardingJob();
+        job.setStatus(TenantOnboardingJob.Status.QUEUED);
+        job.setTenantCode(request.getTenantCode());
+        job.setAdminPasswordHash(passwordHashingService.encode(request.getAdminPassword()));
+        job.setRequest(withoutPassword(request));
+        job.setAttempts(0);
+        job.setNextAttemptAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        log.info("Queued onboarding job {} for tenant code: {}", job.getId(), job.getTenantCode());
+        return toStatus(job);
+    }
+
+    public Optional<TenantOnboardingJobStatus> find(UUID jobId) {
+        return jobRepository.findById(jobId).map(TenantOnboardingJobService::toStatus);
+    }
+
+    @Scheduled(fixedDelayString = "${tenant-onboarding.jobs.poll-interval-ms:1000}")
+    public void dispatch() {
+        int idle = workers - running.get();
+        if (idle <= 0 || executor.isShutdown()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<TenantOnboardingJob> due = jobRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                DUE_STATUSES, now, PageRequest.of(0, idle));
+        for (TenantOnboardingJob job : due) {
+            if (jobRepository.claim(job.getId(), job.getStatus(), job.getNextAttemptAt(), now.plus(lease), now) == 0) {
+                continue; // Claimed by another instance since it was read
+            }
+            if (job.getStatus() == TenantOnboardingJob.Status.RUNNING) {
+                log.warn("Taking over onboarding job {} after its claim expired", job.getId());
+            }
+            running.incrementAndGet();
+            int attempt = job.getAttempts() + 1;
+            executor.execute(() -> {
+                try {
+                    run(job, attempt);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void run(TenantOnboardingJob job, int attempt) {
+        UUID jobId = job.getId();
+        try {
+            TenantOnboardingRequest request = objectMapper.readValue(job.getRequest(), TenantOnboardingRequest.class);
+            request.setAdminPasswordHash(job.getAdminPasswordHash());
+            // Anything the attempt wrote is rolled back with it when it throws
+            TenantOnboardingResponse response = transactionTemplate.execute(status -> {
+                TenantOnboardingResponse result = tenantService.onboardTenantOrThrow(request);
+                if (jobRepository.finish(jobId, attempt, TenantOnboardingJob.Status.SUCCEEDED, result.getMessage(),
+                        result.getTenantGeneratedId(), result.getAdminGeneratedId(), LocalDateTime.now()) == 0) {
+                    throw new IllegalStateException("Lost the claim on onboarding job " + jobId);
+                }
+                return result;
+            });
+            succeeded.increment();
+            log.info("Onboarding job {} succeeded on attempt {}: {}", jobId, attempt, response.getMessage());
+        } catch (JsonProcessingException e) {
+            failed.increment();
+            jobRepository.finish(jobId, attempt, TenantOnboardingJob.Status.FAILED,
+                    "Unreadable job request: " + e.getOriginalMessage(), null, null, LocalDateTime.now());
+        } catch (IllegalArgumentException e) {
+            // Rejected, such as a duplicate tenant code; another attempt would be rejected too
+            log.info("Onboarding job {} failed on attempt {}: {}", jobId, attempt, e.getMessage());
+            failed.increment();
+            jobRepository.finish(jobId, attempt, TenantOnboardingJob.Status.FAILED,
+                    "Failed to onboard tenant: " + e.getMessage(), null, null, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            retryOrFail(jobId, attempt, e);
+        }
+    }
+
+    private void retryOrFail(UUID jobId, int attempt, RuntimeException e) {
+        try {
+            if (attempt >= maxAttempts) {
+                log.error("Onboarding job {} failed after {} attempts: {}", jobId, attempt, e.getMessage(), e);
+                failed.increment();
+                jobRepository.finish(jobId, attempt, TenantOnboardingJob.Status.FAILED,
+                        "Failed after " + attempt + " attempts: " + e.getMessage(), null, null, LocalDateTime.now());
+            } else {
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime retryAt = now.plus(retryBackoff.multipliedBy(1L << (attempt - 1)));
+                log.warn("Onboarding job {} attempt {} failed, retrying at {}: {}", jobId, attempt, retryAt, e.getMessage());
+                retried.increment();
+                jobRepository.requeue(jobId, attempt, e.getMessage(), retryAt, now);
+            }
+        } catch (RuntimeException recordFailure) {
+            // The claim expires and the job is retried from there
+            log.error("Failed to record the outcome of onboarding job {}: {}", jobId, recordFailure.getMessage());
+        }
+    }
+
+    private String withoutPassword(TenantOnboardingRequest request) {
+        String password = request.getAdminPassword();
+        request.setAdminPassword(null);
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable onboarding request: " + e.getOriginalMessage(), e);
+        } finally {
+            request.setAdminPassword(password);
+        }
+    }
+
+    private static TenantOnboardingJobStatus toStatus(TenantOnboardingJob job) {
+        return new TenantOnboardingJobStatus(job.getId(), job.getStatus().name(), job.getTenantCode(),
+                job.getAttempts(), job.getMessage(), job.getTenantGeneratedId(), job.getAdminGeneratedId(),
+                job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(),
+                job.getStatus() == TenantOnboardingJob.Status.QUEUED ? job.getNextAttemptAt() : null);
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "tenant-onboarding-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // Jobs cut off here keep their claim until it expires, then run again
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Onboarding jobs still running at shutdown will be retried after their claim expires");
+            executor.shutdownNow();
+        }
+    }
+}
@@ -3,8 +3,18 @@ package com.vm2124.userService.service;
 import com.vm2124.userService.dto.TenantOnboardingRequest;
 import com.vm2124.userService.dto.TenantOnboardingResponse;
 
+import java.util.List;
+
 public interface TenantService {
     
+    // Failures come back as an unsuccessful response, with nothing written
     TenantOnboardingResponse onboardTenant(TenantOnboardingRequest request);
     
+    // Throws instead: IllegalArgumentException if the request is rejected, such as a duplicate
+    // tenant code, and anything else, such as a database error, for a failure that may pass
+    TenantOnboardingResponse onboardTenantOrThrow(TenantOnboardingRequest request);
+    
+    // One response per request, in order; the successful ones are committed together
+    List<TenantOnboardingResponse> onboardTenants(List<TenantOnboardingRequest> requests);
+    
 }
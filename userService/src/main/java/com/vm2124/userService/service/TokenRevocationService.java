@@ -0,0 +1,87 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.RevocationFeed;
+import com.vm2124.userService.dto.TokenClaims;
+import com.vm2124.userService.model.TokenRevocation;
+import com.vm2124.userService.repository.TokenRevocationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Records revoked tokens, either one token by its jti or every token a user was issued
+ * before a point in time (logout everywhere, suspension, role changes). The API Gateway
+ * follows the list through {@link #changesSince(long)}; entries are purged once every
+ * token they could match has expired.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final JwtService jwtService;
+
+    @Transactional
+    public void revokeToken(TokenClaims claims, String reason) {
+        if (claims.tokenId() == null) {
+            // Issued before tokens carried a jti; only a user-wide revocation can reach it
+            revokeUser(claims.userId(), reason);
+            return;
+        }
+        record(TokenRevocation.RevocationType.TOKEN, claims.tokenId(), null, claims.expiresAt(), reason);
+        log.info("Revoked token {} of user {}: {}", claims.tokenId(), claims.userId(), reason);
+    }
+
+    @Transactional
+    public void revokeUser(String userId, String reason) {
+        // Token iat has second precision, so round up: a token issued earlier in this second must
+        // not outlive the revocation. One issued later in it, such as a re-login, is revoked too.
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        // Any token issued before the cutoff expires no later than a token issued at it
+        record(TokenRevocation.RevocationType.USER, userId, cutoff, jwtService.expiryFor(cutoff), reason);
+        log.info("Revoked all tokens of user {}: {}", userId, reason);
+    }
+
+    public boolean isRevoked(TokenClaims claims) {
+        if (claims.tokenId() != null
+                && tokenRevocationRepository.existsByRevocationTypeAndSubject(TokenRevocation.RevocationType.TOKEN, claims.tokenId())) {
+            return true;
+        }
+        return claims.issuedAt() != null && tokenRevocationRepository.existsByRevocationTypeAndSubjectAndIssuedBeforeAfter(
+                TokenRevocation.RevocationType.USER, claims.userId(), claims.issuedAt());
+    }
+
+    public RevocationFeed changesSince(long revision) {
+        List<RevocationFeed.Entry> entries = tokenRevocationRepository
+                .findByRevisionGreaterThanAndExpiresAtAfterOrderByRevision(revision, Instant.now())
+                .stream()
+                .map(revocation -> new RevocationFeed.Entry(
+                        revocation.getRevision(),
+                        revocation.getRevocationType().name(),
+                        revocation.getSubject(),
+                        revocation.getIssuedBefore(),
+                        revocation.getExpiresAt()))
+                .toList();
+        long latest = entries.isEmpty() ? revision : entries.get(entries.size() - 1).revision();
+        return new RevocationFeed(latest, entries);
+    }
+
+    private void record(TokenRevocation.RevocationType type, String subject, Instant issuedBefore,
+                        Instant expiresAt, String reason) {
+        tokenRevocationRepository.deleteByExpiresAtBefore(Instant.now());
+
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setRevocationType(type);
+        revocation.setSubject(subject);
+        revocation.setIssuedBefore(issuedBefore);
+        revocation.setExpiresAt(expiresAt);
+        revocation.setReason(reason);
+        tokenRevocationRepository.save(revocation);
+    }
+}
@@ -0,0 +1,237 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.UserContextEnvelope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes and verifies the X-User-Context header that replaces the individual X-User-*
+ * headers between the API Gateway and downstream services.
+ *
+ * <p>Layout (version 1), base64url without padding:
+ * <pre>
+ * u8      version
+ * u8      flags (bit 0: user is active)
+ * i32     permission catalog fingerprint
+ * varint  expiry, epoch seconds
+ * string  userId, userGeneratedId, username, email, firstName, lastName, tenantId, tenantGeneratedId
+ * varint  role count, then one string per role code
+ * varint  permission bitmap length, then the bitmap (bit n = versioned catalog ordinal n)
+ * varint  count of other permissions, then one string per code
+ * 16 B    HMAC-SHA256 over everything above, truncated
+ * </pre>
+ * Strings are a varint of (UTF-8 length + 1) followed by the bytes; 0 means null.
+ */
+@Service
+public class UserContextEnvelopeCodec {
+
+    public static final String HEADER = "X-User-Context";
+
+    static final byte VERSION = 1;
+    private static final int MAC_LENGTH = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final PermissionCatalog permissionCatalog;
+    private final SecretKeySpec signingKey;
+    private final ThreadLocal<Mac> macs;
+
+    public UserContextEnvelopeCodec(PermissionCatalog permissionCatalog,
+                                    @Value("${user-context.signing-key:${jwt.secret:defaultSecretKeyForDevelopmentOnly}}") String signingKey) {
+        this.permissionCatalog = permissionCatalog;
+        this.signingKey = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String encode(UserContextEnvelope envelope) {
+        Writer out = new Writer();
+        out.writeByte(VERSION);
+        out.writeByte(envelope.active() ? 1 : 0);
+        out.writeInt(permissionCatalog.fingerprint());
+        out.writeVarLong(envelope.expiresAt() != null ? envelope.expiresAt().getEpochSecond() : 0);
+        out.writeString(envelope.userId());
+        out.writeString(envelope.userGeneratedId());
+        out.writeString(envelope.username());
+        out.writeString(envelope.email());
+        out.writeString(envelope.firstName());
+        out.writeString(envelope.lastName());
+        out.writeString(envelope.tenantId());
+        out.writeString(envelope.tenantGeneratedId());
+        out.writeStrings(envelope.roles());
+        writePermissions(out, envelope.permissions());
+
+        byte[] payload = out.toByteArray();
+        byte[] signed = Arrays.copyOf(payload, payload.length + MAC_LENGTH);
+        System.arraycopy(sign(payload, payload.length), 0, signed, payload.length, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signed);
+    }
+
+    /**
+     * Verify and decode a header value.
+     *
+     * @throws IllegalArgumentException if the value is malformed, tampered with, expired,
+     *                                  or was encoded against a different permission catalog
+     */
+    public UserContextEnvelope decode(String headerValue) {
+        byte[] signed = Base64.getUrlDecoder().decode(headerValue);
+        if (signed.length <= MAC_LENGTH + 6) {
+            throw new IllegalArgumentException("User context envelope is too short");
+        }
+        int payloadLength = signed.length - MAC_LENGTH;
+        byte[] expectedMac = sign(signed, payloadLength);
+        if (!MessageDigest.isEqual(expectedMac, Arrays.copyOfRange(signed, payloadLength, signed.length))) {
+            throw new IllegalArgumentException("User context envelope signature mismatch");
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(signed, 0, payloadLength);
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported user context envelope version: " + version);
+        }
+        boolean active = (in.get() & 1) != 0;
+        if (in.getInt() != permissionCatalog.fingerprint()) {
+            throw new IllegalArgumentException("User context envelope uses a different permission catalog");
+        }
+        long expiresAtSeconds = readVarLong(in);
+        Instant expiresAt = expiresAtSeconds != 0 ? Instant.ofEpochSecond(expiresAtSeconds) : null;
+        if (expiresAt != null && expiresAt.isBefore(Instant.now())) {
+            throw new IllegalArgumentException("User context envelope has expired");
+        }
+
+        return new UserContextEnvelope(
+                readString(in), readString(in), readString(in), readString(in),
+                readString(in), readString(in), active, readString(in), readString(in),
+                readStrings(in), readPermissions(in), expiresAt);
+    }
+
+    private void writePermissions(Writer out, List<String> permissions) {
+        // Codes outside the versioned catalog can have other ordinals, or none, on the decoding side
+        int versionedSize = permissionCatalog.versionedSize();
+        List<String> versioned = new ArrayList<>();
+        List<String> byName = new ArrayList<>();
+        if (permissions != null) {
+            for (String permission : permissions) {
+                int ordinal = permissionCatalog.ordinalOf(permission);
+                (ordinal >= 0 && ordinal < versionedSize ? versioned : byName).add(permission);
+            }
+        }
+        byte[] bitmap = permissionCatalog.setOf(versioned).toBytes((versionedSize + 7) / 8);
+        out.writeVarLong(bitmap.length);
+        out.writeBytes(bitmap);
+        out.writeStrings(byName);
+    }
+
+    private List<String> readPermissions(ByteBuffer in) {
+        byte[] bitmap = new byte[(int) readVarLong(in)];
+        in.get(bitmap);
+        List<String> permissions = permissionCatalog.codesOf(PermissionSet.fromBytes(bitmap));
+        permissions.addAll(readStrings(in));
+        return List.copyOf(permissions);
+    }
+
+    private byte[] sign(byte[] data, int length) {
+        Mac mac = macs.get();
+        mac.update(data, 0, length);
+        return Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + MAC_ALGORITHM, e);
+        }
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in user context envelope");
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int count = (int) readVarLong(in);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return List.copyOf(values);
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(256);
+        }
+
+        void writeByte(int value) {
+            write(value);
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+
+        void writeStrings(List<String> values) {
+            if (values == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+    }
+}
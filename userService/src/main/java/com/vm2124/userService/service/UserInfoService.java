@@ -5,6 +5,7 @@ import com.vm2124.userService.model.*;
 import com.vm2124.userService.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -17,10 +18,13 @@ import java.util.stream.Collectors;
 public class UserInfoService {
 
     private final UserRepository userRepository;
-    private final TenantRepository tenantRepository;
     private final UserTenantRoleRepository userTenantRoleRepository;
-    private final RolesRepository rolesRepository;
-    private final TenantFeatureRepository tenantFeatureRepository;
+    private final RoleCatalog roleCatalog;
+    private final TenantDataCache tenantDataCache;
+
+    // Upper bound on IDs per batch request
+    @Value("${user-info.batch.max-size:500}")
+    private int maxBatchSize;
 
     public UserInfoDto getUserInfo(String userId) {
         log.info("Fetching comprehensive user information for user ID: {}", userId);
@@ -32,26 +36,7 @@ public class UserInfoService {
                 return new UserInfoDto(false, "User not found", null, null, null, null);
             }
 
-            User user = userOpt.get();
-            
-            // Build user data
-            UserInfoDto.UserData userData = buildUserData(user);
-            
-            // Build tenant data
-            UserInfoDto.TenantData tenantData = buildTenantData(user.getTenantId());
-            
-            // Build roles and permissions data
-            List<UserInfoDto.RoleData> rolesData = buildRolesData(user.getId().toString());
-            List<String> permissionsList = buildPermissionsList(user.getId().toString());
-            
-            return new UserInfoDto(
-                true,
-                "User information retrieved successfully",
-                userData,
-                tenantData,
-                rolesData,
-                permissionsList
-            );
+            return assemble(userOpt.get());
             
         } catch (Exception e) {
             log.error("Error fetching user info for {}: {}", userId, e.getMessage(), e);
@@ -59,6 +44,89 @@ public class UserInfoService {
         }
     }
 
+    /**
+     * Full user information for an already loaded user: one query for the role assignments,
+     * with roles from the catalog and the tenant from its cache.
+     */
+    public UserInfoDto assemble(User user) {
+        return assemble(user,
+            userTenantRoleRepository.findByUserId(user.getId().toString()),
+            tenantDataCache.get(user.getTenantId()));
+    }
+
+    /**
+     * User information for many users at once, in request order. Users and their role
+     * assignments are each loaded with a single IN query, and uncached tenants with one more
+     * pair; everything is then joined in memory. Each entry reports its own success, so an
+     * unknown or malformed ID does not fail the rest of the batch.
+     */
+    public List<UserInfoDto> getUserInfos(List<String> userIds) {
+        log.info("Fetching user information for a batch of {} user IDs", userIds.size());
+
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (String userId : userIds) {
+            UUID id = parseUserId(userId);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+
+        Map<UUID, User> usersById = new HashMap<>();
+        for (User user : userRepository.findAllById(ids)) {
+            usersById.put(user.getId(), user);
+        }
+        Map<String, List<UserTenantRole>> assignmentsByUser = usersById.isEmpty()
+            ? Map.of()
+            : userTenantRoleRepository.findByUserIdIn(usersById.keySet().stream().map(UUID::toString).toList()).stream()
+                .collect(Collectors.groupingBy(UserTenantRole::getUserId));
+        Map<String, UserInfoDto.TenantData> tenantsById = tenantDataCache.getAll(
+            usersById.values().stream().map(User::getTenantId).toList());
+
+        List<UserInfoDto> results = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            UUID id = parseUserId(userId);
+            User user = id != null ? usersById.get(id) : null;
+            if (id == null) {
+                results.add(new UserInfoDto(false, "Invalid user ID", null, null, null, null));
+            } else if (user == null) {
+                results.add(new UserInfoDto(false, "User not found", null, null, null, null));
+            } else {
+                results.add(assemble(user,
+                    assignmentsByUser.getOrDefault(user.getId().toString(), List.of()),
+                    tenantsById.get(user.getTenantId())));
+            }
+        }
+        return results;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    private UserInfoDto assemble(User user, List<UserTenantRole> assignments, UserInfoDto.TenantData tenantData) {
+        List<RoleCatalog.CatalogRole> roles = roleCatalog.snapshot().resolve(
+            assignments.stream().map(UserTenantRole::getRoleId).toList());
+        return new UserInfoDto(
+            true,
+            "User information retrieved successfully",
+            buildUserData(user),
+            tenantData,
+            buildRolesData(roles),
+            buildPermissionsList(roles)
+        );
+    }
+
+    private static UUID parseUserId(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private UserInfoDto.UserData buildUserData(User user) {
         UserInfoDto.UserData userData = new UserInfoDto.UserData();
         userData.setId(user.getId().toString());
@@ -75,90 +143,34 @@ public class UserInfoService {
         return userData;
     }
 
-    private UserInfoDto.TenantData buildTenantData(String tenantId) {
-        if (tenantId == null) {
-            return null;
-        }
-        
-        Optional<Tenant> tenantOpt = tenantRepository.findByGeneratedId(tenantId);
-        if (tenantOpt.isEmpty()) {
-            return null;
-        }
-        
-        Tenant tenant = tenantOpt.get();
-        UserInfoDto.TenantData tenantData = new UserInfoDto.TenantData();
-        tenantData.setId(tenant.getId().toString());
-        tenantData.setGeneratedId(tenant.getGeneratedId());
-        tenantData.setName(tenant.getName());
-        tenantData.setDomain(tenant.getDomain());
-        tenantData.setStatus(tenant.getStatus().toString());
-        tenantData.setPlan(tenant.getSubscriptionPlan().toString());
-        tenantData.setCreatedAt(tenant.getCreatedAt());
-        
-        // Get enabled modules/features for this tenant
-        List<TenantFeature> tenantFeatures = tenantFeatureRepository.findByTenantId(tenant.getGeneratedId());
-        List<String> enabledModules = tenantFeatures.stream()
-            .filter(TenantFeature::getIsEnabled)
-            .map(TenantFeature::getFeatureCode)
-            .collect(Collectors.toList());
-        tenantData.setEnabledModules(enabledModules);
-        
-        // Set configuration
-        Map<String, Object> configuration = new HashMap<>();
-        configuration.put("maxUsers", tenant.getMaxUsers());
-        configuration.put("subscriptionPlan", tenant.getSubscriptionPlan().toString());
-        configuration.put("isActive", tenant.getStatus() == Tenant.TenantStatus.ACTIVE);
-        tenantData.setConfiguration(configuration);
-        
-        return tenantData;
-    }
-
-    private List<UserInfoDto.RoleData> buildRolesData(String userId) {
-        List<UserInfoDto.RoleData> rolesData = new ArrayList<>();
-        
-        List<UserTenantRole> userRoles = userTenantRoleRepository.findByUserId(userId);
-        for (UserTenantRole userRole : userRoles) {
-            Optional<Roles> roleOpt = rolesRepository.findByGeneratedId(userRole.getRoleId());
-            if (roleOpt.isPresent()) {
-                Roles role = roleOpt.get();
-                UserInfoDto.RoleData roleData = buildRoleData(role);
-                rolesData.add(roleData);
-            }
+    private List<UserInfoDto.RoleData> buildRolesData(List<RoleCatalog.CatalogRole> roles) {
+        List<UserInfoDto.RoleData> rolesData = new ArrayList<>(roles.size());
+        for (RoleCatalog.CatalogRole role : roles) {
+            rolesData.add(buildRoleData(role));
         }
-        
         return rolesData;
     }
 
-    private List<String> buildPermissionsList(String userId) {
+    private List<String> buildPermissionsList(List<RoleCatalog.CatalogRole> roles) {
         Set<String> allPermissions = new HashSet<>();
-        
-        List<UserTenantRole> userRoles = userTenantRoleRepository.findByUserId(userId);
-        for (UserTenantRole userRole : userRoles) {
-            Optional<Roles> roleOpt = rolesRepository.findByGeneratedId(userRole.getRoleId());
-            if (roleOpt.isPresent()) {
-                Roles role = roleOpt.get();
-                // Add permissions from this role
-                if (role.getPermissionCodes() != null) {
-                    allPermissions.addAll(role.getPermissionCodes());
-                }
-            }
+        for (RoleCatalog.CatalogRole role : roles) {
+            allPermissions.addAll(role.permissionCodes());
         }
-        
         return new ArrayList<>(allPermissions);
     }
 
-    private UserInfoDto.RoleData buildRoleData(Roles role) {
+    private UserInfoDto.RoleData buildRoleData(RoleCatalog.CatalogRole role) {
         UserInfoDto.RoleData roleData = new UserInfoDto.RoleData();
-        roleData.setId(role.getId().toString());
-        roleData.setGeneratedId(role.getGeneratedId());
-        roleData.setRoleCode(role.getRoleCode());
-        roleData.setRoleName(role.getRoleName());
-        roleData.setDescription(role.getDescription());
-        roleData.setPriority(role.getPriority());
-        roleData.setRoleType(role.getRoleType().toString());
-        roleData.setSystemRole(role.getIsSystemRole());
-        roleData.setDefault(role.getIsDefault());
-        roleData.setPermissions(role.getPermissionCodes());
+        roleData.setId(role.id());
+        roleData.setGeneratedId(role.generatedId());
+        roleData.setRoleCode(role.roleCode());
+        roleData.setRoleName(role.roleName());
+        roleData.setDescription(role.description());
+        roleData.setPriority(role.priority());
+        roleData.setRoleType(role.roleType().toString());
+        roleData.setSystemRole(role.systemRole());
+        roleData.setDefault(role.defaultRole());
+        roleData.setPermissions(role.permissionCodes());
         return roleData;
     }
 }
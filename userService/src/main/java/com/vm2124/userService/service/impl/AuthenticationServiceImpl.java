@@ -2,19 +2,30 @@ package com.vm2124.userService.service.impl;
 
 import com.vm2124.userService.dto.LoginRequest;
 import com.vm2124.userService.dto.LoginResponse;
+import com.vm2124.userService.dto.UserContextEnvelope;
 import com.vm2124.userService.model.User;
 import com.vm2124.userService.model.UserTenantRole;
+import com.vm2124.userService.repository.TenantRepository;
 import com.vm2124.userService.repository.UserRepository;
 import com.vm2124.userService.repository.UserTenantRoleRepository;
 import com.vm2124.userService.service.AuthenticationService;
 import com.vm2124.userService.service.JwtService;
+import com.vm2124.userService.service.LoginActivityBuffer;
+import com.vm2124.userService.service.LoginAttemptTracker;
+import com.vm2124.userService.service.PasswordHashingService;
+import com.vm2124.userService.service.PermissionEpochService;
+import com.vm2124.userService.service.RoleCatalog;
+import com.vm2124.userService.service.UserContextEnvelopeCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,16 +34,33 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AuthenticationServiceImpl implements AuthenticationService {
 
+    private static final String ACCOUNT_LOCKED_MESSAGE = "Account is temporarily locked, try again later";
+
     private final UserRepository userRepository;
     private final UserTenantRoleRepository userTenantRoleRepository;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final RoleCatalog roleCatalog;
+    private final TenantRepository tenantRepository;
+    private final PermissionEpochService permissionEpochService;
+    private final UserContextEnvelopeCodec userContextEnvelopeCodec;
+    private final LoginActivityBuffer loginActivityBuffer;
+    private final LoginAttemptTracker loginAttemptTracker;
+
+    // Opt-in: embed the user context in the token so the gateway can skip /validate
+    @Value("${jwt.context-in-token.enabled:false}")
+    private boolean contextInToken;
 
     @Override
     public LoginResponse login(LoginRequest loginRequest) {
         log.info("Attempting login for user: {}", loginRequest.getEmail());
         
         try {
+            // Locked accounts are turned away before the user lookup and the BCrypt comparison
+            if (loginAttemptTracker.isLocked(loginRequest.getEmail())) {
+                return new LoginResponse(false, ACCOUNT_LOCKED_MESSAGE, null, null, null, null);
+            }
+
             // Find user by email
             Optional<User> userOpt = userRepository.findByEmail(loginRequest.getEmail());
             if (userOpt.isEmpty()) {
@@ -45,11 +73,25 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             if (user.getStatus() != User.UserStatus.ACTIVE) {
                 return new LoginResponse(false, "User account is not active", null, null, null, null);
             }
+
+            // Lock persisted by another instance
+            if (loginAttemptTracker.isLocked(user)) {
+                return new LoginResponse(false, ACCOUNT_LOCKED_MESSAGE, null, null, null, null);
+            }
             
-            // Verify password
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+            // Verify password on the hashing pool; a saturated pool propagates as 503
+            if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
+                loginAttemptTracker.recordFailure(user.getEmail(), user.getId());
                 return new LoginResponse(false, "Invalid username or password", null, null, null, null);
             }
+            loginAttemptTracker.recordSuccess(user.getEmail());
+
+            // Bring the hash to the configured BCrypt cost while the raw password is at hand
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                String oldHash = user.getPassword();
+                passwordHashingService.rehashInBackground(loginRequest.getPassword(),
+                    newHash -> userRepository.replacePasswordHash(user.getId(), oldHash, newHash));
+            }
             
             // Get user roles
             List<UserTenantRole> userRoles = userTenantRoleRepository.findByUserId(user.getId().toString());
@@ -58,14 +100,18 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .collect(Collectors.toList());
             
             // Generate JWT token
-            String token = jwtService.generateToken(user.getId().toString(), user.getTenantId(), roleCodes);
+            Instant issuedAt = Instant.now();
+            Map<String, Object> contextClaims = contextInToken
+                ? buildContextClaims(user, roleCodes, jwtService.expiryFor(issuedAt))
+                : Map.of();
+            String token = jwtService.generateToken(user.getId().toString(), user.getTenantId(), roleCodes, contextClaims, issuedAt);
             
-            // Update last login time
-            user.setLastLoginAt(LocalDateTime.now());
-            userRepository.save(user);
+            // Record last login time; written behind, the user entity is left untouched
+            LocalDateTime lastLoginAt = LocalDateTime.now();
+            loginActivityBuffer.recordLogin(user.getId(), lastLoginAt);
             
             // Build user info for response
-            LoginResponse.UserInfo userInfo = buildUserInfo(user, roleCodes);
+            LoginResponse.UserInfo userInfo = buildUserInfo(user, roleCodes, lastLoginAt);
             
             // Calculate token expiration
             LocalDateTime expiresAt = LocalDateTime.now().plusHours(24); // 24 hours from now
@@ -79,13 +125,55 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 userInfo
             );
             
+        } catch (PasswordHashingService.SaturatedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error during login for user {}: {}", loginRequest.getEmail(), e.getMessage(), e);
             return new LoginResponse(false, "Login failed: " + e.getMessage(), null, null, null, null);
         }
     }
 
-    private LoginResponse.UserInfo buildUserInfo(User user, List<String> roleCodes) {
+    /**
+     * Claims for context-in-token mode: the signed user context envelope (role codes and
+     * the permission bitmap), the tenant status and the permission epoch at login.
+     */
+    private Map<String, Object> buildContextClaims(User user, List<String> roleIds, Instant expiresAt) {
+        // Read the epoch before the roles: a change landing in between then makes the token stale, not wrong
+        long permissionEpoch = permissionEpochService.currentEpoch();
+
+        // Fresh snapshot: it must reflect every role change already counted in the epoch
+        List<RoleCatalog.CatalogRole> roles = roleCatalog.freshSnapshot().resolve(roleIds);
+        List<String> permissions = roles.stream()
+            .flatMap(role -> role.permissionCodes().stream())
+            .distinct()
+            .toList();
+
+        String envelope = userContextEnvelopeCodec.encode(new UserContextEnvelope(
+            user.getId().toString(),
+            user.getGeneratedId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getStatus() == User.UserStatus.ACTIVE,
+            user.getTenantId(),
+            user.getTenantId(),
+            roles.stream().map(RoleCatalog.CatalogRole::roleCode).toList(),
+            permissions,
+            expiresAt
+        ));
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CONTEXT_ENVELOPE_CLAIM, envelope);
+        claims.put(JwtService.PERMISSION_EPOCH_CLAIM, permissionEpoch);
+        if (user.getTenantId() != null) {
+            tenantRepository.findByGeneratedId(user.getTenantId())
+                .ifPresent(tenant -> claims.put(JwtService.TENANT_STATUS_CLAIM, tenant.getStatus().name()));
+        }
+        return claims;
+    }
+
+    private LoginResponse.UserInfo buildUserInfo(User user, List<String> roleCodes, LocalDateTime lastLoginAt) {
         return new LoginResponse.UserInfo(
             user.getId().toString(),
             user.getGeneratedId(),
@@ -97,7 +185,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             user.getTenantId(),
             user.getTenantId(), // Assuming tenantId is the generated ID
             roleCodes,
-            user.getLastLoginAt()
+            lastLoginAt
         );
     }
 }
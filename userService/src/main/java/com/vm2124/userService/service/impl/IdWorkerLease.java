@@ -0,0 +1,143 @@
+package com.vm2124.userService.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * The worker id {@link IdsGeneraterServiceImpl} puts in every ID. With {@code ids.worker-id}
+ * set, that value is used as is. Otherwise the instance leases a free worker id from
+ * {@code id_worker_leases} at startup and renews it in the background, so replicas never
+ * share one. If all 256 are leased, startup fails.
+ *
+ * <p>An instance that cannot renew its lease before it expires stops issuing IDs rather than
+ * risk sharing a worker id with whoever takes the lease over. Since IDs can run up to a
+ * second ahead of the clock, a lease is only taken over once it has been expired for
+ * longer than that, and a released lease stays held for that long too.
+ */
+@Component
+@Slf4j
+public class IdWorkerLease implements DisposableBean {
+
+    static final long FIXED = Long.MAX_VALUE;
+    // IdsGeneraterServiceImpl runs at most a second ahead of the clock
+    private static final long GRACE_MILLIS = 2_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LongSupplier clock;
+    private final long leaseMillis;
+    private final String owner;
+    private final int workerId;
+    private volatile long validUntil;
+
+    @Autowired
+    public IdWorkerLease(JdbcTemplate jdbcTemplate,
+                         @Value("${ids.worker-id:-1}") int configuredWorkerId,
+                         @Value("${ids.lease:5m}") Duration lease,
+                         @Value("${eureka.instance.instance-id:${spring.application.name:user-service}}") String instanceId,
+                         @Value("${HOSTNAME:localhost}") String hostName) {
+        this(jdbcTemplate, configuredWorkerId, lease,
+                instanceId + "@" + hostName + "/" + UUID.randomUUID(), System::currentTimeMillis);
+    }
+
+    IdWorkerLease(JdbcTemplate jdbcTemplate, int configuredWorkerId, Duration lease, String owner, LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.leaseMillis = lease.toMillis();
+        this.owner = owner;
+        if (configuredWorkerId >= 0) {
+            if (configuredWorkerId >= IdsGeneraterServiceImpl.WORKERS) {
+                throw new IllegalArgumentException("ids.worker-id must be between 0 and "
+                        + (IdsGeneraterServiceImpl.WORKERS - 1) + ": " + configuredWorkerId);
+            }
+            this.workerId = configuredWorkerId;
+            this.validUntil = FIXED;
+            log.info("Generating IDs as configured worker {}", workerId);
+        } else {
+            this.workerId = acquire();
+            log.info("Generating IDs as worker {}, leased by {}", workerId, owner);
+        }
+    }
+
+    public int workerId() {
+        return workerId;
+    }
+
+    /**
+     * Epoch millisecond the worker id is held until; IDs must not be issued from then on.
+     */
+    public long validUntil() {
+        return validUntil;
+    }
+
+    private int acquire() {
+        // Start from a different slot per instance so concurrent startups rarely contend
+        int start = Math.floorMod(owner.hashCode(), IdsGeneraterServiceImpl.WORKERS);
+        for (int i = 0; i < IdsGeneraterServiceImpl.WORKERS; i++) {
+            int candidate = (start + i) % IdsGeneraterServiceImpl.WORKERS;
+            long now = clock.getAsLong();
+            long expiresAt = now + leaseMillis;
+            int taken = jdbcTemplate.update(
+                    "update id_worker_leases set owner = ?, expires_at = ? where worker_id = ? and expires_at < ?",
+                    owner, expiresAt, candidate, now - GRACE_MILLIS);
+            if (taken == 0) {
+                try {
+                    jdbcTemplate.update("insert into id_worker_leases (worker_id, expires_at, owner) values (?, ?, ?)",
+                            candidate, expiresAt, owner);
+                } catch (DuplicateKeyException held) {
+                    continue;
+                }
+            }
+            validUntil = expiresAt;
+            return candidate;
+        }
+        throw new IllegalStateException("All " + IdsGeneraterServiceImpl.WORKERS
+                + " ID worker ids are leased; set ids.worker-id or wait for a stopped instance's lease to expire");
+    }
+
+    @Scheduled(fixedDelayString = "${ids.lease-renew-interval-ms:60000}")
+    public void renew() {
+        if (validUntil == FIXED) {
+            return;
+        }
+        long expiresAt = clock.getAsLong() + leaseMillis;
+        try {
+            int renewed = jdbcTemplate.update(
+                    "update id_worker_leases set expires_at = ? where worker_id = ? and owner = ?",
+                    expiresAt, workerId, owner);
+            if (renewed == 1) {
+                validUntil = expiresAt;
+            } else {
+                validUntil = 0;
+                log.error("Lost the lease on ID worker {}; no more IDs will be issued until restart", workerId);
+            }
+        } catch (DataAccessException e) {
+            // Keep the current lease and try again; IDs stop if it runs out first
+            log.warn("Failed to renew the lease on ID worker {} (held until {}): {}", workerId, validUntil, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (validUntil == FIXED || validUntil == 0) {
+            return;
+        }
+        try {
+            // Held a little longer, for any IDs issued ahead of the clock
+            jdbcTemplate.update("update id_worker_leases set expires_at = ? where worker_id = ? and owner = ?",
+                    clock.getAsLong(), workerId, owner);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release the lease on ID worker {}: {}", workerId, e.getMessage());
+        }
+    }
+}
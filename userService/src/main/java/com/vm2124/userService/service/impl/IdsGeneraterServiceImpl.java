@@ -1,87 +1,149 @@
 package com.vm2124.userService.service.impl;
 
 import com.vm2124.userService.service.IdsGeneraterService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
 
+/**
+ * Snowflake-style generated IDs: 10 base-36 characters encoding a 10 ms time tick, a worker
+ * id and a per-tick sequence, so IDs are unique across replicas without a database round
+ * trip and sort by creation time. The value is {@code (tick * 256 + worker) * 64 + sequence},
+ * which fits 10 characters until 2095.
+ *
+ * <p>Each instance needs its own worker id (0-255): {@code ids.worker-id} when set, otherwise
+ * one leased from the database by {@link IdWorkerLease}. IDs stop, with an exception, if the
+ * lease runs out without being renewed.
+ *
+ * <p>The last tick and sequence issued are one {@link AtomicLong}, advanced by compare-and-set.
+ * When a tick's 64 sequence numbers are used up, IDs borrow the next tick. The generator
+ * never runs more than a second ahead of the clock and waits for it instead, so an instance
+ * that restarts (which takes longer than that) cannot reissue an ID, and a clock stepping
+ * back while running pauses generation rather than repeating IDs.
+ *
+ * <p>The entity type is not part of the ID, as each kind has its own table. The leading
+ * character stays below {@code F} until 2054, and the older random IDs all start with F, R,
+ * T or U, so the two cannot clash.
+ */
 @Service
 public class IdsGeneraterServiceImpl implements IdsGeneraterService {
-    
-    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int ID_LENGTH = 10;
-    private final SecureRandom random = new SecureRandom();
-    private final AtomicLong counter = new AtomicLong(1);
-    
+
+    // 2025-01-01T00:00:00Z
+    static final long EPOCH_MILLIS = 1_735_689_600_000L;
+    static final long TICK_MILLIS = 10;
+    static final int WORKERS = 256;
+    static final int SEQUENCE = 64;
+    static final int ID_LENGTH = 10;
+    private static final long MAX_LEAD_TICKS = 1000 / TICK_MILLIS;
+    private static final long MAX_TICK = pow(36, ID_LENGTH) / ((long) WORKERS * SEQUENCE);
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final int workerId;
+    private final LongSupplier clock;
+    private final LongSupplier workerIdValidUntil;
+    // tick * SEQUENCE + sequence of the last ID issued
+    private final AtomicLong lastSlot = new AtomicLong();
+
+    @Autowired
+    public IdsGeneraterServiceImpl(IdWorkerLease workerLease) {
+        this(workerLease.workerId(), System::currentTimeMillis, workerLease::validUntil);
+    }
+
+    IdsGeneraterServiceImpl(int workerId, LongSupplier clock) {
+        this(workerId, clock, () -> IdWorkerLease.FIXED);
+    }
+
+    IdsGeneraterServiceImpl(int workerId, LongSupplier clock, LongSupplier workerIdValidUntil) {
+        if (workerId < 0 || workerId >= WORKERS) {
+            throw new IllegalArgumentException("ids.worker-id must be between 0 and " + (WORKERS - 1) + ": " + workerId);
+        }
+        this.workerId = workerId;
+        this.clock = clock;
+        this.workerIdValidUntil = workerIdValidUntil;
+    }
+
     @Override
     public String generateTenantId() {
-        return generateId("TNT");
+        return nextId();
     }
-    
+
     @Override
     public String generateUserId() {
-        return generateId("USR");
+        return nextId();
     }
-    
+
     @Override
     public String generateRoleId() {
-        return generateId("ROL");
+        return nextId();
     }
-    
+
     @Override
     public String generateFeatureId() {
-        return generateId("FEA");
+        return nextId();
     }
-    
+
     @Override
     public String generateTenantRoleId() {
-        return generateId("TNR");
+        return nextId();
     }
-    
+
     @Override
     public String generateTenantFeatureId() {
-        return generateId("TNF");
+        return nextId();
     }
-    
+
     @Override
     public String generateUserTenantRoleId() {
-        return generateId("UTR");
+        return nextId();
     }
-    
-    private String generateId(String prefix) {
-        StringBuilder id = new StringBuilder(prefix);
-        
-        // Generate random characters for the remaining length
-        for (int i = 0; i < ID_LENGTH - prefix.length(); i++) {
-            id.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+
+    String nextId() {
+        long slot = nextSlot();
+        long tick = slot / SEQUENCE;
+        if (tick >= MAX_TICK) {
+            throw new IllegalStateException("Generated ID space exhausted at tick " + tick);
         }
-        
-        return id.toString();
+        return encode((tick * WORKERS + workerId) * SEQUENCE + slot % SEQUENCE);
     }
-    
-    /**
-     * Alternative method that includes a counter for better uniqueness
-     */
-    private String generateIdWithCounter(String prefix) {
-        StringBuilder id = new StringBuilder(prefix);
-        long currentCounter = counter.getAndIncrement();
-        
-        // Convert counter to base36 and pad with zeros
-        String counterStr = Long.toString(currentCounter, 36).toUpperCase();
-        int remainingLength = ID_LENGTH - prefix.length();
-        
-        // Pad with zeros if needed
-        while (counterStr.length() < remainingLength) {
-            counterStr = "0" + counterStr;
+
+    private long nextSlot() {
+        while (true) {
+            long millis = clock.getAsLong();
+            if (millis >= workerIdValidUntil.getAsLong()) {
+                throw new IllegalStateException("The lease on ID worker " + workerId + " has expired");
+            }
+            long now = (millis - EPOCH_MILLIS) / TICK_MILLIS;
+            long last = lastSlot.get();
+            long slot = Math.max(last + 1, now * SEQUENCE);
+            if (slot / SEQUENCE > now + MAX_LEAD_TICKS) {
+                // Too far ahead of the clock; let it catch up
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS));
+                continue;
+            }
+            if (lastSlot.compareAndSet(last, slot)) {
+                return slot;
+            }
         }
-        
-        // Truncate if too long
-        if (counterStr.length() > remainingLength) {
-            counterStr = counterStr.substring(counterStr.length() - remainingLength);
+    }
+
+    static String encode(long value) {
+        char[] id = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            id[i] = ALPHABET[(int) (value % 36)];
+            value /= 36;
+        }
+        return new String(id);
+    }
+
+    private static long pow(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
         }
-        
-        id.append(counterStr);
-        return id.toString();
+        return result;
     }
 }
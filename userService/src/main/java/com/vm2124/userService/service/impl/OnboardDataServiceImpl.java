@@ -3,9 +3,9 @@ package com.vm2124.userService.service.impl;
 import com.vm2124.userService.dto.*;
 import com.vm2124.userService.model.*;
 import com.vm2124.userService.repository.*;
-import com.vm2124.userService.service.IdsGeneraterService;
-import com.vm2124.userService.service.JsonDataLoaderService;
 import com.vm2124.userService.service.OnboardDataService;
+import com.vm2124.userService.service.SeedDataCatalog;
+import com.vm2124.userService.service.SystemCatalogSync;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,8 +22,8 @@ public class OnboardDataServiceImpl implements OnboardDataService {
     private final TenantRepository tenantRepository;
     private final RolesRepository rolesRepository;
     private final TenantFeatureRepository tenantFeatureRepository;
-    private final IdsGeneraterService idsGeneraterService;
-    private final JsonDataLoaderService jsonDataLoaderService;
+    private final SeedDataCatalog seedDataCatalog;
+    private final SystemCatalogSync systemCatalogSync;
     
     @Override
     @Transactional
@@ -35,6 +35,7 @@ public class OnboardDataServiceImpl implements OnboardDataService {
             response.setTimestamp(LocalDateTime.now());
             
             int totalCreated = 0;
+            Map<String, CatalogDiff> syncDiff = new LinkedHashMap<>();
             
             if (request.isOnboardPermissions()) {
                 OnboardDataResponse permResponse = onboardPermissions(request);
@@ -47,6 +48,9 @@ public class OnboardDataServiceImpl implements OnboardDataService {
                 OnboardDataResponse roleResponse = onboardRoles(request);
                 response.setRolesCreated(roleResponse.getRolesCreated());
                 response.setCreatedRoles(roleResponse.getCreatedRoles());
+                if (roleResponse.getSyncDiff() != null) {
+                    syncDiff.putAll(roleResponse.getSyncDiff());
+                }
                 totalCreated += roleResponse.getRolesCreated();
             }
             
@@ -54,6 +58,9 @@ public class OnboardDataServiceImpl implements OnboardDataService {
                 OnboardDataResponse featureResponse = onboardFeatures(request);
                 response.setFeaturesCreated(featureResponse.getFeaturesCreated());
                 response.setCreatedFeatures(featureResponse.getCreatedFeatures());
+                if (featureResponse.getSyncDiff() != null) {
+                    syncDiff.putAll(featureResponse.getSyncDiff());
+                }
                 totalCreated += featureResponse.getFeaturesCreated();
             }
             
@@ -61,9 +68,13 @@ public class OnboardDataServiceImpl implements OnboardDataService {
                 OnboardDataResponse moduleResponse = onboardModules(request);
                 response.setModulesCreated(moduleResponse.getModulesCreated());
                 response.setCreatedModules(moduleResponse.getCreatedModules());
+                if (moduleResponse.getSyncDiff() != null) {
+                    syncDiff.putAll(moduleResponse.getSyncDiff());
+                }
                 totalCreated += moduleResponse.getModulesCreated();
             }
             
+            response.setSyncDiff(syncDiff);
             response.setSuccess(true);
             response.setMessage("System data initialized successfully. Total items created: " + totalCreated);
             
@@ -84,43 +95,21 @@ public class OnboardDataServiceImpl implements OnboardDataService {
         log.info("Onboarding modules");
         
         try {
-            List<ModuleData> allModules = jsonDataLoaderService.loadModules();
-            Set<String> allModuleCodes = allModules.stream()
-                .map(ModuleData::getCode)
-                .collect(Collectors.toSet());
+            Map<String, ModuleData> allModules = seedDataCatalog.modules();
             
             Set<String> modulesToCreate = request.getSpecificModules() != null && !request.getSpecificModules().isEmpty() 
                 ? request.getSpecificModules() 
-                : allModuleCodes;
-            
-            Set<String> createdModules = new HashSet<>();
-            
-            for (String moduleCode : modulesToCreate) {
-                ModuleData moduleData = allModules.stream()
-                    .filter(m -> m.getCode().equals(moduleCode))
-                    .findFirst()
-                    .orElse(null);
-                
-                if (moduleData != null) {
-                    // Create system-wide module feature
-                    TenantFeature feature = new TenantFeature();
-                    feature.setGeneratedId(idsGeneraterService.generateTenantFeatureId());
-                    feature.setTenantId(null); // System-wide feature
-                    feature.setFeatureCode(moduleData.getCode());
-                    feature.setFeatureName(moduleData.getName());
-                    feature.setDescription("System module: " + moduleData.getDescription());
-                    feature.setIsEnabled(true);
-                    feature.setFeatureType(TenantFeature.FeatureType.BOOLEAN);
-                    feature.setIsSystemFeature(true);
-                    
-                    tenantFeatureRepository.save(feature);
-                    createdModules.add(moduleCode);
-                }
-            }
+                : allModules.keySet();
+            
+            // System-wide module features, diffed against the existing rows
+            CatalogDiff diff = systemCatalogSync.syncFeatures(
+                modulesToCreate.stream().filter(allModules::containsKey).toList(), request.isSync());
+            Set<String> createdModules = diff.getInserted();
             
             OnboardDataResponse response = new OnboardDataResponse(true, "Modules onboarded successfully");
             response.setModulesCreated(createdModules.size());
             response.setCreatedModules(createdModules);
+            response.setSyncDiff(Map.of("modules", diff));
             
             log.info("Modules onboarding completed. Created: {}", createdModules.size());
             return response;
@@ -139,10 +128,7 @@ public class OnboardDataServiceImpl implements OnboardDataService {
         log.info("Onboarding permissions");
         
         try {
-            List<PermissionData> allPermissions = jsonDataLoaderService.loadPermissions();
-            Set<String> allPermissionCodes = allPermissions.stream()
-                .map(PermissionData::getCode)
-                .collect(Collectors.toSet());
+            Set<String> allPermissionCodes = seedDataCatalog.permissions().keySet();
             
             Set<String> permissionsToCreate = request.getSpecificPermissions() != null && !request.getSpecificPermissions().isEmpty() 
                 ? request.getSpecificPermissions() 
@@ -179,48 +165,21 @@ public class OnboardDataServiceImpl implements OnboardDataService {
         log.info("Onboarding roles");
         
         try {
-            List<RoleData> allRoles = jsonDataLoaderService.loadRoles();
-            Set<String> allRoleCodes = allRoles.stream()
-                .map(RoleData::getCode)
-                .collect(Collectors.toSet());
+            Map<String, RoleData> allRoles = seedDataCatalog.roles();
             
             Set<String> rolesToCreate = request.getSpecificRoles() != null && !request.getSpecificRoles().isEmpty() 
                 ? request.getSpecificRoles() 
-                : allRoleCodes;
-            
-            Set<String> createdRoles = new HashSet<>();
-            
-            for (String roleCode : rolesToCreate) {
-                RoleData roleData = allRoles.stream()
-                    .filter(r -> r.getCode().equals(roleCode))
-                    .findFirst()
-                    .orElse(null);
-                
-                if (roleData != null) {
-                    // Check if role already exists
-                    if (!rolesRepository.existsByRoleCodeAndIsSystemRoleTrue(roleCode)) {
-                        Roles role = new Roles();
-                        role.setGeneratedId(idsGeneraterService.generateRoleId());
-                        role.setTenantId(null); // System-wide role
-                        role.setRoleCode(roleData.getCode());
-                        role.setRoleName(roleData.getName());
-                        role.setDescription(roleData.getDescription());
-                        role.setIsSystemRole(roleData.isSystemRole());
-                        role.setIsDefault(roleData.isDefault());
-                        role.setIsActive(true);
-                        role.setRoleType(Roles.RoleType.valueOf(roleData.getRoleType()));
-                        role.setPriority(roleData.getPriority());
-                        role.setPermissionCodes(new HashSet<>(roleData.getPermissions()));
-                        
-                        rolesRepository.save(role);
-                        createdRoles.add(roleCode);
-                    }
-                }
-            }
+                : allRoles.keySet();
+            
+            // System-wide roles and their permissions, diffed against the existing rows
+            CatalogDiff diff = systemCatalogSync.syncRoles(
+                rolesToCreate.stream().filter(allRoles::containsKey).toList(), request.isSync());
+            Set<String> createdRoles = diff.getInserted();
             
             OnboardDataResponse response = new OnboardDataResponse(true, "Roles onboarded successfully");
             response.setRolesCreated(createdRoles.size());
             response.setCreatedRoles(createdRoles);
+            response.setSyncDiff(Map.of("roles", diff));
             
             log.info("Roles onboarding completed. Created: {}", createdRoles.size());
             return response;
@@ -239,43 +198,21 @@ public class OnboardDataServiceImpl implements OnboardDataService {
         log.info("Onboarding features");
         
         try {
-            List<FeatureData> allFeatures = jsonDataLoaderService.loadFeatures();
-            Set<String> allFeatureCodes = allFeatures.stream()
-                .map(FeatureData::getCode)
-                .collect(Collectors.toSet());
+            Map<String, FeatureData> allFeatures = seedDataCatalog.features();
             
             Set<String> featuresToCreate = request.getSpecificFeatures() != null && !request.getSpecificFeatures().isEmpty() 
                 ? request.getSpecificFeatures() 
-                : allFeatureCodes;
-            
-            Set<String> createdFeatures = new HashSet<>();
-            
-            for (String featureCode : featuresToCreate) {
-                FeatureData featureData = allFeatures.stream()
-                    .filter(f -> f.getCode().equals(featureCode))
-                    .findFirst()
-                    .orElse(null);
-                
-                if (featureData != null) {
-                    // Create system-wide feature
-                    TenantFeature feature = new TenantFeature();
-                    feature.setGeneratedId(idsGeneraterService.generateFeatureId());
-                    feature.setTenantId(null); // System-wide feature
-                    feature.setFeatureCode(featureData.getCode());
-                    feature.setFeatureName(featureData.getName());
-                    feature.setDescription(featureData.getDescription());
-                    feature.setIsEnabled(true);
-                    feature.setFeatureType(TenantFeature.FeatureType.valueOf(featureData.getType()));
-                    feature.setIsSystemFeature(featureData.isSystemFeature());
-                    
-                    tenantFeatureRepository.save(feature);
-                    createdFeatures.add(featureCode);
-                }
-            }
+                : allFeatures.keySet();
+            
+            // System-wide features, diffed against the existing rows
+            CatalogDiff diff = systemCatalogSync.syncFeatures(
+                featuresToCreate.stream().filter(allFeatures::containsKey).toList(), request.isSync());
+            Set<String> createdFeatures = diff.getInserted();
             
             OnboardDataResponse response = new OnboardDataResponse(true, "Features onboarded successfully");
             response.setFeaturesCreated(createdFeatures.size());
             response.setCreatedFeatures(createdFeatures);
+            response.setSyncDiff(Map.of("features", diff));
             
             log.info("Features onboarding completed. Created: {}", createdFeatures.size());
             return response;
@@ -295,28 +232,30 @@ public class OnboardDataServiceImpl implements OnboardDataService {
         try {
             Map<String, Object> status = new HashMap<>();
             
-            // Count existing system roles
-            long systemRolesCount = rolesRepository.findByIsSystemRoleTrue().size();
-            status.put("systemRolesCount", systemRolesCount);
-            
-            // Count existing system features
-            long systemFeaturesCount = tenantFeatureRepository.findByTenantIdAndIsSystemFeatureTrue(null).size();
-            status.put("systemFeaturesCount", systemFeaturesCount);
-            
-            // List existing system roles
+            // Existing system roles
             List<String> existingRoles = rolesRepository.findByIsSystemRoleTrue()
                 .stream()
                 .map(Roles::getRoleCode)
                 .collect(Collectors.toList());
+            status.put("systemRolesCount", existingRoles.size());
             status.put("existingRoles", existingRoles);
             
-            // List existing system features
+            // Existing system features
             List<String> existingFeatures = tenantFeatureRepository.findByTenantIdAndIsSystemFeatureTrue(null)
                 .stream()
                 .map(TenantFeature::getFeatureCode)
                 .collect(Collectors.toList());
+            status.put("systemFeaturesCount", existingFeatures.size());
             status.put("existingFeatures", existingFeatures);
             
+            // Seed data this instance ships; compare checksums across instances
+            status.put("seedDataChecksum", seedDataCatalog.checksum());
+            status.put("seedDataCounts", Map.of(
+                "modules", seedDataCatalog.modules().size(),
+                "permissions", seedDataCatalog.permissions().size(),
+                "roles", seedDataCatalog.roles().size(),
+                "features", seedDataCatalog.features().size()));
+            
             OnboardDataResponse response = new OnboardDataResponse(true, "Onboard status retrieved successfully");
             response.setStatus(status);
             
@@ -5,18 +5,23 @@ import com.vm2124.userService.dto.TenantOnboardingResponse;
 import com.vm2124.userService.model.*;
 import com.vm2124.userService.repository.*;
 import com.vm2124.userService.service.IdsGeneraterService;
+import com.vm2124.userService.service.PasswordHashingService;
 import com.vm2124.userService.service.TenantService;
 import com.vm2124.userService.service.UserService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -29,71 +34,162 @@ public class TenantServiceImpl implements TenantService {
     private final TenantFeatureRepository tenantFeatureRepository;
     private final UserTenantRoleRepository userTenantRoleRepository;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final IdsGeneraterService idsGeneraterService;
+    private final EntityManager entityManager;
     
     @Override
     @Transactional
     public TenantOnboardingResponse onboardTenant(TenantOnboardingRequest request) {
-        log.info("Starting tenant onboarding for tenant code: {}", request.getTenantCode());
-        
         try {
-            // 1. Create tenant
-            Tenant tenant = createTenant(request);
-            
-            // 2. Enable modules/features
-            Set<String> enabledFeatures = enableModules(tenant.getGeneratedId(), request.getEnabledModules());
-            
-            // 3. Create admin user
-            User adminUser = createAdminUser(tenant, request);
-            
-            // 4. Assign admin role to user
-            assignAdminRole(tenant.getGeneratedId(), adminUser.getGeneratedId());
-            
-            // 5. Create response
-            TenantOnboardingResponse response = new TenantOnboardingResponse();
-            response.setTenantId(tenant.getId());
-            response.setTenantGeneratedId(tenant.getGeneratedId());
-            response.setTenantCode(tenant.getTenantCode());
-            response.setTenantName(tenant.getName());
-            response.setDomain(tenant.getDomain());
-            response.setStatus(tenant.getStatus().name());
-            response.setCreatedAt(tenant.getCreatedAt());
-            
-            response.setAdminUserId(adminUser.getId());
-            response.setAdminGeneratedId(adminUser.getGeneratedId());
-            response.setAdminUsername(adminUser.getUsername());
-            response.setAdminEmail(adminUser.getEmail());
-            response.setAdminFullName(adminUser.getFirstName() + " " + adminUser.getLastName());
-            
-            response.setEnabledModules(request.getEnabledModules());
-            response.setEnabledFeatures(enabledFeatures);
-            
-            response.setSuccess(true);
-            response.setMessage("Tenant onboarded successfully");
-            
-            log.info("Tenant onboarding completed successfully for tenant: {}", tenant.getTenantCode());
-            return response;
-            
+            return onboardTenantOrThrow(request);
         } catch (Exception e) {
             log.error("Error during tenant onboarding: {}", e.getMessage(), e);
-            TenantOnboardingResponse errorResponse = new TenantOnboardingResponse();
-            errorResponse.setSuccess(false);
-            errorResponse.setMessage("Failed to onboard tenant: " + e.getMessage());
-            return errorResponse;
+            // The failure is reported rather than thrown, so drop whatever was written before it
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return failedResponse(request, "Failed to onboard tenant: " + e.getMessage());
         }
     }
     
+    @Override
+    @Transactional
+    public TenantOnboardingResponse onboardTenantOrThrow(TenantOnboardingRequest request) {
+        log.info("Starting tenant onboarding for tenant code: {}", request.getTenantCode());
+        
+        // 1. Create tenant
+        Tenant tenant = createTenant(request);
+        
+        // 2. Enable modules/features
+        Set<String> enabledFeatures = enableModules(tenant.getGeneratedId(), request.getEnabledModules());
+        
+        // 3. Create admin user
+        User adminUser = createAdminUser(tenant, request);
+        
+        // 4. Assign admin role to user
+        assignAdminRole(tenant.getGeneratedId(), adminUser.getGeneratedId());
+        
+        // 5. Create response
+        log.info("Tenant onboarding completed successfully for tenant: {}", tenant.getTenantCode());
+        return buildResponse(request, tenant, adminUser, enabledFeatures);
+    }
+    
+    /**
+     * Onboard a chunk of tenants in one transaction: duplicate codes and domains are checked
+     * with one query each, then every tenant, feature, admin user, role and assignment in
+     * the chunk is inserted through saveAll so Hibernate can send them as JDBC batches.
+     * Requests that fail validation get a failed response and are left out; any database
+     * error rolls back the whole chunk.
+     */
+    @Override
+    @Transactional
+    public List<TenantOnboardingResponse> onboardTenants(List<TenantOnboardingRequest> requests) {
+        Set<String> takenCodes = new HashSet<>(tenantRepository.findTenantCodesIn(
+            requests.stream().map(TenantOnboardingRequest::getTenantCode).filter(Objects::nonNull).toList()));
+        Set<String> takenDomains = new HashSet<>(tenantRepository.findDomainsIn(
+            requests.stream().map(TenantOnboardingRequest::getDomain).filter(Objects::nonNull).toList()));
+        
+        List<Tenant> tenants = new ArrayList<>();
+        List<TenantFeature> features = new ArrayList<>();
+        List<User> adminUsers = new ArrayList<>();
+        List<Roles> adminRoles = new ArrayList<>();
+        List<UserTenantRole> assignments = new ArrayList<>();
+        TenantOnboardingResponse[] responses = new TenantOnboardingResponse[requests.size()];
+        
+        for (int i = 0; i < requests.size(); i++) {
+            TenantOnboardingRequest request = requests.get(i);
+            if (!takenCodes.add(request.getTenantCode())) {
+                responses[i] = failedResponse(request, "Tenant code already exists: " + request.getTenantCode());
+                continue;
+            }
+            if (!takenDomains.add(request.getDomain())) {
+                responses[i] = failedResponse(request, "Domain already exists: " + request.getDomain());
+                continue;
+            }
+            
+            // A new tenant has no users or roles yet, so there is nothing else to look up
+            Tenant tenant = buildTenant(request);
+            User adminUser = buildAdminUser(tenant, request);
+            Roles adminRole = buildTenantAdminRole(tenant.getGeneratedId());
+            tenants.add(tenant);
+            features.addAll(buildModules(tenant.getGeneratedId(), request.getEnabledModules()));
+            adminUsers.add(adminUser);
+            adminRoles.add(adminRole);
+            assignments.add(buildAdminAssignment(tenant.getGeneratedId(), adminUser.getGeneratedId(), adminRole.getGeneratedId()));
+        }
+        
+        tenantRepository.saveAll(tenants);
+        tenantFeatureRepository.saveAll(features);
+        userRepository.saveAll(adminUsers);
+        rolesRepository.saveAll(adminRoles);
+        userTenantRoleRepository.saveAll(assignments);
+        entityManager.flush();
+        
+        int created = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            if (responses[i] == null) {
+                Tenant tenant = tenants.get(created);
+                List<String> enabled = features.stream()
+                    .filter(feature -> feature.getTenantId().equals(tenant.getGeneratedId()))
+                    .map(TenantFeature::getFeatureCode)
+                    .toList();
+                responses[i] = buildResponse(requests.get(i), tenant, adminUsers.get(created), new HashSet<>(enabled));
+                created++;
+            }
+        }
+        
+        // Keep the persistence context from growing across chunks of one bulk request
+        entityManager.clear();
+        log.info("Onboarded {} of {} tenants in chunk", created, requests.size());
+        return List.of(responses);
+    }
+    
+    private TenantOnboardingResponse buildResponse(TenantOnboardingRequest request, Tenant tenant,
+                                                   User adminUser, Set<String> enabledFeatures) {
+        TenantOnboardingResponse response = new TenantOnboardingResponse();
+        response.setTenantId(tenant.getId());
+        response.setTenantGeneratedId(tenant.getGeneratedId());
+        response.setTenantCode(tenant.getTenantCode());
+        response.setTenantName(tenant.getName());
+        response.setDomain(tenant.getDomain());
+        response.setStatus(tenant.getStatus().name());
+        response.setCreatedAt(tenant.getCreatedAt());
+        
+        response.setAdminUserId(adminUser.getId());
+        response.setAdminGeneratedId(adminUser.getGeneratedId());
+        response.setAdminUsername(adminUser.getUsername());
+        response.setAdminEmail(adminUser.getEmail());
+        response.setAdminFullName(adminUser.getFirstName() + " " + adminUser.getLastName());
+        
+        response.setEnabledModules(request.getEnabledModules());
+        response.setEnabledFeatures(enabledFeatures);
+        
+        response.setSuccess(true);
+        response.setMessage("Tenant onboarded successfully");
+        return response;
+    }
+    
+    private static TenantOnboardingResponse failedResponse(TenantOnboardingRequest request, String message) {
+        TenantOnboardingResponse errorResponse = new TenantOnboardingResponse();
+        errorResponse.setTenantCode(request.getTenantCode());
+        errorResponse.setSuccess(false);
+        errorResponse.setMessage(message);
+        return errorResponse;
+    }
+    
     private Tenant createTenant(TenantOnboardingRequest request) {
         // Validate tenant code and domain uniqueness
         if (tenantRepository.existsByTenantCode(request.getTenantCode())) {
-            throw new RuntimeException("Tenant code already exists: " + request.getTenantCode());
+            throw new IllegalArgumentException("Tenant code already exists: " + request.getTenantCode());
         }
         
         if (tenantRepository.existsByDomain(request.getDomain())) {
-            throw new RuntimeException("Domain already exists: " + request.getDomain());
+            throw new IllegalArgumentException("Domain already exists: " + request.getDomain());
         }
         
+        return tenantRepository.save(buildTenant(request));
+    }
+    
+    private Tenant buildTenant(TenantOnboardingRequest request) {
         Tenant tenant = new Tenant();
         tenant.setGeneratedId(idsGeneraterService.generateTenantId());
         tenant.setTenantCode(request.getTenantCode());
@@ -110,18 +206,25 @@ public class TenantServiceImpl implements TenantService {
         tenant.setTimezone(request.getTimezone() != null ? request.getTimezone() : "UTC");
         tenant.setLocale(request.getLocale() != null ? request.getLocale() : "en_US");
         tenant.setStatus(Tenant.TenantStatus.ACTIVE);
-        
-        return tenantRepository.save(tenant);
+        return tenant;
     }
     
     private Set<String> enableModules(String tenantId, Set<String> moduleCodes) {
-        Set<String> enabledFeatures = new HashSet<>();
+        List<TenantFeature> features = buildModules(tenantId, moduleCodes);
+        tenantFeatureRepository.saveAll(features);
         
+        Set<String> enabledFeatures = new HashSet<>();
+        features.forEach(feature -> enabledFeatures.add(feature.getFeatureCode()));
+        return enabledFeatures;
+    }
+    
+    private List<TenantFeature> buildModules(String tenantId, Collection<String> moduleCodes) {
         if (moduleCodes == null || moduleCodes.isEmpty()) {
             // Enable default modules
             moduleCodes = Set.of("USER_MANAGEMENT", "ROLE_MANAGEMENT", "TENANT_CONFIGURATION");
         }
         
+        List<TenantFeature> features = new ArrayList<>(moduleCodes.size());
         for (String moduleCode : moduleCodes) {
             TenantFeature feature = new TenantFeature();
             feature.setGeneratedId(idsGeneraterService.generateTenantFeatureId());
@@ -132,12 +235,10 @@ public class TenantServiceImpl implements TenantService {
             feature.setIsEnabled(true);
             feature.setFeatureType(TenantFeature.FeatureType.BOOLEAN);
             feature.setIsSystemFeature(true);
-            
-            tenantFeatureRepository.save(feature);
-            enabledFeatures.add(moduleCode);
+            features.add(feature);
         }
         
-        return enabledFeatures;
+        return features;
     }
     
     private String getModuleDisplayName(String moduleCode) {
@@ -157,13 +258,17 @@ public class TenantServiceImpl implements TenantService {
     private User createAdminUser(Tenant tenant, TenantOnboardingRequest request) {
         // Validate admin user details
         if (userRepository.existsByUsernameAndTenantId(request.getAdminUsername(), tenant.getId().toString())) {
-            throw new RuntimeException("Username already exists in tenant: " + request.getAdminUsername());
+            throw new IllegalArgumentException("Username already exists in tenant: " + request.getAdminUsername());
         }
         
         if (userRepository.existsByEmailAndTenantId(request.getAdminEmail(), tenant.getId().toString())) {
-            throw new RuntimeException("Email already exists in tenant: " + request.getAdminEmail());
+            throw new IllegalArgumentException("Email already exists in tenant: " + request.getAdminEmail());
         }
         
+        return userRepository.save(buildAdminUser(tenant, request));
+    }
+    
+    private User buildAdminUser(Tenant tenant, TenantOnboardingRequest request) {
         User adminUser = new User();
         adminUser.setGeneratedId(idsGeneraterService.generateUserId());
         adminUser.setTenantId(tenant.getGeneratedId());
@@ -171,14 +276,15 @@ public class TenantServiceImpl implements TenantService {
         adminUser.setEmail(request.getAdminEmail());
         adminUser.setFirstName(request.getAdminFirstName());
         adminUser.setLastName(request.getAdminLastName());
-        adminUser.setPassword(passwordEncoder.encode(request.getAdminPassword()));
+        adminUser.setPassword(request.getAdminPasswordHash() != null
+            ? request.getAdminPasswordHash()
+            : passwordHashingService.encode(request.getAdminPassword()));
         adminUser.setPhoneNumber(request.getAdminPhoneNumber());
         adminUser.setDepartment(request.getAdminDepartment());
         adminUser.setJobTitle(request.getAdminJobTitle());
         adminUser.setStatus(User.UserStatus.ACTIVE);
         adminUser.setPasswordChangedAt(LocalDateTime.now());
-        
-        return userRepository.save(adminUser);
+        return adminUser;
     }
     
     private void assignAdminRole(String tenantId, String userId) {
@@ -187,19 +293,26 @@ public class TenantServiceImpl implements TenantService {
             .orElseGet(() -> createTenantAdminRole(tenantId));
         
         // Create user-tenant-role relationship
+        userTenantRoleRepository.save(buildAdminAssignment(tenantId, userId, adminRole.getGeneratedId()));
+    }
+    
+    private UserTenantRole buildAdminAssignment(String tenantId, String userId, String roleId) {
         UserTenantRole userTenantRole = new UserTenantRole();
         userTenantRole.setGeneratedId(idsGeneraterService.generateUserTenantRoleId());
         userTenantRole.setUserId(userId);
-        userTenantRole.setRoleId(adminRole.getGeneratedId());
+        userTenantRole.setRoleId(roleId);
         userTenantRole.setTenantId(tenantId);
         userTenantRole.setIsPrimary(true);
         userTenantRole.setIsActive(true);
         userTenantRole.setAssignedReason("Initial tenant setup");
-        
-        userTenantRoleRepository.save(userTenantRole);
+        return userTenantRole;
     }
     
     private Roles createTenantAdminRole(String tenantId) {
+        return rolesRepository.save(buildTenantAdminRole(tenantId));
+    }
+    
+    private Roles buildTenantAdminRole(String tenantId) {
         Roles adminRole = new Roles();
         adminRole.setGeneratedId(idsGeneraterService.generateRoleId());
         adminRole.setTenantId(tenantId);
@@ -225,7 +338,6 @@ public class TenantServiceImpl implements TenantService {
         adminPermissions.add("TENANT_CONFIG_READ");
         adminPermissions.add("TENANT_CONFIG_UPDATE");
         adminRole.setPermissionCodes(adminPermissions);
-        
-        return rolesRepository.save(adminRole);
+        return adminRole;
     }
 }
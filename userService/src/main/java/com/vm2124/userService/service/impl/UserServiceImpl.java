@@ -3,10 +3,10 @@ package com.vm2124.userService.service.impl;
 import com.vm2124.userService.model.User;
 import com.vm2124.userService.repository.UserRepository;
 import com.vm2124.userService.service.IdsGeneraterService;
+import com.vm2124.userService.service.PasswordHashingService;
 import com.vm2124.userService.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
 public class UserServiceImpl implements UserService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final IdsGeneraterService idsGeneraterService;
     
     @Override
@@ -42,7 +42,7 @@ public class UserServiceImpl implements UserService {
         
         // Encode password if not already encoded
         if (user.getPassword() != null && !user.getPassword().startsWith("$2a$")) {
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
         }
         
         // Set default values
@@ -74,7 +74,7 @@ public class UserServiceImpl implements UserService {
         adminUser.setEmail(email);
         adminUser.setFirstName(firstName);
         adminUser.setLastName(lastName);
-        adminUser.setPassword(passwordEncoder.encode(password));
+        adminUser.setPassword(passwordHashingService.encode(password));
         adminUser.setPhoneNumber(phoneNumber);
         adminUser.setDepartment(department);
         adminUser.setJobTitle(jobTitle);
@@ -0,0 +1,190 @@
+-- Baseline: the schema ddl-auto generated for the original entities.
+-- Databases created earlier by ddl-auto are baselined at this version and skip it.
+
+create table permissions (
+    is_active boolean,
+    is_system_permission boolean,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    action_type varchar(255),
+    category varchar(255),
+    description TEXT,
+    permission_code varchar(255) not null unique,
+    permission_name varchar(255) not null,
+    resource_type varchar(255),
+    primary key (id)
+);
+
+create table role_permissions (
+    role_id uuid not null,
+    permission_code varchar(255)
+);
+
+create table roles (
+    is_active boolean,
+    is_default boolean,
+    is_system_role boolean,
+    priority integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    generated_id varchar(10) not null unique,
+    id uuid not null,
+    description TEXT,
+    role_code varchar(255) not null,
+    role_name varchar(255) not null,
+    role_type varchar(255) check (role_type in ('SYSTEM','TENANT_ADMIN','TENANT_USER','CUSTOM')),
+    tenant_id varchar(255),
+    primary key (id)
+);
+
+create table tenant_audit_logs (
+    created_at timestamp(6),
+    id uuid not null,
+    action varchar(255) not null,
+    details TEXT,
+    ip_address varchar(255),
+    resource_id varchar(255),
+    resource_name varchar(255),
+    resource_type varchar(255),
+    session_id varchar(255),
+    severity varchar(255) check (severity in ('INFO','WARNING','ERROR','CRITICAL')),
+    tenant_id varchar(255) not null,
+    user_agent varchar(255),
+    user_id varchar(255),
+    primary key (id)
+);
+
+create table tenant_configurations (
+    is_encrypted boolean,
+    is_required boolean,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    config_key varchar(255) not null,
+    config_type varchar(255) check (config_type in ('STRING','INTEGER','BOOLEAN','JSON','ENCRYPTED')),
+    config_value TEXT,
+    description TEXT,
+    tenant_id varchar(255) not null,
+    primary key (id)
+);
+
+create table tenant_domains (
+    is_primary boolean,
+    is_verified boolean,
+    created_at timestamp(6),
+    ssl_expires_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    domain varchar(255) not null unique,
+    domain_type varchar(255) check (domain_type in ('PRIMARY','CUSTOM','SUBDOMAIN','ALIAS')),
+    ssl_certificate TEXT,
+    ssl_private_key TEXT,
+    tenant_id varchar(255) not null,
+    verification_token varchar(255),
+    primary key (id)
+);
+
+create table tenant_features (
+    is_enabled boolean,
+    is_system_feature boolean,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    generated_id varchar(10) not null unique,
+    id uuid not null,
+    config_value TEXT,
+    description TEXT,
+    feature_code varchar(255) not null,
+    feature_name varchar(255) not null,
+    feature_type varchar(255) check (feature_type in ('BOOLEAN','STRING','INTEGER','JSON','ENCRYPTED')),
+    tenant_id varchar(255) not null,
+    primary key (id)
+);
+
+create table tenant_invitations (
+    accepted_at timestamp(6),
+    created_at timestamp(6),
+    expires_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    accepted_by varchar(255),
+    department varchar(255),
+    email varchar(255) not null,
+    first_name varchar(255),
+    invitation_token varchar(255) not null unique,
+    invited_by varchar(255),
+    job_title varchar(255),
+    last_name varchar(255),
+    role_id varchar(255),
+    status varchar(255) check (status in ('PENDING','ACCEPTED','EXPIRED','CANCELLED')),
+    tenant_id varchar(255) not null,
+    primary key (id)
+);
+
+create table tenants (
+    max_users integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    generated_id varchar(10) not null unique,
+    id uuid not null,
+    custom_domain varchar(255),
+    description TEXT,
+    domain varchar(255) not null unique,
+    locale varchar(255),
+    logo_url varchar(255),
+    name varchar(255) not null,
+    primary_color varchar(255),
+    secondary_color varchar(255),
+    status varchar(255) check (status in ('ACTIVE','INACTIVE','SUSPENDED','PENDING_ACTIVATION')),
+    subscription_plan varchar(255) check (subscription_plan in ('BASIC','PREMIUM','ENTERPRISE','CUSTOM')),
+    tenant_code varchar(255) not null unique,
+    timezone varchar(255),
+    primary key (id)
+);
+
+create table user_tenant_roles (
+    is_active boolean,
+    is_primary boolean,
+    assigned_at timestamp(6),
+    created_at timestamp(6),
+    expires_at timestamp(6),
+    updated_at timestamp(6),
+    generated_id varchar(10) not null unique,
+    id uuid not null,
+    assigned_by varchar(255),
+    assigned_reason varchar(255),
+    role_id varchar(255) not null,
+    tenant_id varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (id),
+    unique (user_id, role_id, tenant_id)
+);
+
+create table users (
+    failed_login_attempts integer,
+    account_locked_until timestamp(6),
+    created_at timestamp(6),
+    last_login_at timestamp(6),
+    password_changed_at timestamp(6),
+    updated_at timestamp(6),
+    generated_id varchar(10) not null unique,
+    id uuid not null,
+    department varchar(255),
+    email varchar(255) not null,
+    employee_id varchar(255),
+    first_name varchar(255) not null,
+    job_title varchar(255),
+    last_name varchar(255) not null,
+    manager_id varchar(255),
+    password varchar(255) not null,
+    phone_number varchar(255),
+    status varchar(255) check (status in ('ACTIVE','INACTIVE','SUSPENDED')),
+    tenant_id varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id)
+);
+
+alter table if exists role_permissions
+    add constraint fk_role_permissions_role
+    foreign key (role_id)
+    references roles (id);
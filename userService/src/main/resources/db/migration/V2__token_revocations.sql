@@ -0,0 +1,19 @@
+-- Revocation list for logout and user-wide revocation. Databases that picked the table
+-- up through ddl-auto already have it, hence the guards.
+
+create table if not exists token_revocations (
+    created_at timestamp(6),
+    expires_at timestamp(6) with time zone not null,
+    issued_before timestamp(6) with time zone,
+    revision bigint generated by default as identity,
+    reason varchar(255),
+    revocation_type varchar(255) not null check (revocation_type in ('TOKEN','USER')),
+    subject varchar(255) not null,
+    primary key (revision)
+);
+
+create index if not exists idx_token_revocations_subject
+    on token_revocations (revocation_type, subject);
+
+create index if not exists idx_token_revocations_expires_at
+    on token_revocations (expires_at);
@@ -0,0 +1,29 @@
+-- Indexes for the lookups on the login, validate and onboarding paths.
+-- Already covered by unique constraints, so not repeated here:
+--   user_tenant_roles (user_id, ...)       unique (user_id, role_id, tenant_id)
+--   tenant_invitations (invitation_token)  unique
+--   *.generated_id                         unique
+
+-- Login: UserRepository.findByEmail / findByEmailAndTenantId
+create index if not exists idx_users_email
+    on users (email);
+
+-- Registration and tenant-scoped lookups: findByUsernameAndTenantId, findByTenantId
+create index if not exists idx_users_tenant_username
+    on users (tenant_id, username);
+
+-- Tenant data assembly and feature toggles: findByTenantId(In), findByTenantIdAndFeatureCode
+create index if not exists idx_tenant_features_tenant_feature
+    on tenant_features (tenant_id, feature_code);
+
+-- Role lookup by code within a tenant (or system-wide, tenant_id null)
+create index if not exists idx_roles_code_tenant
+    on roles (role_code, tenant_id);
+
+-- Role catalog and role loads join permissions by role
+create index if not exists idx_role_permissions_role
+    on role_permissions (role_id);
+
+-- Role assignments per tenant: UserTenantRoleRepository.findByTenantId
+create index if not exists idx_user_tenant_roles_tenant
+    on user_tenant_roles (tenant_id);
@@ -0,0 +1,81 @@
+-- Conflict targets for the batched seed catalog upserts in SystemCatalogSync.
+-- System-wide roles and features are the rows with tenant_id null, so the unique keys treat
+-- nulls as equal (PostgreSQL 15+).
+
+-- System features carry no tenant, as system roles already do
+alter table tenant_features alter column tenant_id drop not null;
+
+-- Repeated seeding left duplicate rows; keep the one with the lowest generated_id per key.
+
+delete from tenant_features
+where exists (
+    select 1 from tenant_features k
+    where k.feature_code = tenant_features.feature_code
+      and k.tenant_id is not distinct from tenant_features.tenant_id
+      and k.generated_id < tenant_features.generated_id);
+
+-- Assignments to a duplicate role move to the kept role, unless the user already holds an
+-- earlier role with the same code in that tenant
+delete from user_tenant_roles
+where exists (
+    select 1 from roles d
+    join user_tenant_roles o on o.user_id = user_tenant_roles.user_id
+                            and o.tenant_id = user_tenant_roles.tenant_id
+    join roles e on e.generated_id = o.role_id
+    where d.generated_id = user_tenant_roles.role_id
+      and e.role_code = d.role_code
+      and e.tenant_id is not distinct from d.tenant_id
+      and e.generated_id < d.generated_id);
+
+update user_tenant_roles
+set role_id = (
+    select min(k.generated_id) from roles k
+    join roles d on d.role_code = k.role_code and d.tenant_id is not distinct from k.tenant_id
+    where d.generated_id = user_tenant_roles.role_id)
+where role_id in (
+    select d.generated_id from roles d
+    where exists (
+        select 1 from roles k
+        where k.role_code = d.role_code
+          and k.tenant_id is not distinct from d.tenant_id
+          and k.generated_id < d.generated_id));
+
+delete from role_permissions
+where role_id in (
+    select d.id from roles d
+    where exists (
+        select 1 from roles k
+        where k.role_code = d.role_code
+          and k.tenant_id is not distinct from d.tenant_id
+          and k.generated_id < d.generated_id));
+
+delete from roles
+where exists (
+    select 1 from roles k
+    where k.role_code = roles.role_code
+      and k.tenant_id is not distinct from roles.tenant_id
+      and k.generated_id < roles.generated_id);
+
+-- The unique keys also serve the lookups the V3 indexes were added for
+alter table tenant_features
+    add constraint uq_tenant_features_tenant_feature unique nulls not distinct (tenant_id, feature_code);
+drop index if exists idx_tenant_features_tenant_feature;
+
+alter table roles
+    add constraint uq_roles_code_tenant unique nulls not distinct (role_code, tenant_id);
+drop index if exists idx_roles_code_tenant;
+
+-- Role permissions are synced with insert ... on conflict do nothing
+delete from role_permissions
+where permission_code is null;
+
+create table role_permissions_dedup as
+    select distinct role_id, permission_code from role_permissions;
+delete from role_permissions;
+insert into role_permissions (role_id, permission_code)
+    select role_id, permission_code from role_permissions_dedup;
+drop table role_permissions_dedup;
+
+alter table role_permissions alter column permission_code set not null;
+alter table role_permissions
+    add constraint uq_role_permissions_role_permission unique (role_id, permission_code);
@@ -0,0 +1,25 @@
+-- Queue and status of asynchronous tenant onboarding (POST /api/v1/tenants/onboard?async=true).
+-- Jobs are claimed by compare-and-set on (status, next_attempt_at), so any instance can run
+-- a queued job, and a RUNNING job whose claim has expired is taken over after a restart.
+
+create table tenant_onboarding_jobs (
+    attempts integer not null,
+    created_at timestamp(6),
+    finished_at timestamp(6),
+    next_attempt_at timestamp(6) not null,
+    started_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    admin_generated_id varchar(255),
+    admin_password_hash varchar(255),
+    message TEXT,
+    request TEXT not null,
+    status varchar(255) not null check (status in ('QUEUED','RUNNING','SUCCEEDED','FAILED')),
+    tenant_code varchar(255),
+    tenant_generated_id varchar(255),
+    primary key (id)
+);
+
+-- Due jobs: TenantOnboardingJobRepository.findByStatusInAndNextAttemptAtLessThanEqual...
+create index idx_tenant_onboarding_jobs_due
+    on tenant_onboarding_jobs (status, next_attempt_at);
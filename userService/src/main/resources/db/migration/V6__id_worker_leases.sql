@@ -0,0 +1,9 @@
+-- Worker ids (0-255) for the generated-ID service, leased per running instance so two
+-- replicas never share one. Times are epoch milliseconds from the instances' clocks.
+
+create table id_worker_leases (
+    worker_id integer not null check (worker_id between 0 and 255),
+    expires_at bigint not null,
+    owner varchar(255) not null,
+    primary key (worker_id)
+);
@@ -0,0 +1,87 @@
+package com.vm2124.userService.controller;
+
+import com.vm2124.userService.dto.UserContext;
+import com.vm2124.userService.service.AuthenticationService;
+import com.vm2124.userService.service.JwtService;
+import com.vm2124.userService.service.PermissionEpochService;
+import com.vm2124.userService.service.TokenRevocationService;
+import com.vm2124.userService.service.TokenValidationService;
+import com.vm2124.userService.service.UserContextEnvelopeCodec;
+import com.vm2124.userService.service.UserContextService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AuthController.class)
+public class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TokenValidationService tokenValidationService;
+
+    @MockBean
+    private AuthenticationService authenticationService;
+
+    @MockBean
+    private UserContextService userContextService;
+
+    @MockBean
+    private PermissionEpochService permissionEpochService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    // Required by UserContextFilter, which @WebMvcTest picks up
+    @MockBean
+    private UserContext userContext;
+
+    @MockBean
+    private UserContextEnvelopeCodec userContextEnvelopeCodec;
+
+    @Test
+    public void testRevokeUserTokens_WithPermission() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/revocations/users/user-1").param("reason", "suspended"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        verify(userContextService).requirePermission("USER_DEACTIVATE");
+        verify(tokenRevocationService).revokeUser("user-1", "suspended");
+    }
+
+    @Test
+    public void testRevokeUserTokens_WithoutPermission() throws Exception {
+        doThrow(new SecurityException("Permission 'USER_DEACTIVATE' required"))
+                .when(userContextService).requirePermission("USER_DEACTIVATE");
+
+        mockMvc.perform(post("/api/v1/auth/revocations/users/user-1"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verify(tokenRevocationService, never()).revokeUser(anyString(), anyString());
+    }
+
+    @Test
+    public void testRevokeUserTokens_Unauthenticated() throws Exception {
+        doThrow(new SecurityException("Authentication required"))
+                .when(userContextService).requireAuthentication();
+
+        mockMvc.perform(post("/api/v1/auth/revocations/users/user-1"))
+                .andExpect(status().isUnauthorized());
+
+        verify(tokenRevocationService, never()).revokeUser(anyString(), anyString());
+    }
+}
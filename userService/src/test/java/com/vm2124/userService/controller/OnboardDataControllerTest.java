@@ -3,7 +3,9 @@ package com.vm2124.userService.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vm2124.userService.dto.OnboardDataRequest;
 import com.vm2124.userService.dto.OnboardDataResponse;
+import com.vm2124.userService.dto.UserContext;
 import com.vm2124.userService.service.OnboardDataService;
+import com.vm2124.userService.service.UserContextEnvelopeCodec;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -28,6 +30,13 @@ public class OnboardDataControllerTest {
     @MockBean
     private OnboardDataService onboardDataService;
     
+    // Required by UserContextFilter, which @WebMvcTest picks up
+    @MockBean
+    private UserContext userContext;
+    
+    @MockBean
+    private UserContextEnvelopeCodec userContextEnvelopeCodec;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -1,26 +1,42 @@
 package com.vm2124.userService.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.userService.dto.UserContext;
+import com.vm2124.userService.dto.TenantOnboardingJobStatus;
 import com.vm2124.userService.dto.TenantOnboardingRequest;
 import com.vm2124.userService.dto.TenantOnboardingResponse;
 import com.vm2124.userService.model.Tenant;
+import com.vm2124.userService.service.PasswordHashingService;
+import com.vm2124.userService.service.TenantBulkOnboardingService;
+import com.vm2124.userService.service.TenantOnboardingJobService;
 import com.vm2124.userService.service.TenantService;
+import com.vm2124.userService.service.UserContextEnvelopeCodec;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @WebMvcTest(TenantController.class)
+@Import(TenantBulkOnboardingService.class)
 public class TenantControllerTest {
     
     @Autowired
@@ -29,6 +45,16 @@ public class TenantControllerTest {
     @MockBean
     private TenantService tenantService;
     
+    @MockBean
+    private TenantOnboardingJobService tenantOnboardingJobService;
+    
+    // Required by UserContextFilter, which @WebMvcTest picks up
+    @MockBean
+    private UserContext userContext;
+    
+    @MockBean
+    private UserContextEnvelopeCodec userContextEnvelopeCodec;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -108,4 +134,112 @@ public class TenantControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Tenant code already exists"));
     }
+    
+    @Test
+    public void testOnboardTenantsBulk_StreamsOneResultPerLine() throws Exception {
+        // Given
+        TenantOnboardingRequest first = new TenantOnboardingRequest();
+        first.setTenantCode("BULK001");
+        first.setDomain("bulk1.com");
+        TenantOnboardingRequest second = new TenantOnboardingRequest();
+        second.setTenantCode("BULK002");
+        second.setDomain("bulk2.com");
+        
+        TenantOnboardingResponse created = new TenantOnboardingResponse();
+        created.setSuccess(true);
+        created.setMessage("Tenant onboarded successfully");
+        created.setTenantGeneratedId("TNT1234567");
+        created.setAdminGeneratedId("USR1234567");
+        TenantOnboardingResponse duplicate = new TenantOnboardingResponse();
+        duplicate.setSuccess(false);
+        duplicate.setMessage("Domain already exists: bulk2.com");
+        
+        when(tenantService.onboardTenants(anyList())).thenReturn(List.of(created, duplicate));
+        
+        String body = objectMapper.writeValueAsString(first) + "\n"
+                + "{not json\n"
+                + "\n"
+                + objectMapper.writeValueAsString(second) + "\n";
+        
+        // When & Then
+        String results = mockMvc.perform(post("/api/v1/tenants/onboard:bulk")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        
+        List<String> lines = results.lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"line\":2") && lines.get(0).contains("Malformed request"));
+        assertTrue(lines.get(1).contains("\"line\":1") && lines.get(1).contains("\"tenantGeneratedId\":\"TNT1234567\""));
+        assertTrue(lines.get(2).contains("\"line\":4") && lines.get(2).contains("\"success\":false"));
+    }
+    
+    @Test
+    public void testOnboardTenantAsync_QueuesJob() throws Exception {
+        // Given
+        TenantOnboardingRequest request = new TenantOnboardingRequest();
+        request.setTenantCode("ASYNC001");
+        request.setDomain("async.com");
+        request.setAdminPassword("password123");
+        
+        UUID jobId = UUID.randomUUID();
+        TenantOnboardingJobStatus queued = new TenantOnboardingJobStatus();
+        queued.setJobId(jobId);
+        queued.setStatus("QUEUED");
+        queued.setTenantCode("ASYNC001");
+        
+        when(tenantOnboardingJobService.enqueue(any(TenantOnboardingRequest.class))).thenReturn(queued);
+        
+        // When & Then
+        mockMvc.perform(post("/api/v1/tenants/onboard").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/tenants/onboard/jobs/" + jobId))
+                .andExpect(jsonPath("$.jobId").value(jobId.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+        verify(tenantService, never()).onboardTenant(any());
+    }
+    
+    @Test
+    public void testOnboardTenantAsync_HashingSaturated() throws Exception {
+        // Given
+        TenantOnboardingRequest request = new TenantOnboardingRequest();
+        request.setTenantCode("ASYNC002");
+        request.setAdminPassword("password123");
+        
+        when(tenantOnboardingJobService.enqueue(any(TenantOnboardingRequest.class)))
+                .thenThrow(new PasswordHashingService.SaturatedException());
+        
+        // When & Then
+        mockMvc.perform(post("/api/v1/tenants/onboard").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+    
+    @Test
+    public void testGetOnboardingJob() throws Exception {
+        // Given
+        UUID jobId = UUID.randomUUID();
+        TenantOnboardingJobStatus done = new TenantOnboardingJobStatus();
+        done.setJobId(jobId);
+        done.setStatus("SUCCEEDED");
+        done.setAttempts(1);
+        done.setTenantGeneratedId("TNT1234567");
+        
+        when(tenantOnboardingJobService.find(any(UUID.class))).thenReturn(Optional.empty());
+        when(tenantOnboardingJobService.find(jobId)).thenReturn(Optional.of(done));
+        
+        // When & Then
+        mockMvc.perform(get("/api/v1/tenants/onboard/jobs/" + jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.tenantGeneratedId").value("TNT1234567"));
+        mockMvc.perform(get("/api/v1/tenants/onboard/jobs/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,121 @@
+package com.vm2124.userService.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.userService.dto.BatchUserInfoRequest;
+import com.vm2124.userService.dto.UserContext;
+import com.vm2124.userService.model.User;
+import com.vm2124.userService.repository.UserRepository;
+import com.vm2124.userService.repository.UserTenantRoleRepository;
+import com.vm2124.userService.service.RoleCatalog;
+import com.vm2124.userService.service.TenantDataCache;
+import com.vm2124.userService.service.UserContextEnvelopeCodec;
+import com.vm2124.userService.service.UserInfoService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = UserController.class, properties = "user-info.batch.max-size=4")
+@Import(UserInfoService.class)
+public class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private UserTenantRoleRepository userTenantRoleRepository;
+
+    @MockBean(answer = Answers.RETURNS_DEEP_STUBS)
+    private RoleCatalog roleCatalog;
+
+    @MockBean
+    private TenantDataCache tenantDataCache;
+
+    // Required by UserContextFilter, which @WebMvcTest picks up
+    @MockBean
+    private UserContext userContext;
+
+    @MockBean
+    private UserContextEnvelopeCodec userContextEnvelopeCodec;
+
+    @Test
+    public void testGetUserInfoBatch_ResultsFollowRequestOrder() throws Exception {
+        // Given
+        User first = user("first");
+        User second = user("second");
+        String missing = UUID.randomUUID().toString();
+
+        // The database returns rows in its own order
+        when(userRepository.findAllById(any())).thenReturn(List.of(second, first));
+
+        // When & Then
+        mockMvc.perform(post("/api/users/info:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch(first.getId().toString(), "not-a-uuid", missing, second.getId().toString())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.users.length()").value(4))
+                .andExpect(jsonPath("$.users[0].user.username").value("first"))
+                .andExpect(jsonPath("$.users[1].message").value("Invalid user ID"))
+                .andExpect(jsonPath("$.users[2].message").value("User not found"))
+                .andExpect(jsonPath("$.users[3].user.username").value("second"));
+    }
+
+    @Test
+    public void testGetUserInfoBatch_TooManyIds() throws Exception {
+        mockMvc.perform(post("/api/users/info:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch("a", "b", "c", "d", "e")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("At most 4 user IDs per request"));
+
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    @Test
+    public void testGetUserInfoBatch_EmptyRequest() throws Exception {
+        mockMvc.perform(post("/api/users/info:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("userIds must not be empty"));
+    }
+
+    private String batch(String... userIds) throws Exception {
+        BatchUserInfoRequest request = new BatchUserInfoRequest();
+        request.setUserIds(List.of(userIds));
+        return objectMapper.writeValueAsString(request);
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setGeneratedId("USR" + username);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setTenantId("TNT0000001");
+        user.setStatus(User.UserStatus.ACTIVE);
+        return user;
+    }
+}
@@ -0,0 +1,67 @@
+package com.vm2124.userService.dto;
+
+import com.vm2124.userService.service.PermissionCatalog;
+import com.vm2124.userService.service.PermissionSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserContextTest {
+
+    private PermissionCatalog catalog;
+    private UserContext userContext;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new PermissionCatalog(List.of("USER_CREATE", "USER_READ", "USER_UPDATE", "ROLE_READ"));
+        userContext = new UserContext(catalog);
+        userContext.setEnvelopeSource(() -> new UserContextEnvelope("u-1", "USR0000001", "admin", "admin@example.com",
+                "Admin", null, true, "TNT0000001", "TNT0000001",
+                List.of("TENANT_ADMIN", "VIEWER"), List.of("USER_READ", "ROLE_READ", "CUSTOM_EXPORT"),
+                Instant.now().plusSeconds(60)));
+    }
+
+    @Test
+    void checksRoles() {
+        assertTrue(userContext.hasRole("VIEWER"));
+        assertFalse(userContext.hasRole("SUPER_ADMIN"));
+        assertTrue(userContext.hasAnyRole(List.of("SUPER_ADMIN", "TENANT_ADMIN")));
+        assertFalse(userContext.hasAnyRole(List.of("SUPER_ADMIN")));
+    }
+
+    @Test
+    void checksCatalogAndUncatalogedPermissions() {
+        assertTrue(userContext.hasPermission("USER_READ"));
+        assertFalse(userContext.hasPermission("USER_CREATE"));
+        assertTrue(userContext.hasPermission("CUSTOM_EXPORT"));
+        assertFalse(userContext.hasPermission("CUSTOM_IMPORT"));
+
+        assertTrue(userContext.hasAnyPermission(List.of("USER_CREATE", "ROLE_READ")));
+        assertTrue(userContext.hasAnyPermission(List.of("USER_CREATE", "CUSTOM_EXPORT")));
+        assertFalse(userContext.hasAnyPermission(List.of("USER_CREATE", "CUSTOM_IMPORT")));
+    }
+
+    @Test
+    void checksPrebuiltPermissionSets() {
+        PermissionSet readOnly = catalog.setOf(List.of("USER_READ", "ROLE_READ"));
+
+        assertTrue(userContext.hasAllPermissions(readOnly));
+        assertTrue(userContext.hasAnyPermission(catalog.setOf(List.of("USER_UPDATE", "USER_READ"))));
+        assertFalse(userContext.hasAllPermissions(catalog.setOf(List.of("USER_UPDATE", "USER_READ"))));
+    }
+
+    @Test
+    void unauthenticatedContextHasNothing() {
+        UserContext anonymous = new UserContext(catalog);
+
+        assertFalse(anonymous.isAuthenticated());
+        assertFalse(anonymous.hasRole("VIEWER"));
+        assertFalse(anonymous.hasPermission("USER_READ"));
+        assertFalse(anonymous.hasPermission("CUSTOM_EXPORT"));
+        assertFalse(anonymous.hasAnyPermission(List.of("USER_READ")));
+    }
+}
@@ -0,0 +1,94 @@
+package com.vm2124.userService.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Inserts into a table keyed by a uuid primary key, once with random version 4 keys and once
+ * with time-ordered version 7 keys, reporting rows per second for each slice of the load and
+ * the primary key index size at the end. Random keys land on a random index page, so as the
+ * index outgrows memory their inserts slow down and the index fills with half-empty pages;
+ * version 7 keys always append to the rightmost page.
+ *
+ * <p>Defaults to 2,000,000 rows in an in-memory H2 database. For figures that match
+ * production, point it at a scratch Postgres database:
+ * Run with: ./mvnw test -Dtest=UuidPrimaryKeyBenchmark -Dbenchmark=true
+ *   [-Dbenchmark.rows=10000000 -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/bench
+ *    -Dbenchmark.jdbc-user=postgres -Dbenchmark.jdbc-password=...]
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UuidPrimaryKeyBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int SLICES = 5;
+
+    @Test
+    void insertThroughputForRandomAndTimeOrderedKeys() throws Exception {
+        long rows = Long.getLong("benchmark.rows", 2_000_000L);
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:uuid_bench;DB_CLOSE_DELAY=-1");
+        try (Connection connection = DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc-user", "sa"), System.getProperty("benchmark.jdbc-password", ""))) {
+            connection.setAutoCommit(false);
+            System.out.printf("%,d rows per key type, batches of %,d, %s%n", rows, BATCH_SIZE, url);
+            run(connection, "uuid_bench_v4", UUID::randomUUID, rows);
+            run(connection, "uuid_bench_v7", UuidV7Generator::randomUuid, rows);
+        }
+    }
+
+    private static void run(Connection connection, String table, Supplier<UUID> keys, long rows) throws Exception {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            ddl.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, payload varchar(64))");
+        }
+        connection.commit();
+
+        StringBuilder line = new StringBuilder(table + ":");
+        long sliceRows = rows / SLICES;
+        long total = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, payload) VALUES (?, ?)")) {
+            for (int slice = 0; slice < SLICES; slice++) {
+                long start = System.nanoTime();
+                for (long i = 0; i < sliceRows; i++) {
+                    insert.setObject(1, keys.get());
+                    insert.setString(2, "payload-" + i);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+                line.append(String.format(" %,10.0f", sliceRows / ((System.nanoTime() - start) / 1e9)));
+            }
+        }
+        line.append(String.format(" rows/s per slice, %,.0f overall", sliceRows * SLICES / ((System.nanoTime() - total) / 1e9)));
+        String indexSize = indexSize(connection, table);
+        if (indexSize != null) {
+            line.append(", primary key index ").append(indexSize);
+        }
+        System.out.println(line);
+    }
+
+    private static String indexSize(Connection connection, String table) throws Exception {
+        if (!connection.getMetaData().getURL().startsWith("jdbc:postgresql:")) {
+            return null;
+        }
+        try (Statement query = connection.createStatement();
+             ResultSet rs = query.executeQuery("SELECT pg_size_pretty(pg_relation_size('" + table + "_pkey'))")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
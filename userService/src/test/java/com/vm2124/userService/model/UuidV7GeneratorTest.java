@@ -0,0 +1,75 @@
+package com.vm2124.userService.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    void carriesTheVersionVariantAndMillisecondTimestamp() {
+        UUID uuid = new UuidV7Generator.Source(() -> NOW).next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(NOW, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void increasesWithinAMillisecondAndBorrowsTheNextOneWhenTheCounterRunsOut() {
+        UuidV7Generator.Source source = new UuidV7Generator.Source(() -> NOW);
+        UUID previous = source.next();
+        for (int i = 0; i < 5_000; i++) {
+            UUID next = source.next();
+            // Postgres orders uuid values bytewise, as this unsigned comparison does
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+        assertEquals(NOW + 1, previous.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void clockSteppingBackDoesNotReorderIds() {
+        AtomicLong millis = new AtomicLong(NOW);
+        UuidV7Generator.Source source = new UuidV7Generator.Source(millis::get);
+        UUID before = source.next();
+
+        millis.addAndGet(-1_000);
+
+        assertTrue(Long.compareUnsigned(source.next().getMostSignificantBits(), before.getMostSignificantBits()) > 0);
+    }
+
+    @Test
+    void concurrentCallersNeverGetTheSameId() throws Exception {
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        assertTrue(seen.add(UuidV7Generator.randomUuid()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(400_000, seen.size());
+    }
+}
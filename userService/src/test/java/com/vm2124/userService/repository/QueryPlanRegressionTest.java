@@ -0,0 +1,156 @@
+package com.vm2124.userService.repository;
+
+import com.vm2124.userService.model.TenantOnboardingJob;
+import com.vm2124.userService.model.TokenRevocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot repository queries against a schema built by the Flyway migrations, then
+ * EXPLAINs the SQL Hibernate generated for each and fails if any of them scans a whole table.
+ * H2 in PostgreSQL mode stands in for Postgres: its plans name the index used, or report a
+ * {@code tableScan} when there is none. Hibernate validates the migrated schema against the
+ * entities on startup, so a mapping change without a matching migration fails here as well.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.vm2124.userService.repository.RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanRegressionTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTenantRoleRepository userTenantRoleRepository;
+
+    @Autowired
+    private TenantFeatureRepository tenantFeatureRepository;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private RolesRepository rolesRepository;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private TenantOnboardingJobRepository tenantOnboardingJobRepository;
+
+    @Test
+    void loginLooksUpUsersByEmailThroughAnIndex() {
+        assertIndexed(() -> userRepository.findByEmail("admin@example.com"));
+        assertIndexed(() -> userRepository.findByEmailAndTenantId("admin@example.com", "TNT0000001"));
+    }
+
+    @Test
+    void tenantScopedUserLookupsUseAnIndex() {
+        assertIndexed(() -> userRepository.findByUsernameAndTenantId("admin", "TNT0000001"));
+        assertIndexed(() -> userRepository.existsByUsernameAndTenantId("admin", "TNT0000001"));
+        assertIndexed(() -> userRepository.findByTenantId("TNT0000001"));
+    }
+
+    @Test
+    void roleAssignmentLookupsUseAnIndex() {
+        assertIndexed(() -> userTenantRoleRepository.findByUserId("123e4567-e89b-12d3-a456-426614174000"));
+        assertIndexed(() -> userTenantRoleRepository.findByUserIdIn(List.of("a", "b")));
+        assertIndexed(() -> userTenantRoleRepository.findByTenantId("TNT0000001"));
+    }
+
+    @Test
+    void tenantDataLookupsUseAnIndex() {
+        assertIndexed(() -> tenantRepository.findByGeneratedId("TNT0000001"));
+        assertIndexed(() -> tenantRepository.findByGeneratedIdIn(List.of("TNT0000001", "TNT0000002")));
+        assertIndexed(() -> tenantFeatureRepository.findByTenantId("TNT0000001"));
+        assertIndexed(() -> tenantFeatureRepository.findByTenantIdIn(List.of("TNT0000001", "TNT0000002")));
+        assertIndexed(() -> tenantFeatureRepository.findByTenantIdAndFeatureCode("TNT0000001", "SSO"));
+    }
+
+    @Test
+    void roleLookupsUseAnIndex() {
+        assertIndexed(() -> rolesRepository.findByGeneratedId("ROL0000001"));
+        assertIndexed(() -> rolesRepository.findByRoleCodeAndTenantId("TENANT_ADMIN", "TNT0000001"));
+    }
+
+    @Test
+    void revocationChecksUseAnIndex() {
+        assertIndexed(() -> tokenRevocationRepository.existsByRevocationTypeAndSubject(
+                TokenRevocation.RevocationType.TOKEN, "jti"));
+    }
+
+    @Test
+    void onboardingJobPollUsesAnIndex() {
+        assertIndexed(() -> tenantOnboardingJobRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                EnumSet.of(TenantOnboardingJob.Status.QUEUED, TenantOnboardingJob.Status.RUNNING),
+                LocalDateTime.now(), PageRequest.of(0, 2)));
+    }
+
+    @Test
+    void invitationTokenLookupUsesAnIndex() {
+        // No repository reads invitations yet; keep the lookup the accept flow will need covered
+        assertNoTableScan("select * from tenant_invitations where invitation_token = ?");
+    }
+
+    private void assertIndexed(Runnable repositoryCall) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        repositoryCall.run();
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        assertFalse(statements.isEmpty(), "Repository call issued no SQL");
+        statements.forEach(this::assertNoTableScan);
+    }
+
+    private void assertNoTableScan(String sql) {
+        String plan = explain(sql);
+        assertFalse(plan.toLowerCase(Locale.ROOT).contains("tablescan"),
+                () -> "Sequential scan in plan for:\n" + sql + "\nPlan:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.VARCHAR);
+                }
+                return readPlan(statement);
+            }
+        });
+    }
+
+    private static String readPlan(PreparedStatement statement) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
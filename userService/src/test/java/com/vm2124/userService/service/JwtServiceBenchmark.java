@@ -0,0 +1,66 @@
+package com.vm2124.userService.service;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the per-call cost of the old validate-then-extract path, which rebuilt
+ * the key and parser for every parse, with a single {@link JwtService#verify} call.
+ * Run with: ./mvnw test -Dtest=JwtServiceBenchmark -Dbenchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    @Test
+    void compareRebuildParserPerCallWithVerifyOnce() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", 3_600_000L);
+        jwtService.init();
+        String token = jwtService.generateToken("user-1", "TNT0000001", List.of("ROL0000001", "ROL0000002"));
+
+        Supplier<Object> rebuildPerCall = () -> {
+            // validateToken + extractUserId as they were: two parses, each deriving a new key and parser
+            Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                    .parseSignedClaims(token).getPayload().getExpiration();
+            return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                    .parseSignedClaims(token).getPayload().getSubject();
+        };
+        Supplier<Object> verifyOnce = () -> jwtService.verify(token);
+
+        double before = nanosPerCall(rebuildPerCall);
+        double after = nanosPerCall(verifyOnce);
+
+        System.out.printf("rebuild parser per call (2 parses): %,.0f ns/op%n", before);
+        System.out.printf("verify once (cached parser):        %,.0f ns/op%n", after);
+        System.out.printf("speedup: %.1fx%n", before / after);
+    }
+
+    private static double nanosPerCall(Supplier<Object> operation) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) {
+            throw new IllegalStateException("benchmark produced no result");
+        }
+        return (double) elapsed / MEASURED_ITERATIONS;
+    }
+}
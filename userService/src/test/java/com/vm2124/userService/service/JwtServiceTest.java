@@ -0,0 +1,71 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "test-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtService, "expiration", 60_000L);
+        jwtService.init();
+    }
+
+    @Test
+    void verifyReturnsTypedClaims() {
+        String token = jwtService.generateToken("user-1", "TNT0000001", List.of("ROL0000001"));
+
+        TokenClaims claims = jwtService.verify(token);
+
+        assertEquals("user-1", claims.subject());
+        assertEquals("TNT0000001", claims.tenantId());
+        assertEquals(List.of("ROL0000001"), claims.roles());
+        assertNotNull(claims.issuedAt());
+        assertTrue(claims.expiresAt().isAfter(claims.issuedAt()));
+    }
+
+    @Test
+    void verifyRejectsTamperedToken() {
+        String token = jwtService.generateToken("user-1", "TNT0000001", List.of());
+
+        assertThrows(JwtException.class, () -> jwtService.verify(token + "x"));
+    }
+
+    @Test
+    void verifyRejectsExpiredToken() {
+        ReflectionTestUtils.setField(jwtService, "expiration", -1_000L);
+        String token = jwtService.generateToken("user-1", "TNT0000001", List.of());
+
+        assertThrows(JwtException.class, () -> jwtService.verify(token));
+        assertFalse(jwtService.validateToken(token));
+    }
+
+    @Test
+    void extraClaimsAndExpiryFollowTheIssueInstant() {
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        String token = jwtService.generateToken("user-1", "TNT0000001", List.of("ROL0000001"),
+                Map.of(JwtService.PERMISSION_EPOCH_CLAIM, 42L, JwtService.TENANT_STATUS_CLAIM, "ACTIVE"), issuedAt);
+
+        Claims claims = jwtService.extractAllClaims(token);
+
+        assertEquals(42L, claims.get(JwtService.PERMISSION_EPOCH_CLAIM, Long.class));
+        assertEquals("ACTIVE", claims.get(JwtService.TENANT_STATUS_CLAIM, String.class));
+        assertEquals("TNT0000001", claims.get("tenantId", String.class));
+        assertEquals(jwtService.expiryFor(issuedAt), claims.getExpiration().toInstant());
+    }
+}
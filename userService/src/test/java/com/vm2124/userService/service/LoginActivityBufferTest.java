@@ -0,0 +1,136 @@
+package com.vm2124.userService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LoginActivityBufferTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginActivityBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new LoginActivityBuffer(jdbcTemplate, 2, meterRegistry);
+    }
+
+    @Test
+    void flushWritesAllPendingLoginsInOneStatement() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        buffer.recordLogin(first, NOW);
+        buffer.recordLogin(second, NOW.plusSeconds(1));
+
+        buffer.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(sql.capture(), args.capture());
+        assertTrue(sql.getValue().startsWith("UPDATE users AS u SET last_login_at = v.last_login_at FROM (VALUES "));
+        assertEquals(2, sql.getValue().split("CAST\\(\\? AS uuid\\)").length - 1);
+        List<Object> bound = Arrays.asList(args.getValue());
+        assertTrue(bound.containsAll(List.of(first, NOW, second, NOW.plusSeconds(1))));
+        assertEquals(0, buffer.pendingCount());
+        assertEquals(2, meterRegistry.get("login.activity.buffer.flushed").counter().count());
+    }
+
+    @Test
+    void repeatedLoginsKeepTheLatestTime() {
+        UUID user = UUID.randomUUID();
+        buffer.recordLogin(user, NOW.plusMinutes(5));
+        buffer.recordLogin(user, NOW);
+
+        buffer.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(anyString(), args.capture());
+        assertArrayEquals(new Object[]{user, NOW.plusMinutes(5)}, args.getValue());
+    }
+
+    @Test
+    void loginsBeyondCapacityAreCountedAsOverflow() {
+        UUID first = UUID.randomUUID();
+        buffer.recordLogin(first, NOW);
+        buffer.recordLogin(UUID.randomUUID(), NOW);
+        buffer.recordLogin(UUID.randomUUID(), NOW);
+        buffer.recordLogin(first, NOW.plusSeconds(1));
+
+        assertEquals(2, buffer.pendingCount());
+        assertEquals(1, meterRegistry.get("login.activity.buffer.overflow").counter().count());
+        assertEquals(2, meterRegistry.get("login.activity.buffer.pending").gauge().value());
+    }
+
+    @Test
+    void failedFlushKeepsEntriesForTheNextRun() {
+        buffer.recordLogin(UUID.randomUUID(), NOW);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+
+        buffer.flush();
+        assertEquals(1, buffer.pendingCount());
+        assertEquals(1, meterRegistry.get("login.activity.buffer.flush.failures").counter().count());
+
+        buffer.flush();
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void largeFlushIsSplitIntoStatementsThatSucceedOrFailOnTheirOwn() {
+        buffer = new LoginActivityBuffer(jdbcTemplate, 2500, meterRegistry);
+        for (int i = 0; i < 2500; i++) {
+            buffer.recordLogin(UUID.randomUUID(), NOW);
+        }
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenReturn(1000)
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(500);
+
+        buffer.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(3)).update(sql.capture(), any(Object[].class));
+        assertEquals(List.of(1000, 1000, 500), sql.getAllValues().stream()
+                .map(statement -> statement.split("CAST\\(\\? AS uuid\\)").length - 1)
+                .toList());
+        // Only the failed statement's users are left for the next run
+        assertEquals(1000, buffer.pendingCount());
+        assertEquals(1500, meterRegistry.get("login.activity.buffer.flushed").counter().count());
+        assertEquals(1, meterRegistry.get("login.activity.buffer.flush.failures").counter().count());
+    }
+
+    @Test
+    void emptyBufferDoesNotTouchTheDatabase() {
+        buffer.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shutdownDrainsPendingLogins() {
+        buffer.recordLogin(UUID.randomUUID(), NOW);
+
+        buffer.destroy();
+
+        verify(jdbcTemplate).update(anyString(), any(Object[].class));
+        assertEquals(0, buffer.pendingCount());
+    }
+}
@@ -0,0 +1,126 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.model.User;
+import com.vm2124.userService.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LoginAttemptTrackerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final String EMAIL = "user@example.com";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new LoginAttemptTracker(userRepository, jdbcTemplate, 3, Duration.ofMinutes(15), meterRegistry);
+    }
+
+    @Test
+    void locksAfterMaxFailuresUntilTheLockExpires() {
+        assertFalse(tracker.recordFailure(EMAIL, USER_ID, NOW));
+        assertFalse(tracker.recordFailure(EMAIL, USER_ID, NOW));
+        assertFalse(tracker.isLocked(EMAIL, NOW));
+
+        assertTrue(tracker.recordFailure(EMAIL, USER_ID, NOW));
+
+        assertTrue(tracker.isLocked(EMAIL, NOW.plusMinutes(14)));
+        assertFalse(tracker.isLocked(EMAIL, NOW.plusMinutes(15)));
+        assertFalse(tracker.isLocked("other@example.com", NOW));
+        assertEquals(1, meterRegistry.get("login.attempts.lockouts").counter().count());
+        assertEquals(1, meterRegistry.get("login.attempts.rejected.locked").counter().count());
+    }
+
+    @Test
+    void failuresAfterAnExpiredLockStartFromZero() {
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure(EMAIL, USER_ID, NOW);
+        }
+
+        assertFalse(tracker.recordFailure(EMAIL, USER_ID, NOW.plusMinutes(20)));
+        assertFalse(tracker.recordFailure(EMAIL, USER_ID, NOW.plusMinutes(20)));
+        assertTrue(tracker.recordFailure(EMAIL, USER_ID, NOW.plusMinutes(20)));
+    }
+
+    @Test
+    void successClearsFailures() {
+        tracker.recordFailure(EMAIL, USER_ID, NOW);
+        tracker.recordFailure(EMAIL, USER_ID, NOW);
+
+        tracker.recordSuccess(EMAIL);
+
+        assertFalse(tracker.recordFailure(EMAIL, USER_ID, NOW));
+        assertFalse(tracker.recordFailure(EMAIL, USER_ID, NOW));
+    }
+
+    @Test
+    void flushPersistsChangedAccountsInOneStatementAndForgetsCleanOnes() {
+        UUID otherId = UUID.randomUUID();
+        tracker.recordFailure(EMAIL, USER_ID, NOW);
+        tracker.recordFailure("other@example.com", otherId, NOW);
+        tracker.recordSuccess("other@example.com");
+
+        tracker.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(sql.capture(), args.capture());
+        assertTrue(sql.getValue().startsWith("UPDATE users AS u SET failed_login_attempts = v.failures"));
+        assertEquals(6, args.getValue().length);
+        assertEquals(1, tracker.trackedCount());
+
+        tracker.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        tracker.recordFailure(EMAIL, USER_ID, NOW);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+
+        tracker.flush();
+        tracker.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertArrayEquals(new Object[]{USER_ID, 1, null}, args.getValue());
+    }
+
+    @Test
+    void restoresPersistedLocksOnStartup() {
+        User locked = new User();
+        locked.setId(USER_ID);
+        locked.setEmail(EMAIL);
+        locked.setFailedLoginAttempts(0);
+        locked.setAccountLockedUntil(LocalDateTime.now().plusMinutes(10));
+        when(userRepository.findWithFailedLoginsOrLockedAfter(any())).thenReturn(List.of(locked));
+
+        tracker.restore();
+
+        assertTrue(tracker.isLocked(EMAIL));
+    }
+}
@@ -0,0 +1,71 @@
+package com.vm2124.userService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password verifications per second through {@link PasswordHashingService} at several BCrypt
+ * costs, with more concurrent callers than hashing threads, as a burst of logins would be.
+ * Each +1 in cost doubles the work per hash, so each step here should cut throughput about 4x.
+ * Run with: ./mvnw test -Dtest=PasswordHashingBenchmark -Dbenchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordHashingBenchmark {
+
+    private static final int[] COSTS = {8, 10, 12};
+    private static final int CALLERS = 32;
+    private static final long MEASURE_NANOS = 5_000_000_000L;
+
+    @Test
+    void loginThroughputAtSeveralCosts() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d hashing threads, %d concurrent callers%n", threads, CALLERS);
+        for (int cost : COSTS) {
+            PasswordHashingService service = new PasswordHashingService(
+                    new BCryptPasswordEncoder(cost), cost, threads, CALLERS, new SimpleMeterRegistry());
+            try {
+                String hash = service.encode("benchmark-password");
+                service.matches("benchmark-password", hash);
+                System.out.printf("cost %2d: %,8.1f logins/s%n", cost, verificationsPerSecond(service, hash));
+            } finally {
+                service.destroy();
+            }
+        }
+    }
+
+    private static double verificationsPerSecond(PasswordHashingService service, String hash) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        AtomicInteger completed = new AtomicInteger();
+        long deadline = System.nanoTime() + MEASURE_NANOS;
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(callers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        if (service.matches("benchmark-password", hash)) {
+                            completed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+        return completed.get() / ((System.nanoTime() - start) / 1e9);
+    }
+}
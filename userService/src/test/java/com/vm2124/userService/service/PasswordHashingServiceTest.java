@@ -0,0 +1,102 @@
+package com.vm2124.userService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void verifiesAndEncodesWithTheConfiguredCost() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), 4, 2, 4, meterRegistry);
+
+        String hash = service.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(service.matches("secret", hash));
+        assertFalse(service.matches("wrong", hash));
+    }
+
+    @Test
+    void hashesAtAnotherCostNeedRehashing() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(5), 5, 1, 1, meterRegistry);
+
+        assertTrue(service.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(service.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(service.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+        assertFalse(service.needsRehash("{noop}secret"));
+        assertFalse(service.needsRehash(null));
+    }
+
+    @Test
+    void rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = mock(PasswordEncoder.class);
+        when(blocking.matches(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        service = new PasswordHashingService(blocking, 10, 1, 1, meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> service.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> service.matches("b", "hash"));
+        waitForQueuedTask();
+
+        assertThrows(PasswordHashingService.SaturatedException.class, () -> service.matches("c", "hash"));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rehashInBackgroundStoresTheNewHash() throws Exception {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), 4, 1, 1, meterRegistry);
+        AtomicReference<String> stored = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        service.rehashInBackground("secret", hash -> {
+            stored.set(hash);
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(new BCryptPasswordEncoder(4).matches("secret", stored.get()));
+        assertFalse(service.needsRehash(stored.get()));
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() >= 1) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Second request never reached the queue");
+    }
+}
@@ -0,0 +1,94 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.TenantOnboardingRequest;
+import com.vm2124.userService.dto.TenantOnboardingResponse;
+import com.vm2124.userService.model.Tenant;
+import com.vm2124.userService.model.UserTenantRole;
+import com.vm2124.userService.repository.TenantRepository;
+import com.vm2124.userService.repository.UserTenantRoleRepository;
+import com.vm2124.userService.service.impl.IdWorkerLease;
+import com.vm2124.userService.service.impl.IdsGeneraterServiceImpl;
+import com.vm2124.userService.service.impl.TenantServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({PermissionEpochService.class, TenantServiceImpl.class, IdsGeneraterServiceImpl.class, IdWorkerLease.class})
+class PermissionEpochServiceTest {
+
+    @Autowired
+    private PermissionEpochService permissionEpochService;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private UserTenantRoleRepository userTenantRoleRepository;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockBean
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordHashingService.encode(anyString())).thenReturn("{bcrypt}hashed");
+    }
+
+    @Test
+    void onboardingAnotherTenantLeavesTokensCurrent() {
+        Tenant first = tenantRepository.findByGeneratedId(onboard("EPOCHA").getTenantGeneratedId()).orElseThrow();
+        first.setName("Renamed");
+        tenantRepository.saveAndFlush(first);
+        long epoch = permissionEpochService.currentEpoch();
+        assertTrue(epoch > 0);
+
+        onboard("EPOCHB");
+
+        assertEquals(epoch, permissionEpochService.currentEpoch());
+    }
+
+    @Test
+    void updatingAnAssignmentMovesTheEpoch() {
+        TenantOnboardingResponse onboarded = onboard("EPOCHC");
+        long epoch = permissionEpochService.currentEpoch();
+
+        UserTenantRole assignment = userTenantRoleRepository.findAll().stream()
+                .filter(role -> role.getTenantId().equals(onboarded.getTenantGeneratedId()))
+                .findFirst().orElseThrow();
+        assignment.setIsActive(false);
+        userTenantRoleRepository.saveAndFlush(assignment);
+
+        assertTrue(permissionEpochService.currentEpoch() > epoch);
+    }
+
+    private TenantOnboardingResponse onboard(String tenantCode) {
+        TenantOnboardingRequest request = new TenantOnboardingRequest();
+        request.setTenantCode(tenantCode);
+        request.setName("Tenant " + tenantCode);
+        request.setDomain(tenantCode.toLowerCase() + ".example.com");
+        request.setAdminUsername("admin");
+        request.setAdminEmail("admin@" + tenantCode.toLowerCase() + ".example.com");
+        request.setAdminFirstName("Admin");
+        request.setAdminLastName("User");
+        request.setAdminPassword("s3cret-password");
+        request.setEnabledModules(Set.of("USER_MANAGEMENT"));
+        TenantOnboardingResponse response = tenantService.onboardTenantOrThrow(request);
+        assertTrue(response.isSuccess(), response.getMessage());
+        return response;
+    }
+}
@@ -0,0 +1,92 @@
+package com.vm2124.userService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionSetTest {
+
+    @Test
+    void checksMembershipAcrossWords() {
+        PermissionSet set = PermissionSet.of(0, 63, 64, 130);
+
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(63));
+        assertTrue(set.contains(64));
+        assertTrue(set.contains(130));
+        assertFalse(set.contains(1));
+        assertFalse(set.contains(500));
+        assertFalse(set.contains(-1));
+        assertEquals(4, set.size());
+    }
+
+    @Test
+    void containsAnyAndAllCompareWordByWord() {
+        PermissionSet granted = PermissionSet.of(1, 5, 70);
+
+        assertTrue(granted.containsAny(PermissionSet.of(70, 200)));
+        assertFalse(granted.containsAny(PermissionSet.of(2, 200)));
+        assertTrue(granted.containsAll(PermissionSet.of(1, 70)));
+        assertFalse(granted.containsAll(PermissionSet.of(1, 200)));
+        assertTrue(granted.containsAll(PermissionSet.EMPTY));
+        assertFalse(PermissionSet.EMPTY.containsAny(granted));
+    }
+
+    @Test
+    void iteratesOrdinalsInOrder() {
+        PermissionSet set = PermissionSet.of(130, 3, 64).union(PermissionSet.of(7));
+
+        StringBuilder ordinals = new StringBuilder();
+        for (int ordinal = set.nextOrdinal(0); ordinal >= 0; ordinal = set.nextOrdinal(ordinal + 1)) {
+            ordinals.append(ordinal).append(' ');
+        }
+
+        assertEquals("3 7 64 130 ", ordinals.toString());
+    }
+
+    @Test
+    void roundTripsThroughLittleEndianBytes() {
+        PermissionSet set = PermissionSet.of(0, 9, 34);
+
+        byte[] bytes = set.toBytes(5);
+
+        assertArrayEquals(new byte[]{1, 2, 0, 0, 4}, bytes);
+        assertEquals(set, PermissionSet.fromBytes(bytes));
+        assertThrows(IllegalArgumentException.class, () -> set.toBytes(4));
+    }
+
+    @Test
+    void equalSetsIgnoreTrailingEmptyWords() {
+        PermissionSet padded = PermissionSet.fromBytes(new byte[]{6, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+
+        assertEquals(PermissionSet.of(1, 2), padded);
+        assertEquals(PermissionSet.of(1, 2).hashCode(), padded.hashCode());
+    }
+
+    @Test
+    void catalogMapsCodesToDenseOrdinals() {
+        PermissionCatalog catalog = new PermissionCatalog(List.of("USER_CREATE", "USER_READ", "ROLE_READ"));
+
+        PermissionSet set = catalog.setOf(List.of("ROLE_READ", "UNKNOWN", "USER_CREATE"));
+
+        assertEquals(PermissionSet.of(0, 2), set);
+        assertEquals(List.of("USER_CREATE", "ROLE_READ"), catalog.codesOf(set));
+    }
+
+    @Test
+    void databaseCodesFollowTheVersionedCodesAndLeaveTheFingerprintAlone() {
+        List<String> seed = List.of("USER_CREATE", "USER_READ", "ROLE_READ");
+        PermissionCatalog seedOnly = new PermissionCatalog(seed);
+        PermissionCatalog withDatabaseCodes = new PermissionCatalog(seed, List.of("ZETA_READ", "USER_READ", "ALPHA_READ"));
+
+        assertEquals(List.of("ALPHA_READ", "ZETA_READ"),
+                withDatabaseCodes.codesOf(withDatabaseCodes.setOf(List.of("ZETA_READ", "ALPHA_READ"))));
+        assertEquals(3, withDatabaseCodes.ordinalOf("ALPHA_READ"));
+        assertEquals(1, withDatabaseCodes.ordinalOf("USER_READ"));
+        assertEquals(3, withDatabaseCodes.versionedSize());
+        assertEquals(5, withDatabaseCodes.size());
+        assertEquals(seedOnly.fingerprint(), withDatabaseCodes.fingerprint());
+    }
+}
@@ -0,0 +1,132 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.model.RoleChangedEvent;
+import com.vm2124.userService.model.Roles;
+import com.vm2124.userService.repository.RolesRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RoleCatalogTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private RolesRepository repository;
+    private RoleCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RolesRepository.class);
+        when(repository.findLatestUpdatedAt()).thenReturn(UPDATED_AT);
+        when(repository.findActiveWithPermissions()).thenReturn(List.of(
+                role("ROL0000001", null, "SUPER_ADMIN", Set.of("USER_READ", "USER_CREATE")),
+                role("ROL0000002", "TNT0000001", "TENANT_ADMIN", Set.of("USER_CREATE", "USER_READ")),
+                role("ROL0000003", "TNT0000001", "VIEWER", Set.of("USER_READ"))));
+        catalog = new RoleCatalog(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void indexesRolesByGeneratedIdAndByCodeWithinTenant() {
+        RoleCatalog.Snapshot snapshot = catalog.rebuild();
+
+        assertEquals("TENANT_ADMIN", snapshot.byGeneratedId("ROL0000002").roleCode());
+        assertEquals("ROL0000001", snapshot.byCode("SUPER_ADMIN", null).generatedId());
+        assertEquals("ROL0000003", snapshot.byCode("VIEWER", "TNT0000001").generatedId());
+        assertNull(snapshot.byCode("VIEWER", "TNT0000002"));
+        assertEquals(List.of("VIEWER", "SUPER_ADMIN"),
+                snapshot.resolve(List.of("ROL0000003", "ROL9999999", "ROL0000001")).stream()
+                        .map(RoleCatalog.CatalogRole::roleCode)
+                        .toList());
+    }
+
+    @Test
+    void rolesWithEqualPermissionsShareOneSet() {
+        RoleCatalog.Snapshot snapshot = catalog.rebuild();
+
+        assertSame(snapshot.byGeneratedId("ROL0000001").permissionCodes(),
+                snapshot.byGeneratedId("ROL0000002").permissionCodes());
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.byGeneratedId("ROL0000003").permissionCodes().add("USER_DELETE"));
+    }
+
+    @Test
+    void rebuildSwapsInANewVersionAndLeavesOldSnapshotsIntact() {
+        RoleCatalog.Snapshot first = catalog.rebuild();
+        when(repository.findActiveWithPermissions()).thenReturn(List.of());
+
+        RoleCatalog.Snapshot second = catalog.rebuild();
+
+        assertEquals(first.version() + 1, second.version());
+        assertSame(second, catalog.snapshot());
+        assertNull(second.byGeneratedId("ROL0000001"));
+        assertNotNull(first.byGeneratedId("ROL0000001"));
+    }
+
+    @Test
+    void refreshIfStaleRebuildsOnlyWhenRolesChanged() {
+        catalog.refreshIfStale();
+        catalog.refreshIfStale();
+        assertEquals(1, catalog.snapshot().version());
+
+        when(repository.findLatestUpdatedAt()).thenReturn(UPDATED_AT.plusSeconds(1));
+        catalog.refreshIfStale();
+
+        assertEquals(2, catalog.snapshot().version());
+    }
+
+    @Test
+    void roleChangesInATransactionRebuildOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        catalog.onRoleChanged(new RoleChangedEvent("ROL0000001"));
+        catalog.onRoleChanged(new RoleChangedEvent("ROL0000002"));
+        assertEquals(0, catalog.snapshot().version());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1, catalog.snapshot().version());
+        verify(repository, times(1)).findActiveWithPermissions();
+    }
+
+    @Test
+    void rolledBackRoleChangesDoNotRebuild() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        catalog.onRoleChanged(new RoleChangedEvent("ROL0000001"));
+        TransactionSynchronizationManager.getSynchronizations().get(0)
+                .afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, catalog.snapshot().version());
+        verify(repository, never()).findActiveWithPermissions();
+    }
+
+    private static Roles role(String generatedId, String tenantId, String roleCode, Set<String> permissions) {
+        Roles role = new Roles();
+        role.setId(UUID.randomUUID());
+        role.setGeneratedId(generatedId);
+        role.setTenantId(tenantId);
+        role.setRoleCode(roleCode);
+        role.setRoleName(roleCode);
+        role.setPermissionCodes(permissions);
+        return role;
+    }
+}
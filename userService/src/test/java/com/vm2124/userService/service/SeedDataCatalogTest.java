@@ -0,0 +1,42 @@
+package com.vm2124.userService.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.userService.dto.ModuleData;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedDataCatalogTest {
+
+    private final SeedDataCatalog catalog = new SeedDataCatalog(new ObjectMapper());
+
+    @Test
+    void indexesEachCatalogByCodeInFileOrder() {
+        assertEquals(16, catalog.modules().size());
+        assertEquals(35, catalog.permissions().size());
+        assertEquals(5, catalog.roles().size());
+        assertEquals(16, catalog.features().size());
+
+        String firstPermission = catalog.permissions().keySet().iterator().next();
+        assertEquals(firstPermission, catalog.permissions().get(firstPermission).getCode());
+        catalog.roles().forEach((code, role) -> assertEquals(code, role.getCode()));
+        assertNull(catalog.modules().get("NO_SUCH_MODULE"));
+        assertTrue(catalog.roles().get("SUPER_ADMIN").isSystemRole());
+    }
+
+    @Test
+    void catalogsCannotBeModified() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> catalog.modules().put("EXTRA", new ModuleData("EXTRA", "Extra", "")));
+        assertThrows(UnsupportedOperationException.class, () -> catalog.roles().clear());
+    }
+
+    @Test
+    void checksumIsStableForTheSameSeedData() {
+        String checksum = catalog.checksum();
+
+        assertEquals(64, checksum.length());
+        assertTrue(checksum.matches("[0-9a-f]+"));
+        assertEquals(checksum, new SeedDataCatalog(new ObjectMapper()).checksum());
+    }
+}
@@ -0,0 +1,181 @@
+package com.vm2124.userService.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.userService.dto.CatalogDiff;
+import com.vm2124.userService.dto.FeatureData;
+import com.vm2124.userService.dto.RoleData;
+import com.vm2124.userService.model.RoleChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SystemCatalogSyncTest {
+
+    private static final SeedDataCatalog SEED = new SeedDataCatalog(new ObjectMapper());
+
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private SystemCatalogSync sync;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        IdsGeneraterService ids = mock(IdsGeneraterService.class);
+        when(ids.generateFeatureId()).thenReturn("FEA0000001");
+        when(ids.generateRoleId()).thenReturn("ROL0000001");
+        sync = new SystemCatalogSync(jdbcTemplate, SEED, ids, eventPublisher);
+    }
+
+    @Test
+    void emptyDatabaseGetsEveryFeatureInOneBatch() {
+        existing(SystemCatalogSync.SELECT_FEATURES, List.of());
+
+        CatalogDiff diff = sync.syncFeatures(SEED.features().keySet(), false);
+
+        assertEquals(List.copyOf(SEED.features().keySet()), List.copyOf(diff.getInserted()));
+        assertEquals(0, diff.getUnchanged());
+        verify(jdbcTemplate).batchUpdate(eq(SystemCatalogSync.UPSERT_FEATURE), argThat(
+                (List<Object[]> rows) -> rows.size() == SEED.features().size()));
+    }
+
+    @Test
+    void upToDateDatabaseIsNotWritten() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        SEED.features().values().forEach(feature -> rows.add(featureRow(feature, true)));
+        existing(SystemCatalogSync.SELECT_FEATURES, rows);
+
+        CatalogDiff features = sync.syncFeatures(SEED.features().keySet(), true);
+        // Modules seed the same rows and defer to the feature entries
+        CatalogDiff modules = sync.syncFeatures(SEED.modules().keySet(), true);
+
+        assertEquals(SEED.features().size(), features.getUnchanged());
+        assertEquals(SEED.modules().size(), modules.getUnchanged());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void syncUpdatesChangedRowsAndDeactivatesRowsNoLongerSeeded() {
+        FeatureData first = SEED.features().values().iterator().next();
+        FeatureData renamed = new FeatureData(first.getCode(), "Old name", first.getDescription(),
+                first.getType(), first.isSystemFeature());
+        FeatureData retired = new FeatureData("RETIRED", "Retired", "", "BOOLEAN", true);
+        existing(SystemCatalogSync.SELECT_FEATURES, List.of(featureRow(renamed, true), featureRow(retired, true)));
+
+        CatalogDiff insertOnly = sync.syncFeatures(Set.of(first.getCode()), false);
+        assertTrue(insertOnly.getUpdated().isEmpty());
+        assertTrue(insertOnly.getDeactivated().isEmpty());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        CatalogDiff diff = sync.syncFeatures(Set.of(first.getCode()), true);
+
+        assertEquals(Set.of(first.getCode()), diff.getUpdated());
+        assertEquals(Set.of("RETIRED"), diff.getDeactivated());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> written = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(SystemCatalogSync.UPSERT_FEATURE), written.capture());
+        assertEquals(2, written.getValue().size());
+        assertEquals(first.getName(), written.getValue().get(0)[3]);
+        // Deactivated rows keep their values apart from is_enabled
+        assertEquals("Retired", written.getValue().get(1)[3]);
+        assertEquals(false, written.getValue().get(1)[5]);
+    }
+
+    @Test
+    void alreadyDeactivatedRowsAreLeftAlone() {
+        FeatureData retired = new FeatureData("RETIRED", "Retired", "", "BOOLEAN", true);
+        existing(SystemCatalogSync.SELECT_FEATURES, List.of(featureRow(retired, false)));
+
+        CatalogDiff diff = sync.syncFeatures(Set.of(), true);
+
+        assertTrue(diff.getDeactivated().isEmpty());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void rolePermissionChangesAreWrittenAsGrantsAndRevokes() {
+        RoleData guest = SEED.roles().get("GUEST");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(roleRow(guest, "LEGACY_PERMISSION"));
+        guest.getPermissions().stream().skip(1).forEach(permission -> rows.add(roleRow(guest, permission)));
+        existing(SystemCatalogSync.SELECT_ROLES, rows);
+
+        CatalogDiff diff = sync.syncRoles(Set.of("GUEST"), true);
+
+        assertEquals(Set.of("GUEST"), diff.getUpdated());
+        verify(jdbcTemplate).batchUpdate(eq(SystemCatalogSync.UPSERT_ROLE), argThat(
+                (List<Object[]> written) -> written.size() == 1));
+        verify(jdbcTemplate).batchUpdate(eq(SystemCatalogSync.INSERT_ROLE_PERMISSION), argThat(
+                (List<Object[]> grants) -> grants.size() == 1 && grants.get(0)[0].equals(guest.getPermissions().get(0))));
+        verify(jdbcTemplate).batchUpdate(eq(SystemCatalogSync.DELETE_ROLE_PERMISSION), argThat(
+                (List<Object[]> revokes) -> revokes.size() == 1 && revokes.get(0)[0].equals("LEGACY_PERMISSION")));
+        verify(eventPublisher).publishEvent(any(RoleChangedEvent.class));
+    }
+
+    private void existing(String sql, List<Map<String, Object>> rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map<String, Object> row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(sql), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet resultSet(Map<String, Object> row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(anyString())).thenAnswer(i -> (String) row.get(i.<String>getArgument(0)));
+        when(rs.getBoolean(anyString())).thenAnswer(i -> Boolean.TRUE.equals(row.get(i.<String>getArgument(0))));
+        when(rs.getInt(anyString())).thenAnswer(i -> (Integer) row.get(i.<String>getArgument(0)));
+        when(rs.getObject("id", UUID.class)).thenReturn((UUID) row.get("id"));
+        return rs;
+    }
+
+    private static Map<String, Object> featureRow(FeatureData feature, boolean enabled) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", UUID.nameUUIDFromBytes(feature.getCode().getBytes()));
+        row.put("generated_id", "FEA" + feature.getCode().hashCode());
+        row.put("feature_code", feature.getCode());
+        row.put("feature_name", feature.getName());
+        row.put("description", feature.getDescription());
+        row.put("is_enabled", enabled);
+        row.put("feature_type", feature.getType());
+        row.put("is_system_feature", feature.isSystemFeature());
+        return row;
+    }
+
+    private static Map<String, Object> roleRow(RoleData role, String permission) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", UUID.nameUUIDFromBytes(role.getCode().getBytes()));
+        row.put("generated_id", "ROL" + role.getCode().hashCode());
+        row.put("role_code", role.getCode());
+        row.put("role_name", role.getName());
+        row.put("description", role.getDescription());
+        row.put("is_system_role", role.isSystemRole());
+        row.put("is_default", role.isDefault());
+        row.put("is_active", true);
+        row.put("role_type", role.getRoleType());
+        row.put("priority", role.getPriority());
+        row.put("permission_code", permission);
+        return row;
+    }
+}
@@ -0,0 +1,119 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.UserInfoDto;
+import com.vm2124.userService.model.Tenant;
+import com.vm2124.userService.model.TenantChangedEvent;
+import com.vm2124.userService.model.TenantFeature;
+import com.vm2124.userService.repository.TenantFeatureRepository;
+import com.vm2124.userService.repository.TenantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class TenantDataCacheTest {
+
+    private TenantRepository tenantRepository;
+    private TenantFeatureRepository tenantFeatureRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TenantDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tenantRepository = mock(TenantRepository.class);
+        tenantFeatureRepository = mock(TenantFeatureRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TenantDataCache(tenantRepository, tenantFeatureRepository, 100, Duration.ofMinutes(10), meterRegistry);
+
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        tenant.setGeneratedId("TNT0000001");
+        tenant.setName("Acme");
+        when(tenantRepository.findByGeneratedId("TNT0000001")).thenReturn(Optional.of(tenant));
+        when(tenantFeatureRepository.findByTenantId("TNT0000001")).thenReturn(List.of(
+                feature("SSO", true), feature("AUDIT", false), feature("REPORTS", true)));
+    }
+
+    @Test
+    void assemblesTenantDataOnceAndServesItFromCache() {
+        UserInfoDto.TenantData first = cache.get("TNT0000001");
+        UserInfoDto.TenantData second = cache.get("TNT0000001");
+
+        assertSame(first, second);
+        assertEquals("Acme", first.getName());
+        assertEquals(List.of("SSO", "REPORTS"), first.getEnabledModules());
+        assertEquals(Boolean.TRUE, first.getConfiguration().get("isActive"));
+        verify(tenantRepository, times(1)).findByGeneratedId("TNT0000001");
+        verify(tenantFeatureRepository, times(1)).findByTenantId("TNT0000001");
+    }
+
+    @Test
+    void tenantChangeEvictsTheEntry() {
+        cache.get("TNT0000001");
+
+        cache.onTenantChanged(new TenantChangedEvent("TNT0000001"));
+        cache.get("TNT0000001");
+
+        verify(tenantRepository, times(2)).findByGeneratedId("TNT0000001");
+    }
+
+    @Test
+    void unknownTenantsAreNotCached() {
+        when(tenantRepository.findByGeneratedId("TNT9999999")).thenReturn(Optional.empty());
+
+        assertNull(cache.get("TNT9999999"));
+        assertNull(cache.get("TNT9999999"));
+        assertNull(cache.get(null));
+
+        verify(tenantRepository, times(2)).findByGeneratedId("TNT9999999");
+    }
+
+    @Test
+    void getAllLoadsOnlyMissingTenantsInBulk() {
+        Tenant other = new Tenant();
+        other.setId(UUID.randomUUID());
+        other.setGeneratedId("TNT0000002");
+        other.setName("Globex");
+        when(tenantRepository.findByGeneratedIdIn(argThat(ids -> Set.copyOf(ids).equals(Set.of("TNT0000002", "TNT9999999")))))
+                .thenReturn(List.of(other));
+        when(tenantFeatureRepository.findByTenantIdIn(List.of("TNT0000002"))).thenReturn(List.of());
+        cache.get("TNT0000001");
+
+        Map<String, UserInfoDto.TenantData> tenants = cache.getAll(Arrays.asList("TNT0000001", "TNT0000002", null, "TNT9999999"));
+
+        assertEquals(Set.of("TNT0000001", "TNT0000002"), tenants.keySet());
+        assertEquals("Globex", tenants.get("TNT0000002").getName());
+        assertEquals(List.of(), tenants.get("TNT0000002").getEnabledModules());
+        verify(tenantRepository, times(1)).findByGeneratedId("TNT0000001");
+    }
+
+    @Test
+    void reportsHitRatio() {
+        cache.get("TNT0000001");
+        cache.get("TNT0000001");
+        cache.get("TNT0000001");
+        cache.get("TNT0000001");
+
+        assertEquals(0.75, meterRegistry.get("tenant.metadata.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    private static TenantFeature feature(String code, boolean enabled) {
+        TenantFeature feature = new TenantFeature();
+        feature.setTenantId("TNT0000001");
+        feature.setFeatureCode(code);
+        feature.setFeatureName(code);
+        feature.setIsEnabled(enabled);
+        return feature;
+    }
+}
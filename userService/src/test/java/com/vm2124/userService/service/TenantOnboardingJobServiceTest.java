@@ -0,0 +1,243 @@
+package com.vm2124.userService.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vm2124.userService.dto.TenantOnboardingJobStatus;
+import com.vm2124.userService.dto.TenantOnboardingRequest;
+import com.vm2124.userService.dto.TenantOnboardingResponse;
+import com.vm2124.userService.model.TenantOnboardingJob;
+import com.vm2124.userService.model.User;
+import com.vm2124.userService.repository.TenantOnboardingJobRepository;
+import com.vm2124.userService.repository.UserRepository;
+import com.vm2124.userService.service.impl.IdWorkerLease;
+import com.vm2124.userService.service.impl.IdsGeneraterServiceImpl;
+import com.vm2124.userService.service.impl.TenantServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs jobs against the migrated schema. Each test commits, as the workers do, and clears the
+ * tables afterwards; {@code dispatch()} is called directly instead of on a schedule.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tenant-onboarding.jobs.max-attempts=2",
+        "tenant-onboarding.jobs.retry-backoff=0s"
+})
+@Import({TenantOnboardingJobService.class, TenantServiceImpl.class, IdsGeneraterServiceImpl.class,
+        IdWorkerLease.class, ObjectMapper.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TenantOnboardingJobServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private TenantOnboardingJobService jobService;
+
+    @Autowired
+    private TenantOnboardingJobRepository jobRepository;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockBean
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordHashingService.encode(anyString())).thenReturn("{bcrypt}hashed");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[] {"tenant_onboarding_jobs", "user_tenant_roles", "role_permissions",
+                "roles", "users", "tenant_features", "tenants"}) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void queuedJobOnboardsTheTenantWithThePasswordHashedAtEnqueue() throws Exception {
+        TenantOnboardingJobStatus queued = jobService.enqueue(request("JOB001"));
+
+        assertEquals("QUEUED", queued.getStatus());
+        TenantOnboardingJob stored = jobRepository.findById(queued.getJobId()).orElseThrow();
+        assertFalse(stored.getRequest().contains("s3cret-password"), stored.getRequest());
+        assertEquals("{bcrypt}hashed", stored.getAdminPasswordHash());
+
+        jobService.dispatch();
+        TenantOnboardingJobStatus done = awaitFinished(queued.getJobId(), 1);
+
+        assertEquals("SUCCEEDED", done.getStatus(), done.getMessage());
+        assertNotNull(done.getTenantGeneratedId());
+        assertNotNull(done.getFinishedAt());
+        assertNull(jobRepository.findById(queued.getJobId()).orElseThrow().getAdminPasswordHash());
+        assertEquals("{bcrypt}hashed", userRepository.findByGeneratedId(done.getAdminGeneratedId())
+                .orElseThrow().getPassword());
+    }
+
+    @Test
+    void rejectedRequestFailsWithoutRetrying() throws Exception {
+        UUID first = jobService.enqueue(request("JOB002")).getJobId();
+        jobService.dispatch();
+        awaitFinished(first, 1);
+
+        UUID duplicate = jobService.enqueue(request("JOB002")).getJobId();
+        jobService.dispatch();
+        TenantOnboardingJobStatus done = awaitFinished(duplicate, 1);
+
+        assertEquals("FAILED", done.getStatus());
+        assertTrue(done.getMessage().contains("Tenant code already exists"), done.getMessage());
+        assertEquals(1, done.getAttempts());
+    }
+
+    @Test
+    void rejectedAttemptLeavesNoTenantBehind() throws Exception {
+        // Rejected after the tenant and its modules are written, as a clashing admin user is
+        doReturn(true).when(userRepository).existsByEmailAndTenantId(anyString(), anyString());
+        UUID rejected = jobService.enqueue(request("JOB006")).getJobId();
+        jobService.dispatch();
+        TenantOnboardingJobStatus done = awaitFinished(rejected, 1);
+
+        assertEquals("FAILED", done.getStatus());
+        assertTrue(done.getMessage().contains("Email already exists"), done.getMessage());
+        assertEquals(1, done.getAttempts());
+        assertEquals(0, count("tenants"));
+        assertEquals(0, count("tenant_features"));
+
+        // Resubmitting once the cause is fixed is not blocked by a half-onboarded tenant
+        reset(userRepository);
+        UUID resubmitted = jobService.enqueue(request("JOB006")).getJobId();
+        jobService.dispatch();
+        assertEquals("SUCCEEDED", awaitFinished(resubmitted, 1).getStatus());
+    }
+
+    @Test
+    void attemptThatThrowsIsRolledBackAndRetriedUntilMaxAttempts() throws Exception {
+        // Fails after the tenant and its modules are written
+        doThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+                .when(userRepository).save(any(User.class));
+        UUID recovers = jobService.enqueue(request("JOB003")).getJobId();
+
+        jobService.dispatch();
+        TenantOnboardingJobStatus retrying = awaitFinished(recovers, 1);
+        assertEquals("QUEUED", retrying.getStatus());
+        assertEquals("canceling statement due to statement timeout", retrying.getMessage());
+        assertEquals(0, count("tenants"));
+        assertEquals(0, count("tenant_features"));
+
+        reset(userRepository);
+        jobService.dispatch();
+        assertEquals("SUCCEEDED", awaitFinished(recovers, 2).getStatus());
+
+        doThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+                .when(userRepository).save(any(User.class));
+        UUID givesUp = jobService.enqueue(request("JOB004")).getJobId();
+        jobService.dispatch();
+        awaitFinished(givesUp, 1);
+        jobService.dispatch();
+        TenantOnboardingJobStatus failed = awaitFinished(givesUp, 2);
+
+        assertEquals("FAILED", failed.getStatus());
+        assertTrue(failed.getMessage().startsWith("Failed after 2 attempts"), failed.getMessage());
+    }
+
+    @Test
+    void synchronousOnboardingThatFailsLeavesNoTenantBehind() {
+        doThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+                .when(userRepository).save(any(User.class));
+
+        TenantOnboardingResponse response = tenantService.onboardTenant(request("SYNC001"));
+
+        assertFalse(response.isSuccess());
+        assertTrue(response.getMessage().contains("statement timeout"), response.getMessage());
+        assertEquals(0, count("tenants"));
+        assertEquals(0, count("tenant_features"));
+    }
+
+    @Test
+    void runningJobIsTakenOverOnlyOnceItsClaimExpires() throws Exception {
+        UUID jobId = jobService.enqueue(request("JOB005")).getJobId();
+        // As left by an instance that claimed the job and stopped
+        markRunning(jobId, LocalDateTime.now().plusMinutes(5));
+
+        jobService.dispatch();
+        assertEquals(1, jobRepository.findById(jobId).orElseThrow().getAttempts());
+
+        markRunning(jobId, LocalDateTime.now().minusSeconds(1));
+        jobService.dispatch();
+        TenantOnboardingJobStatus done = awaitFinished(jobId, 2);
+
+        assertEquals("SUCCEEDED", done.getStatus(), done.getMessage());
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private void markRunning(UUID jobId, LocalDateTime claimUntil) {
+        TenantOnboardingJob job = jobRepository.findById(jobId).orElseThrow();
+        job.setStatus(TenantOnboardingJob.Status.RUNNING);
+        job.setAttempts(1);
+        job.setNextAttemptAt(claimUntil);
+        jobRepository.save(job);
+    }
+
+    private TenantOnboardingJobStatus awaitFinished(UUID jobId, int attempt) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            TenantOnboardingJobStatus status = jobService.find(jobId).orElseThrow();
+            if (status.getAttempts() >= attempt && !"RUNNING".equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        fail("Onboarding job " + jobId + " did not finish attempt " + attempt);
+        return null;
+    }
+
+    private static TenantOnboardingRequest request(String tenantCode) {
+        TenantOnboardingRequest request = new TenantOnboardingRequest();
+        request.setTenantCode(tenantCode);
+        request.setName("Tenant " + tenantCode);
+        request.setDomain(tenantCode.toLowerCase() + ".example.com");
+        request.setAdminUsername("admin");
+        request.setAdminEmail("admin@" + tenantCode.toLowerCase() + ".example.com");
+        request.setAdminFirstName("Admin");
+        request.setAdminLastName("User");
+        request.setAdminPassword("s3cret-password");
+        request.setEnabledModules(Set.of("USER_MANAGEMENT"));
+        return request;
+    }
+}
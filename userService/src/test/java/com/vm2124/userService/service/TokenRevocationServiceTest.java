@@ -0,0 +1,110 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.RevocationFeed;
+import com.vm2124.userService.dto.TokenClaims;
+import com.vm2124.userService.model.TokenRevocation;
+import com.vm2124.userService.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private TokenRevocationRepository repository;
+    private JwtService jwtService;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenRevocationRepository.class);
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "test-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtService, "expiration", 60_000L);
+        jwtService.init();
+        service = new TokenRevocationService(repository, jwtService);
+    }
+
+    @Test
+    void revokeTokenRecordsItsJtiUntilItExpires() {
+        TokenClaims claims = jwtService.verify(jwtService.generateToken("user-1", "TNT0000001", List.of()));
+
+        service.revokeToken(claims, "logout");
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(repository).save(saved.capture());
+        assertEquals(TokenRevocation.RevocationType.TOKEN, saved.getValue().getRevocationType());
+        assertNotNull(claims.tokenId());
+        assertEquals(claims.tokenId(), saved.getValue().getSubject());
+        assertEquals(claims.expiresAt(), saved.getValue().getExpiresAt());
+        verify(repository).deleteByExpiresAtBefore(any());
+    }
+
+    @Test
+    void revokeUserCoversEveryTokenIssuedSoFar() {
+        Instant before = Instant.now();
+
+        service.revokeUser("user-1", "suspended");
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(repository).save(saved.capture());
+        TokenRevocation revocation = saved.getValue();
+        assertEquals(TokenRevocation.RevocationType.USER, revocation.getRevocationType());
+        assertTrue(revocation.getIssuedBefore().isAfter(before));
+        assertEquals(jwtService.expiryFor(revocation.getIssuedBefore()), revocation.getExpiresAt());
+    }
+
+    @Test
+    void tokenIssuedEarlierInTheSecondOfARevocationIsCovered() {
+        TokenClaims issued = jwtService.verify(jwtService.generateToken("user-1", "TNT0000001", List.of()));
+        service.revokeUser("user-1", "suspended");
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(repository).save(saved.capture());
+        Instant cutoff = saved.getValue().getIssuedBefore();
+        assertEquals(0, cutoff.getNano());
+        // The repository matches cutoff > iat
+        assertTrue(cutoff.isAfter(issued.issuedAt()));
+    }
+
+    @Test
+    void isRevokedChecksTheJtiAndTheUserCutoff() {
+        TokenClaims claims = jwtService.verify(jwtService.generateToken("user-1", "TNT0000001", List.of()));
+        when(repository.existsByRevocationTypeAndSubjectAndIssuedBeforeAfter(
+                eq(TokenRevocation.RevocationType.USER), eq("user-1"), eq(claims.issuedAt()))).thenReturn(true);
+
+        assertTrue(service.isRevoked(claims));
+        verify(repository).existsByRevocationTypeAndSubject(TokenRevocation.RevocationType.TOKEN, claims.tokenId());
+    }
+
+    @Test
+    void feedAdvancesToTheLastRevisionReturned() {
+        TokenRevocation first = revocation(4L, "jti-1");
+        TokenRevocation second = revocation(7L, "jti-2");
+        when(repository.findByRevisionGreaterThanAndExpiresAtAfterOrderByRevision(eq(3L), any()))
+                .thenReturn(List.of(first, second));
+
+        RevocationFeed feed = service.changesSince(3L);
+
+        assertEquals(7L, feed.revision());
+        assertEquals(List.of("jti-1", "jti-2"), feed.revocations().stream().map(RevocationFeed.Entry::subject).toList());
+        assertEquals(9L, service.changesSince(9L).revision());
+    }
+
+    private static TokenRevocation revocation(long revision, String jti) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setRevision(revision);
+        revocation.setRevocationType(TokenRevocation.RevocationType.TOKEN);
+        revocation.setSubject(jti);
+        revocation.setExpiresAt(Instant.now().plusSeconds(60));
+        return revocation;
+    }
+}
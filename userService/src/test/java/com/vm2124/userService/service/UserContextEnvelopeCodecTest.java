@@ -0,0 +1,97 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.UserContextEnvelope;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserContextEnvelopeCodecTest {
+
+    private static final String KEY = "test-secret-key-that-is-long-enough-for-hs256";
+
+    private final PermissionCatalog catalog = new PermissionCatalog(List.of("USER_CREATE", "USER_READ", "USER_UPDATE", "ROLE_READ"));
+    private final UserContextEnvelopeCodec codec = new UserContextEnvelopeCodec(catalog, KEY);
+
+    @Test
+    void roundTripsEveryField() {
+        UserContextEnvelope envelope = envelope(List.of("USER_READ", "ROLE_READ", "CUSTOM_EXPORT"));
+
+        UserContextEnvelope decoded = codec.decode(codec.encode(envelope));
+
+        assertEquals(envelope.userId(), decoded.userId());
+        assertEquals(envelope.userGeneratedId(), decoded.userGeneratedId());
+        assertEquals(envelope.username(), decoded.username());
+        assertEquals(envelope.email(), decoded.email());
+        assertEquals(envelope.firstName(), decoded.firstName());
+        assertNull(decoded.lastName());
+        assertTrue(decoded.active());
+        assertEquals(envelope.tenantId(), decoded.tenantId());
+        assertEquals(envelope.tenantGeneratedId(), decoded.tenantGeneratedId());
+        assertEquals(envelope.roles(), decoded.roles());
+        assertEquals(List.of("USER_READ", "ROLE_READ", "CUSTOM_EXPORT"), decoded.permissions());
+        assertEquals(envelope.expiresAt(), decoded.expiresAt());
+    }
+
+    @Test
+    void rejectsTamperedEnvelope() {
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.encode(envelope(List.of("USER_READ"))));
+        bytes[10] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(tampered));
+    }
+
+    @Test
+    void rejectsEnvelopeSignedWithAnotherKey() {
+        UserContextEnvelopeCodec other = new UserContextEnvelopeCodec(catalog, "another-secret-key-that-is-long-enough");
+        String encoded = other.encode(envelope(List.of("USER_READ")));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void rejectsExpiredEnvelope() {
+        UserContextEnvelope expired = new UserContextEnvelope("u", "USR0000001", "a", "a@b.c", null, null, true,
+                "TNT0000001", "TNT0000001", List.of(), List.of(), Instant.now().minusSeconds(5));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(codec.encode(expired)));
+    }
+
+    @Test
+    void rejectsEnvelopeFromDifferentCatalog() {
+        PermissionCatalog reordered = new PermissionCatalog(List.of("USER_READ", "USER_CREATE", "USER_UPDATE", "ROLE_READ"));
+        String encoded = new UserContextEnvelopeCodec(reordered, KEY).encode(envelope(List.of("USER_READ")));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void replicasWithDifferentDatabaseCodesReadEachOthersEnvelopes() {
+        List<String> seed = List.of("USER_CREATE", "USER_READ", "USER_UPDATE", "ROLE_READ");
+        // Started before and after BILLING_READ was added to the permissions table
+        PermissionCatalog before = new PermissionCatalog(seed, List.of("AUDIT_EXPORT"));
+        PermissionCatalog after = new PermissionCatalog(seed, List.of("BILLING_READ", "AUDIT_EXPORT"));
+        UserContextEnvelopeCodec oldReplica = new UserContextEnvelopeCodec(before, KEY);
+        UserContextEnvelopeCodec newReplica = new UserContextEnvelopeCodec(after, KEY);
+        List<String> permissions = List.of("USER_READ", "BILLING_READ", "AUDIT_EXPORT");
+
+        assertEquals(before.fingerprint(), after.fingerprint());
+        assertEquals(Set.copyOf(permissions),
+                Set.copyOf(oldReplica.decode(newReplica.encode(envelope(permissions))).permissions()));
+        assertEquals(Set.copyOf(permissions),
+                Set.copyOf(newReplica.decode(oldReplica.encode(envelope(permissions))).permissions()));
+    }
+
+    private static UserContextEnvelope envelope(List<String> permissions) {
+        return new UserContextEnvelope("123e4567-e89b-12d3-a456-426614174000", "USR1234567", "admin@example.com",
+                "admin@example.com", "Admin", null, true, "TNT1234567", "TNT1234567",
+                List.of("SUPER_ADMIN", "TENANT_ADMIN"), permissions,
+                Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS));
+    }
+}
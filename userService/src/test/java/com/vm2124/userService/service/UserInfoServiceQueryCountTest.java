@@ -0,0 +1,183 @@
+package com.vm2124.userService.service;
+
+import com.vm2124.userService.dto.UserInfoDto;
+import com.vm2124.userService.model.Roles;
+import com.vm2124.userService.model.Tenant;
+import com.vm2124.userService.model.TenantChangedEvent;
+import com.vm2124.userService.model.User;
+import com.vm2124.userService.model.UserTenantRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({UserInfoService.class, RoleCatalog.class, TenantDataCache.class, SimpleMeterRegistry.class})
+class UserInfoServiceQueryCountTest {
+
+    // user and role assignments; roles come from the catalog and the tenant from its cache
+    private static final long EXPECTED_STATEMENTS = 2;
+    // plus tenant and tenant features while the tenant cache is cold
+    private static final long EXPECTED_COLD_STATEMENTS = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserInfoService userInfoService;
+
+    @Autowired
+    private RoleCatalog roleCatalog;
+
+    @Autowired
+    private TenantDataCache tenantDataCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void userInfoUsesFixedNumberOfQueriesRegardlessOfRoleCount() {
+        Tenant tenant = seedTenant(1);
+        User user = seedUser(tenant, 1, seedRoles(tenant, 0, 5));
+        refreshCatalogs(tenant);
+
+        statistics.clear();
+        UserInfoDto userInfo = userInfoService.getUserInfo(user.getId().toString());
+
+        assertTrue(userInfo.isSuccess(), userInfo.getMessage());
+        assertEquals(5, userInfo.getRoles().size());
+        assertEquals(11, userInfo.getPermissions().size());
+        assertEquals("Tenant 1", userInfo.getTenant().getName());
+        assertEquals(EXPECTED_COLD_STATEMENTS, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        userInfoService.getUserInfo(user.getId().toString());
+
+        assertEquals(EXPECTED_STATEMENTS, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userWithoutRolesUsesSameNumberOfQueries() {
+        Tenant tenant = seedTenant(1);
+        User user = seedUser(tenant, 1, List.of());
+        refreshCatalogs(tenant);
+
+        statistics.clear();
+        UserInfoDto userInfo = userInfoService.getUserInfo(user.getId().toString());
+
+        assertTrue(userInfo.isSuccess(), userInfo.getMessage());
+        assertTrue(userInfo.getRoles().isEmpty());
+        assertEquals(EXPECTED_COLD_STATEMENTS, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchResolvesEveryUserWithInQueriesInRequestOrder() {
+        Tenant first = seedTenant(1);
+        Tenant second = seedTenant(2);
+        List<Roles> roles = seedRoles(first, 0, 5);
+        User alice = seedUser(first, 1, roles);
+        User bob = seedUser(first, 2, roles.subList(0, 2));
+        User carol = seedUser(second, 3, List.of());
+        refreshCatalogs(first, second);
+
+        statistics.clear();
+        List<UserInfoDto> results = userInfoService.getUserInfos(List.of(
+                carol.getId().toString(), "not-a-uuid", alice.getId().toString(),
+                UUID.randomUUID().toString(), bob.getId().toString(), alice.getId().toString()));
+
+        // users, role assignments, tenants, tenant features
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(6, results.size());
+        assertEquals(carol.getGeneratedId(), results.get(0).getUser().getGeneratedId());
+        assertEquals("Tenant 2", results.get(0).getTenant().getName());
+        assertTrue(results.get(0).getRoles().isEmpty());
+        assertEquals("Invalid user ID", results.get(1).getMessage());
+        assertEquals(5, results.get(2).getRoles().size());
+        assertEquals("Tenant 1", results.get(2).getTenant().getName());
+        assertEquals("User not found", results.get(3).getMessage());
+        assertEquals(2, results.get(4).getRoles().size());
+        assertEquals(alice.getGeneratedId(), results.get(5).getUser().getGeneratedId());
+    }
+
+    private Tenant seedTenant(int n) {
+        Tenant tenant = new Tenant();
+        tenant.setGeneratedId(String.format("TNT%07d", n));
+        tenant.setTenantCode("TENANT_" + n);
+        tenant.setName("Tenant " + n);
+        tenant.setDomain("tenant" + n + ".example.com");
+        entityManager.persist(tenant);
+        return tenant;
+    }
+
+    private List<Roles> seedRoles(Tenant tenant, int from, int count) {
+        List<Roles> roles = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            Roles role = new Roles();
+            role.setGeneratedId(String.format("ROL%07d", i));
+            role.setTenantId(tenant.getGeneratedId());
+            role.setRoleCode("ROLE_" + i);
+            role.setRoleName("Role " + i);
+            // Each role shares one permission with its neighbour so the union is deduplicated
+            role.setPermissionCodes(Set.of("PERM_" + i, "PERM_" + (i + 1), "EXTRA_" + i));
+            entityManager.persist(role);
+            roles.add(role);
+        }
+        return roles;
+    }
+
+    private User seedUser(Tenant tenant, int n, List<Roles> roles) {
+        User user = new User();
+        user.setGeneratedId(String.format("USR%07d", n));
+        user.setTenantId(tenant.getGeneratedId());
+        user.setUsername("user" + n + "@example.com");
+        user.setEmail("user" + n + "@example.com");
+        user.setFirstName("User");
+        user.setLastName(String.valueOf(n));
+        user.setPassword("hashed");
+        entityManager.persist(user);
+
+        for (Roles role : roles) {
+            UserTenantRole assignment = new UserTenantRole();
+            assignment.setGeneratedId("UTR" + n + role.getGeneratedId().substring(4));
+            assignment.setUserId(user.getId().toString());
+            assignment.setRoleId(role.getGeneratedId());
+            assignment.setTenantId(tenant.getGeneratedId());
+            entityManager.persist(assignment);
+        }
+        return user;
+    }
+
+    private void refreshCatalogs(Tenant... tenants) {
+        entityManager.flush();
+        entityManager.clear();
+        roleCatalog.rebuild();
+        // The context, and with it the tenant cache, is shared between tests
+        for (Tenant tenant : tenants) {
+            tenantDataCache.onTenantChanged(new TenantChangedEvent(tenant.getGeneratedId()));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.vm2124.userService.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Leases against the migrated {@code id_worker_leases} table, with a clock the test moves.
+ */
+@JdbcTest
+class IdWorkerLeaseTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong millis = new AtomicLong(1_800_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from id_worker_leases");
+    }
+
+    @Test
+    void instancesLeaseDistinctWorkerIds() {
+        Set<Integer> workerIds = new HashSet<>();
+        for (int i = 0; i < IdsGeneraterServiceImpl.WORKERS; i++) {
+            assertTrue(workerIds.add(lease("instance-" + i).workerId()));
+        }
+
+        // Every worker id is held by a running instance
+        assertThrows(IllegalStateException.class, () -> lease("one-too-many"));
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverOnlyAfterTheGracePeriod() {
+        IdWorkerLease stopped = lease("stopped");
+        fillAllBut(stopped.workerId());
+
+        millis.addAndGet(LEASE.toMillis() + 1_000);
+        assertThrows(IllegalStateException.class, () -> lease("too-soon"));
+
+        millis.addAndGet(1_500);
+        assertEquals(stopped.workerId(), lease("successor").workerId());
+    }
+
+    @Test
+    void renewalExtendsTheLeaseUntilItIsLost() {
+        IdWorkerLease held = lease("held");
+        long firstExpiry = held.validUntil();
+
+        millis.addAndGet(60_000);
+        held.renew();
+        assertEquals(firstExpiry + 60_000, held.validUntil());
+
+        jdbcTemplate.update("update id_worker_leases set owner = 'someone-else' where worker_id = ?", held.workerId());
+        held.renew();
+        assertEquals(0, held.validUntil());
+    }
+
+    @Test
+    void releasedLeaseIsReusedAfterTheGracePeriod() {
+        IdWorkerLease released = lease("released");
+        fillAllBut(released.workerId());
+        released.destroy();
+
+        assertThrows(IllegalStateException.class, () -> lease("too-soon"));
+        millis.addAndGet(2_500);
+        assertEquals(released.workerId(), lease("successor").workerId());
+    }
+
+    @Test
+    void configuredWorkerIdNeedsNoLease() {
+        IdWorkerLease configured = new IdWorkerLease(jdbcTemplate, 42, LEASE, "configured", millis::get);
+
+        assertEquals(42, configured.workerId());
+        assertEquals(IdWorkerLease.FIXED, configured.validUntil());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from id_worker_leases", Integer.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> new IdWorkerLease(jdbcTemplate, 256, LEASE, "configured", millis::get));
+    }
+
+    private IdWorkerLease lease(String owner) {
+        return new IdWorkerLease(jdbcTemplate, -1, LEASE, owner, millis::get);
+    }
+
+    private void fillAllBut(int workerId) {
+        for (int i = 0; i < IdsGeneraterServiceImpl.WORKERS; i++) {
+            if (i != workerId) {
+                jdbcTemplate.update("insert into id_worker_leases (worker_id, expires_at, owner) values (?, ?, ?)",
+                        i, Long.MAX_VALUE, "other-" + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.vm2124.userService.service.impl;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Generated IDs per second at 1 to 32 concurrent callers. With the wall clock, each worker
+ * is capped at 64 IDs per 10 ms tick (6,400/s, plus the one second it may run ahead). With a
+ * clock running 100,000x faster the cap is out of the way and the figure is the cost of the
+ * compare-and-set and encoding itself.
+ * Run with: ./mvnw test -Dtest=IdsGeneraterBenchmark -Dbenchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdsGeneraterBenchmark {
+
+    private static final int[] CALLERS = {1, 4, 16, 32};
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+
+    @Test
+    void idsPerSecondByConcurrentCallers() throws Exception {
+        LongSupplier fastClock = () -> IdsGeneraterServiceImpl.EPOCH_MILLIS + System.nanoTime() / 10;
+        for (int callers : CALLERS) {
+            double wallClock = idsPerSecond(new IdsGeneraterServiceImpl(1, System::currentTimeMillis), callers);
+            double uncapped = idsPerSecond(new IdsGeneraterServiceImpl(1, fastClock), callers);
+            System.out.printf("%2d callers: %,12.0f ids/s (wall clock), %,12.0f ids/s (uncapped)%n",
+                    callers, wallClock, uncapped);
+        }
+    }
+
+    private static double idsPerSecond(IdsGeneraterServiceImpl ids, int callers) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        LongAdder generated = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + MEASURE_NANOS;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        ids.generateUserId();
+                        generated.increment();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return generated.sum() / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,136 @@
+package com.vm2124.userService.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdsGeneraterServiceImplTest {
+
+    private static final long NOW = IdsGeneraterServiceImpl.EPOCH_MILLIS + 50_000_000_000L;
+
+    // Runs 100x faster than real time, so the stress test is not held to 6,400 IDs per second
+    private static final LongSupplier FAST_CLOCK =
+            () -> IdsGeneraterServiceImpl.EPOCH_MILLIS + System.nanoTime() / 10_000;
+
+    @Test
+    void idsAreTenUppercaseBase36CharactersInCreationOrder() {
+        IdsGeneraterServiceImpl ids = new IdsGeneraterServiceImpl(7, () -> NOW);
+
+        String first = ids.generateTenantId();
+        String second = ids.generateUserId();
+
+        assertTrue(first.matches("[0-9A-Z]{10}"), first);
+        assertTrue(second.compareTo(first) > 0);
+        // Fits the column until 2095, with a leading digit that cannot match an old prefixed ID
+        assertEquals("ZZZZZZZZZZ", IdsGeneraterServiceImpl.encode(3_656_158_440_062_975L));
+        assertTrue(Character.isDigit(first.charAt(0)));
+    }
+
+    @Test
+    void concurrentCallersNeverGetTheSameId() throws Exception {
+        IdsGeneraterServiceImpl ids = new IdsGeneraterServiceImpl(1, FAST_CLOCK);
+        int threads = 16;
+        int perThread = 50_000;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        assertTrue(seen.add(ids.generateUserId()));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(threads * perThread, seen.size());
+    }
+
+    @Test
+    void workersOnTheSameClockNeverShareAnId() {
+        IdsGeneraterServiceImpl a = new IdsGeneraterServiceImpl(0, () -> NOW);
+        IdsGeneraterServiceImpl b = new IdsGeneraterServiceImpl(255, () -> NOW);
+        Set<String> seen = new HashSet<>();
+
+        // Both borrow the same run of future ticks
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(seen.add(a.generateRoleId()));
+            assertTrue(seen.add(b.generateRoleId()));
+        }
+    }
+
+    @Test
+    void clockSteppingBackDoesNotRepeatIds() {
+        AtomicLong millis = new AtomicLong(NOW);
+        IdsGeneraterServiceImpl ids = new IdsGeneraterServiceImpl(3, millis::get);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            seen.add(ids.generateFeatureId());
+        }
+
+        millis.addAndGet(-500);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(seen.add(ids.generateFeatureId()));
+        }
+    }
+
+    @Test
+    void waitsForTheClockOnceASecondAhead() throws Exception {
+        AtomicLong millis = new AtomicLong(NOW);
+        IdsGeneraterServiceImpl ids = new IdsGeneraterServiceImpl(3, millis::get);
+        // The current tick and the next 100 ticks of sequence numbers
+        for (int i = 0; i < 101 * IdsGeneraterServiceImpl.SEQUENCE; i++) {
+            ids.generateTenantFeatureId();
+        }
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> next = caller.submit(ids::generateTenantFeatureId);
+            Thread.sleep(100);
+            assertFalse(next.isDone());
+
+            millis.addAndGet(IdsGeneraterServiceImpl.TICK_MILLIS);
+            assertNotNull(next.get(5, TimeUnit.SECONDS));
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    void workerIdMustFitTheLayout() {
+        assertThrows(IllegalArgumentException.class, () -> new IdsGeneraterServiceImpl(256, () -> NOW));
+        assertThrows(IllegalArgumentException.class, () -> new IdsGeneraterServiceImpl(-1, () -> NOW));
+    }
+
+    @Test
+    void stopsIssuingOnceTheWorkerIdLeaseExpires() {
+        AtomicLong millis = new AtomicLong(NOW);
+        IdsGeneraterServiceImpl ids = new IdsGeneraterServiceImpl(3, millis::get, () -> NOW + 1_000);
+        assertNotNull(ids.generateUserId());
+
+        millis.addAndGet(1_000);
+        assertThrows(IllegalStateException.class, ids::generateUserId);
+    }
+}
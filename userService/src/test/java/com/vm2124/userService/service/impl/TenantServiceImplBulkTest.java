@@ -0,0 +1,117 @@
+package com.vm2124.userService.service.impl;
+
+import com.vm2124.userService.dto.TenantOnboardingRequest;
+import com.vm2124.userService.dto.TenantOnboardingResponse;
+import com.vm2124.userService.repository.RolesRepository;
+import com.vm2124.userService.repository.TenantFeatureRepository;
+import com.vm2124.userService.repository.TenantRepository;
+import com.vm2124.userService.repository.UserRepository;
+import com.vm2124.userService.repository.UserTenantRoleRepository;
+import com.vm2124.userService.service.PasswordHashingService;
+import com.vm2124.userService.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({TenantServiceImpl.class, IdsGeneraterServiceImpl.class, IdWorkerLease.class})
+class TenantServiceImplBulkTest {
+
+    @Autowired
+    private TenantServiceImpl tenantService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private TenantFeatureRepository tenantFeatureRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RolesRepository rolesRepository;
+
+    @Autowired
+    private UserTenantRoleRepository userTenantRoleRepository;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void chunkIsInsertedInJdbcBatches() {
+        when(passwordHashingService.encode(any())).thenReturn("$2a$10$hash");
+        List<TenantOnboardingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            requests.add(request("BULK" + i, "bulk" + i + ".com"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<TenantOnboardingResponse> responses = tenantService.onboardTenants(requests);
+
+        assertTrue(responses.stream().allMatch(TenantOnboardingResponse::isSuccess));
+        assertEquals(40, tenantRepository.count());
+        assertEquals(120, tenantFeatureRepository.count());
+        assertEquals(40, userRepository.count());
+        assertEquals(40, rolesRepository.count());
+        assertEquals(40, userTenantRoleRepository.count());
+        // 680 rows across six tables (400 of them role permissions), sent in batches of up to 50
+        assertTrue(statistics.getPrepareStatementCount() < 30,
+                () -> statistics.getPrepareStatementCount() + " statements prepared for 680 rows");
+    }
+
+    @Test
+    void duplicatesAreReportedPerRequestAndTheRestAreOnboarded() {
+        when(passwordHashingService.encode(any())).thenReturn("$2a$10$hash");
+        tenantService.onboardTenants(List.of(request("EXISTING", "existing.com")));
+
+        List<TenantOnboardingResponse> responses = tenantService.onboardTenants(List.of(
+                request("EXISTING", "other.com"),
+                request("NEW1", "existing.com"),
+                request("NEW2", "new2.com"),
+                request("NEW2", "new3.com")));
+
+        assertEquals(List.of(false, false, true, false),
+                responses.stream().map(TenantOnboardingResponse::isSuccess).toList());
+        assertEquals("Tenant code already exists: EXISTING", responses.get(0).getMessage());
+        assertEquals("Domain already exists: existing.com", responses.get(1).getMessage());
+        assertNotNull(responses.get(2).getTenantGeneratedId());
+        assertEquals(3, responses.get(2).getEnabledFeatures().size());
+        assertEquals(2, tenantRepository.count());
+    }
+
+    private static TenantOnboardingRequest request(String tenantCode, String domain) {
+        TenantOnboardingRequest request = new TenantOnboardingRequest();
+        request.setTenantCode(tenantCode);
+        request.setName("Tenant " + tenantCode);
+        request.setDomain(domain);
+        request.setAdminUsername("admin");
+        request.setAdminEmail("admin@" + domain);
+        request.setAdminFirstName("Admin");
+        request.setAdminLastName(tenantCode);
+        request.setAdminPassword("password123");
+        return request;
+    }
+}